@@ -10,7 +10,17 @@ import java.util.List;
  */
 public class AuthService {
 
-    private final List<User> users;
+    private final UserDataManager udm;
+
+    /**
+     * Creates a new AuthService over the users of the given data manager.
+     * Lookups by email go through the data manager's email index.
+     *
+     * @param udm the user data manager
+     */
+    public AuthService(UserDataManager udm) {
+        this.udm = udm;
+    }
 
     /**
      * Creates a new AuthService with the given list of users.
@@ -18,7 +28,7 @@ public class AuthService {
      * @param users the list of system users
      */
     public AuthService(List<User> users) {
-        this.users = users;
+        this(new UserDataManager(users));
     }
 
     /**
@@ -30,10 +40,9 @@ public class AuthService {
      * @throws FlightBookingSystemException if email or password is invalid
      */
     public User login(String email, String password) throws FlightBookingSystemException {
-        for (User u : users) {
-            if (u.getEmail().equalsIgnoreCase(email) && u.getPassword().equals(password)) {
-                return u;
-            }
+        User u = udm.findByEmail(email);
+        if (u != null && u.getPassword().equals(password)) {
+            return u;
         }
         throw new FlightBookingSystemException("Invalid email or password.");
     }
@@ -54,9 +63,9 @@ public class AuthService {
 
         validateUniqueEmail(email);
 
-        int newId = users.size() + 1;
+        int newId = udm.nextUserId();
         User user = new User(newId, first, middle, last, email, password, Role.CUSTOMER, null);
-        users.add(user);
+        udm.addUser(user);
         return user;
     }
 
@@ -81,9 +90,9 @@ public class AuthService {
 
         validateUniqueEmail(email);
 
-        int newId = users.size() + 1;
+        int newId = udm.nextUserId();
         User admin = new User(newId, first, middle, last, email, password, Role.ADMIN, null);
-        users.add(admin);
+        udm.addUser(admin);
         return admin;
     }
 
@@ -104,9 +113,9 @@ public class AuthService {
 
         validateUniqueEmail(email);
 
-        int newId = users.size() + 1;
+        int newId = udm.nextUserId();
         User admin = new User(newId, first, middle, last, email, password, Role.ADMIN, null);
-        users.add(admin);
+        udm.addUser(admin);
         return admin;
     }
 
@@ -117,12 +126,40 @@ public class AuthService {
      * @return true if email exists, false otherwise
      */
     public boolean emailExists(String email) {
-        for (User u : users) {
-            if (u.getEmail().equalsIgnoreCase(email)) {
-                return true;
-            }
+        return udm.findByEmail(email) != null;
+    }
+
+    /**
+     * Checks that an email has the form name@domain.tld: no spaces, exactly one '@'
+     * with text before it, and a '.' after it that is not the last character.
+     *
+     * @param email the email to check
+     * @return true if the email is well formed
+     */
+    public static boolean isValidEmail(String email) {
+        if (email == null) {
+            return false;
+        }
+
+        if (email.contains(" ")) {
+            return false;
         }
-        return false;
+
+        int atIndex = email.indexOf('@');
+        int lastAtIndex = email.lastIndexOf('@');
+
+        // must contain exactly one '@'
+        if (atIndex <= 0 || atIndex != lastAtIndex) {
+            return false;
+        }
+
+        // must contain '.' after '@'
+        int dotIndex = email.indexOf('.', atIndex);
+        if (dotIndex <= atIndex + 1 || dotIndex == email.length() - 1) {
+            return false;
+        }
+
+        return true;
     }
 
     private void validateUniqueEmail(String email) throws FlightBookingSystemException {
@@ -16,6 +16,9 @@ public class User {
     // Only for CUSTOMER users. For ADMIN it stays null.
     private Integer customerId;
 
+    // The manager this user was loaded into or added to; null until then
+    private UserDataManager manager;
+
     public User(int id, String firstName, String middleName,
                 String lastName, String email, String password, Role role, Integer customerId) {
 
@@ -63,6 +66,19 @@ public class User {
 
     public void setCustomerId(Integer customerId) {
         this.customerId = customerId;
+        if (manager != null) {
+            manager.markChanged();
+        }
+    }
+
+    /**
+     * Attaches this user to the manager that saves it, so that modifying the user
+     * marks users.txt as out of date.
+     *
+     * @param manager the owning manager
+     */
+    void attach(UserDataManager manager) {
+        this.manager = manager;
     }
 
     public String getFullName() {
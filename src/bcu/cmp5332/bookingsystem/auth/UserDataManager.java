@@ -1,16 +1,21 @@
 package bcu.cmp5332.bookingsystem.auth;
 
 import bcu.cmp5332.bookingsystem.data.DataManager;
+import bcu.cmp5332.bookingsystem.data.DurableFile;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.IdSequence;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages persistence of user accounts to and from a file.
@@ -19,7 +24,44 @@ import java.util.Scanner;
 public class UserDataManager implements DataManager {
 
     private static final String RESOURCE = "./resources/data/users.txt";
-    private final List<User> users = new ArrayList<>();
+    private final List<User> users;
+
+    // Case-folded email -> user, shared by every service that looks users up by email
+    private final Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+    private final IdSequence userIds = new IdSequence();
+
+    // Set when a user is added or modified; users report changes through attach()
+    private volatile boolean changed;
+
+    /**
+     * Creates a manager with no users; call {@link #loadData(FlightBookingSystem)} to load them.
+     */
+    public UserDataManager() {
+        this.users = new ArrayList<>();
+    }
+
+    /**
+     * Creates a manager over an existing list of users. Users added through
+     * {@link #addUser(User)} are appended to that list.
+     *
+     * @param users the users to manage
+     */
+    UserDataManager(List<User> users) {
+        this.users = users;
+        for (User u : users) {
+            index(u);
+        }
+        changed = !users.isEmpty();
+    }
+
+    /**
+     * Returns a new user id, higher than the id of every loaded or added user.
+     *
+     * @return the new user id
+     */
+    public int nextUserId() {
+        return userIds.next();
+    }
 
     /**
      * Returns the list of all loaded users.
@@ -30,6 +72,74 @@ public class UserDataManager implements DataManager {
         return users;
     }
 
+    /**
+     * Returns the user registered with the given email, ignoring case.
+     *
+     * @param email the email to look up
+     * @return the user, or null if no user has that email
+     */
+    public User findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        return usersByEmail.get(emailKey(email));
+    }
+
+    /**
+     * Adds a new user and indexes it by email.
+     *
+     * @param user the user to add
+     * @throws FlightBookingSystemException if another user already has the same email
+     */
+    public synchronized void addUser(User user) throws FlightBookingSystemException {
+        if (usersByEmail.putIfAbsent(emailKey(user.getEmail()), user) != null) {
+            throw new FlightBookingSystemException("Email already exists.");
+        }
+        users.add(user);
+        userIds.observe(user.getId());
+        user.attach(this);
+        changed = true;
+    }
+
+    /**
+     * Indicates whether users were added or modified since they were last loaded or saved.
+     *
+     * @return true if users.txt is out of date
+     */
+    public boolean hasChanges() {
+        return changed;
+    }
+
+    /**
+     * Returns the path of the users file.
+     *
+     * @return the users.txt path
+     */
+    public String getResource() {
+        return RESOURCE;
+    }
+
+    /**
+     * Records that the current users have been saved (or captured for saving).
+     */
+    public void markSaved() {
+        changed = false;
+    }
+
+    /**
+     * Records that users.txt is out of date, for example after a failed save.
+     */
+    public void markUnsaved() {
+        changed = true;
+    }
+
+    /**
+     * Records that a user was modified. Called by the user itself.
+     */
+    void markChanged() {
+        changed = true;
+    }
+
     /**
      * Loads users from the users.txt file into memory.
      *
@@ -41,13 +151,15 @@ public class UserDataManager implements DataManager {
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
 
         users.clear();
+        usersByEmail.clear();
+        changed = false;
 
-        File file = new File(RESOURCE);
-        if (!file.exists()) {
+        Path source = DurableFile.resolve(Paths.get(RESOURCE));
+        if (source == null) {
             return;
         }
 
-        try (Scanner sc = new Scanner(file)) {
+        try (Scanner sc = new Scanner(source.toFile())) {
             int lineIdx = 1;
 
             while (sc.hasNextLine()) {
@@ -74,7 +186,9 @@ public class UserDataManager implements DataManager {
                         customerId = Integer.parseInt(parts[7].trim());
                     }
 
-                    users.add(new User(id, first, middle, last, email, password, role, customerId));
+                    User user = new User(id, first, middle, last, email, password, role, customerId);
+                    users.add(user);
+                    index(user);
 
                 } catch (Exception ex) {
                     throw new FlightBookingSystemException(
@@ -84,6 +198,7 @@ public class UserDataManager implements DataManager {
                 lineIdx++;
             }
         }
+        markSaved();
     }
 
     /**
@@ -94,25 +209,57 @@ public class UserDataManager implements DataManager {
      */
     @Override
     public void storeData(FlightBookingSystem fbs) throws IOException {
+        write(encode());
+        markSaved();
+    }
 
-        try (PrintWriter out = new PrintWriter(new FileWriter(RESOURCE))) {
-            for (User u : users) {
-                out.print(u.getId() + SEPARATOR);
-                out.print(u.getFirstName() + SEPARATOR);
-                out.print(u.getMiddleName() + SEPARATOR);
-                out.print(u.getLastName() + SEPARATOR);
-                out.print(u.getEmail() + SEPARATOR);
-                out.print(u.getPassword() + SEPARATOR);
-                out.print(u.getRole() + SEPARATOR);
-
-                if (u.getCustomerId() == null) {
-                    out.print("" + SEPARATOR);
-                } else {
-                    out.print(u.getCustomerId() + SEPARATOR);
-                }
+    /**
+     * Formats all users as the contents of users.txt.
+     *
+     * @return the users file contents
+     */
+    public String encode() {
+        StringBuilder out = new StringBuilder();
+        String newline = System.lineSeparator();
+        for (User u : users) {
+            out.append(u.getId()).append(SEPARATOR);
+            out.append(u.getFirstName()).append(SEPARATOR);
+            out.append(u.getMiddleName()).append(SEPARATOR);
+            out.append(u.getLastName()).append(SEPARATOR);
+            out.append(u.getEmail()).append(SEPARATOR);
+            out.append(u.getPassword()).append(SEPARATOR);
+            out.append(u.getRole()).append(SEPARATOR);
 
-                out.println();
+            if (u.getCustomerId() == null) {
+                out.append(SEPARATOR);
+            } else {
+                out.append(u.getCustomerId()).append(SEPARATOR);
             }
+
+            out.append(newline);
         }
+        return out.toString();
+    }
+
+    private void index(User user) {
+        // Older files may repeat an email; the first account with it wins, as it always did at login
+        usersByEmail.putIfAbsent(emailKey(user.getEmail()), user);
+        userIds.observe(user.getId());
+        user.attach(this);
+    }
+
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Replaces users.txt with previously formatted contents.
+     * The file is replaced atomically through {@link DurableFile}.
+     *
+     * @param contents the users file contents from {@link #encode()}
+     * @throws IOException if file writing fails
+     */
+    public void write(String contents) throws IOException {
+        DurableFile.write(Paths.get(RESOURCE), contents.getBytes(StandardCharsets.UTF_8));
     }
 }
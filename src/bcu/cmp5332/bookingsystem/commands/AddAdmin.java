@@ -1,30 +1,61 @@
 package bcu.cmp5332.bookingsystem.commands;
 
+import bcu.cmp5332.bookingsystem.auth.AuthService;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
 /**
- * Placeholder command for adding a new admin account.
- * Special handling in Main.java - this command is not directly executed.
+ * Command for adding a new admin account.
+ * Typed interactively, addadmin is handled specially in Main.java; with inline
+ * arguments (as in batch files) the account is created by this command.
  */
 public class AddAdmin implements Command {
 
+    private final String first;
+    private final String last;
+    private final String email;
+    private final String password;
+    private final AuthService authService;
+
     /**
      * Creates an AddAdmin command.
      * Note: This command is handled specially in Main.java, not executed directly.
      */
     public AddAdmin() {
+        this(null, null, null, null, null);
+    }
+
+    /**
+     * Creates an AddAdmin command with all account details given inline.
+     *
+     * @param first admin's first name
+     * @param last admin's last name
+     * @param email admin's email (must be unique)
+     * @param password admin's password
+     * @param authService the service the account is registered with
+     */
+    public AddAdmin(String first, String last, String email, String password, AuthService authService) {
+        this.first = first;
+        this.last = last;
+        this.email = email;
+        this.password = password;
+        this.authService = authService;
     }
 
     /**
-     * This method should not be called directly.
-     * AddAdmin is handled by Main.java's handleAddAdmin() method.
+     * Registers the admin account given inline.
+     * Without inline details, AddAdmin is handled by Main.java's handleAddAdmin() method.
      *
      * @param flightBookingSystem the FlightBookingSystem
-     * @throws FlightBookingSystemException always, as this should be handled in Main
+     * @throws FlightBookingSystemException if no details were given or the email already exists
      */
     @Override
     public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        throw new FlightBookingSystemException("AddAdmin should be handled by Main, not executed directly");
+        if (authService == null) {
+            throw new FlightBookingSystemException("AddAdmin should be handled by Main, not executed directly");
+        }
+        authService.registerAdmin(first, "", last, email, password);
+        System.out.println("Admin account created successfully");
+        System.out.println("Email: " + email);
     }
 }
@@ -1,13 +1,14 @@
 package bcu.cmp5332.bookingsystem.commands;
 
+import bcu.cmp5332.bookingsystem.data.FinancialLedger;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.UnitOfWork;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Booking;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
-import java.time.temporal.ChronoUnit;
-
 /**
  * Adds a booking for a customer on a flight with dynamic pricing.
  * Booking is not allowed for past flights.
@@ -32,12 +33,18 @@ public class AddBooking implements Command {
      * Executes the add booking command with dynamic pricing.
      * Enforces business rules: active customer/flight, future flight date, capacity limits.
      * Calculates price based on seat occupancy and days to departure.
+     * Runs as one unit of work, so a failure leaves no partial booking behind.
      *
      * @param fbs the flight booking system
      * @throws FlightBookingSystemException if booking cannot be added
      */
     @Override
     public void execute(FlightBookingSystem fbs) throws FlightBookingSystemException {
+        // Seats are claimed lock-free, so only the customer needs locking
+        fbs.getBookingLocks().run(customerId, () -> UnitOfWork.run(work -> book(fbs, work)));
+    }
+
+    private void book(FlightBookingSystem fbs, UnitOfWork work) throws FlightBookingSystemException {
 
         Customer customer = fbs.getCustomerByID(customerId);
         Flight flight = fbs.getFlightByID(flightId);
@@ -56,44 +63,35 @@ public class AddBooking implements Command {
             throw new FlightBookingSystemException("Cannot add booking. Flight has already departed.");
         }
 
-        // Capacity enforcement
-        int capacity = flight.getCapacity();
-        int currentPassengers = flight.getPassengers().size();
+        // Dynamic pricing by seat occupancy and days to departure
+        double price = fbs.quote(flight);
 
-        if (capacity > 0 && currentPassengers >= capacity) {
+        // Capacity enforcement
+        if (!flight.tryReserveSeat()) {
             throw new FlightBookingSystemException(
-                    "Cannot add booking. Flight is full (" + capacity + " seats).");
+                    "Cannot add booking. Flight is full (" + flight.getCapacity() + " seats).");
         }
 
-        // --- Dynamic pricing ---
-        double price = flight.getBasePrice();
-
-        // Seat-based pricing
-        if (capacity > 0) {
-            double occupancyRate = (double) currentPassengers / capacity;
-
-            if (occupancyRate >= 0.8) {
-                price = price * 1.20; // +20%
-            } else if (occupancyRate >= 0.5) {
-                price = price * 1.10; // +10%
-            }
-        }
-
-        // Date-based pricing
-        long daysToDeparture = ChronoUnit.DAYS.between(
-                fbs.getSystemDate(), flight.getDepartureDate());
+        // Create booking with calculated price
+        Booking booking = new Booking(customer, flight, fbs.getSystemDate(), price);
 
-        if (daysToDeparture <= 7) {
-            price = price * 1.30; // +30%
-        } else if (daysToDeparture <= 30) {
-            price = price * 1.15; // +15%
+        try {
+            customer.addBooking(booking);
+        } catch (FlightBookingSystemException ex) {
+            flight.releaseSeat();
+            throw ex;
         }
+        work.addUndo(() -> customer.cancelBookingForFlight(flight));
 
-        // Create booking with calculated price
-        Booking booking = new Booking(customer, flight, fbs.getSystemDate(), price);
+        // Gives the claimed seat back itself if it fails
+        flight.addReservedPassenger(customer);
+        work.addUndo(() -> flight.removePassenger(customer));
 
-        customer.addBooking(booking);
-        flight.addPassenger(customer);
+        // The journal record cannot be cancelled once written, so it goes last
+        work.addLedgerEntry(FlightBookingSystemData.getLedger(), FinancialLedger.Type.CHARGE,
+                customerId, flightId, fbs.getSystemDate(), price);
+        work.addRecord(() -> FlightBookingSystemData.getJournal().recordBooking(booking));
+        work.commit();
 
         System.out.println("Booking added successfully.");
         System.out.println("Final price: " + String.format("%.2f", price));
@@ -1,19 +1,32 @@
 package bcu.cmp5332.bookingsystem.commands;
 
+import bcu.cmp5332.bookingsystem.auth.AuthService;
+import bcu.cmp5332.bookingsystem.auth.User;
+import bcu.cmp5332.bookingsystem.data.UnitOfWork;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
 /**
  * Command to add a new customer to the system.
+ * The addcustomer command, whether typed with inline arguments or answered at the
+ * prompts, gives the customer a login account linked to the new customer record.
  */
 public class AddCustomer implements Command {
 
     private final String name;
     private final String phone;
 
+    // Login account details; authService is null for a customer record without an account
+    private final String first;
+    private final String middle;
+    private final String last;
+    private final String email;
+    private final String password;
+    private final AuthService authService;
+
     /**
-     * Creates an AddCustomer command.
+     * Creates an AddCustomer command for a customer record without a login account.
      *
      * @param name the customer's full name
      * @param phone the customer's phone number
@@ -21,24 +34,82 @@ public class AddCustomer implements Command {
     public AddCustomer(String name, String phone) {
         this.name = name;
         this.phone = phone;
+        this.first = null;
+        this.middle = null;
+        this.last = null;
+        this.email = null;
+        this.password = null;
+        this.authService = null;
+    }
+
+    /**
+     * Creates an AddCustomer command for a customer with a login account.
+     *
+     * @param first customer's first name
+     * @param middle customer's middle name (may be empty)
+     * @param last customer's last name
+     * @param email customer's email (must be unique)
+     * @param password customer's password
+     * @param phone the customer's phone number
+     * @param authService the service the account is registered with
+     */
+    public AddCustomer(String first, String middle, String last, String email, String password,
+                       String phone, AuthService authService) {
+        this.first = first;
+        this.middle = middle == null ? "" : middle;
+        this.last = last;
+        this.email = email;
+        this.password = password;
+        this.phone = phone;
+        this.authService = authService;
+        this.name = this.middle.isBlank() ? first + " " + last : first + " " + this.middle + " " + last;
     }
 
     /**
      * Executes the add customer command.
-     * Adds a new customer to the system with auto-generated ID.
+     * Adds a new customer to the system with auto-generated ID, and registers its
+     * login account if account details were given.
      *
      * @param flightBookingSystem the flight booking system
-     * @throws FlightBookingSystemException if customer cannot be added
+     * @throws FlightBookingSystemException if the phone number or email is invalid or already exists
      */
     @Override
     public void execute(FlightBookingSystem flightBookingSystem)
             throws FlightBookingSystemException {
 
-        int newId = flightBookingSystem.getCustomers().size() + 1;
+        if (phone == null || !phone.matches("\\d{10}")) {
+            throw new FlightBookingSystemException("Invalid phone number. It must contain exactly 10 digits.");
+        }
+        if (flightBookingSystem.phoneExists(phone)) {
+            throw new FlightBookingSystemException("Phone number already exists.");
+        }
+        if (authService != null) {
+            if (!AuthService.isValidEmail(email)) {
+                throw new FlightBookingSystemException("Invalid email format. Please enter a valid email.");
+            }
+            if (authService.emailExists(email)) {
+                throw new FlightBookingSystemException("Email already exists.");
+            }
+        }
+
+        int newId = flightBookingSystem.getCustomerIds().next();
 
         Customer customer = new Customer(newId, name, phone);
-        flightBookingSystem.addCustomer(customer);
+        UnitOfWork.run(work -> {
+            flightBookingSystem.addCustomer(customer);
+            work.addUndo(() -> flightBookingSystem.removeCustomer(customer));
+
+            // Registered last: an account cannot be removed again, and nothing after it can fail
+            if (authService != null) {
+                User user = authService.registerCustomer(first, middle, last, email, password);
+                user.setCustomerId(newId);
+            }
+        });
 
         System.out.println("Customer added successfully with ID " + newId);
+        if (authService != null) {
+            System.out.println("Email: " + email);
+            System.out.println("Phone: " + phone);
+        }
     }
 }
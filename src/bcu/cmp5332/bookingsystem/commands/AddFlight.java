@@ -1,5 +1,6 @@
 package bcu.cmp5332.bookingsystem.commands;
 
+import bcu.cmp5332.bookingsystem.data.UnitOfWork;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
@@ -45,18 +46,14 @@ public class AddFlight implements Command {
      */
     @Override
     public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        // Find next available ID
-        int maxId = 0;
-        for (Flight f : flightBookingSystem.getFlights()) {
-            if (f.getId() > maxId) {
-                maxId = f.getId();
-            }
-        }
-        
         // Create and add new flight
-        Flight flight = new Flight(++maxId, flightNumber, origin, destination, 
+        int id = flightBookingSystem.getFlightIds().next();
+        Flight flight = new Flight(id, flightNumber, origin, destination, 
                                    departureDate, capacity, basePrice);
-        flightBookingSystem.addFlight(flight);
+        UnitOfWork.run(work -> {
+            flightBookingSystem.addFlight(flight);
+            work.addUndo(() -> flightBookingSystem.removeFlight(flight));
+        });
         System.out.println("Flight #" + flight.getId() + " added successfully.");
         System.out.println("- Flight Number: " + flightNumber);
         System.out.println("- Capacity: " + capacity + " seats");
@@ -1,5 +1,7 @@
 package bcu.cmp5332.bookingsystem.commands;
 
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.UnitOfWork;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
@@ -42,7 +44,11 @@ public class AdvanceDate implements Command {
                     "New system date must be after current system date (" + current + ").");
         }
 
-        fbs.setSystemDate(newDate);
+        UnitOfWork.run(work -> {
+            fbs.setSystemDate(newDate);
+            work.addUndo(() -> fbs.setSystemDate(current));
+            work.addRecord(() -> FlightBookingSystemData.getJournal().recordSystemDate(newDate));
+        });
 
         System.out.println("System date updated successfully.");
         System.out.println("New System Date: " + fbs.getSystemDate());
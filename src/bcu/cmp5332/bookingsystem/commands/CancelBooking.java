@@ -1,11 +1,15 @@
 package bcu.cmp5332.bookingsystem.commands;
 
+import bcu.cmp5332.bookingsystem.data.FinancialLedger;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.UnitOfWork;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Booking;
 import bcu.cmp5332.bookingsystem.model.BookingStatus;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.pricing.FeeEngine;
 
 /**
  * Cancels a booking and applies a cancellation fee.
@@ -30,12 +34,17 @@ public class CancelBooking implements Command {
     /**
      * Executes the cancel booking command.
      * Marks the booking as CANCELED, stores the cancellation fee, and removes passenger from flight.
+     * Runs as one unit of work, so a failure leaves the booking as it was.
      *
      * @param fbs the flight booking system
      * @throws FlightBookingSystemException if booking not found or cancellation fails
      */
     @Override
     public void execute(FlightBookingSystem fbs) throws FlightBookingSystemException {
+        fbs.getBookingLocks().run(customerId, () -> UnitOfWork.run(work -> cancel(fbs, work)), flightId);
+    }
+
+    private void cancel(FlightBookingSystem fbs, UnitOfWork work) throws FlightBookingSystemException {
 
         Customer customer = fbs.getCustomerByID(customerId);
         Flight flight = fbs.getFlightByID(flightId);
@@ -50,24 +59,32 @@ public class CancelBooking implements Command {
             throw new FlightBookingSystemException("Booking is already canceled.");
         }
 
+        FeeEngine fees = fbs.getFees();
         double bookingPrice = booking.getBookingPrice();
-        double fee = bookingPrice * 0.10; // 10%
-        if (fee < 5.0) {
-            fee = 5.0;
-        }
-
-        double refund = bookingPrice - fee;
-        if (refund < 0) {
-            refund = 0;
-        }
+        double fee = fees.cancellationFee(bookingPrice);
+        double refund = fees.refundAfter(bookingPrice, fee);
 
         // Mark booking as CANCELED and store fee information
+        double oldFee = booking.getFeeLast();
+        String oldFeeType = booking.getFeeType();
         booking.setStatus(BookingStatus.CANCELED);
         booking.setFeeLast(fee);
         booking.setFeeType("CANCEL");
+        work.addUndo(() -> {
+            booking.setStatus(BookingStatus.ACTIVE);
+            booking.setFeeLast(oldFee);
+            booking.setFeeType(oldFeeType);
+        });
 
         // Remove passenger from flight
         flight.removePassenger(customer);
+        work.addUndo(() -> flight.addPassenger(customer));
+
+        FinancialLedger ledger = FlightBookingSystemData.getLedger();
+        work.addLedgerEntry(ledger, FinancialLedger.Type.FEE, customerId, flightId, fbs.getSystemDate(), fee);
+        work.addLedgerEntry(ledger, FinancialLedger.Type.REFUND, customerId, flightId, fbs.getSystemDate(), refund);
+        work.addRecord(() -> FlightBookingSystemData.getJournal().recordCancel(customerId, flightId, fee));
+        work.commit();
 
         System.out.println("Booking cancelled successfully.");
         System.out.println("Cancellation fee: " + String.format("%.2f", fee));
@@ -75,11 +92,6 @@ public class CancelBooking implements Command {
     }
 
     private Booking findBooking(Customer customer, int flightId) {
-        for (Booking b : customer.getBookings()) {
-            if (b.getFlight().getId() == flightId && b.getStatus() == BookingStatus.ACTIVE) {
-                return b;
-            }
-        }
-        return null;
+        return customer.getActiveBooking(flightId);
     }
 }
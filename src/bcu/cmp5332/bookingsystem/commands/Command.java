@@ -11,10 +11,13 @@ public interface Command {
 
     public static final String ADMIN_HELP = "Commands:\n"
             + "\tlistflights                                   print all flights\n"
+            + "\tsearchflights [origin] [dest] [from] [to]     search flights by route (dates optional)\n"
+            + "\tsearchconnections [origin] [dest] [date]      find journeys with connections\n"
             + "\tlistcustomers                                 print all customers\n"
             + "\taddflight                                     add a new flight (includes capacity and base price)\n"
             + "\taddcustomer                                   add a new customer\n"
             + "\taddadmin                                      add a new admin account\n"
+            + "\timportflights [file] [report]                 add flights from a CSV schedule\n"
             + "\tshowflight [flight id]                        show flight details\n"
             + "\tshowcustomer [customer id]                    show customer details\n"
             + "\taddbooking [customer id] [flight id]          add a new booking\n"
@@ -31,6 +34,8 @@ public interface Command {
 
     public static final String CUSTOMER_HELP = "Commands:\n"
             + "\tlistflights                                                print future flights only\n"
+            + "\tsearchflights [origin] [destination] [from] [to]           search future flights by route\n"
+            + "\tsearchconnections [origin] [dest] [date] [order]            find journeys with connections (cheapest/shortest)\n"
             + "\tshowflight [flight id]                                     show flight details\n"
             + "\tshowcustomer                                               show your customer details\n"
             + "\taddbooking [your id] [flight id]                           add a new booking\n"
@@ -2,6 +2,8 @@ package bcu.cmp5332.bookingsystem.commands;
 
 import bcu.cmp5332.bookingsystem.auth.Role;
 import bcu.cmp5332.bookingsystem.auth.User;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.UnitOfWork;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
@@ -40,7 +42,18 @@ public class DeactivateCustomer implements Command {
         }
 
         Customer c = fbs.getCustomerByID(customerId);
-        c.deactivate();
+        UnitOfWork.run(work -> {
+            boolean wasActive = c.isActive();
+            c.deactivate();
+            work.addUndo(() -> {
+                if (wasActive) {
+                    c.reactivate();
+                } else {
+                    c.deactivate();
+                }
+            });
+            work.addRecord(() -> FlightBookingSystemData.getJournal().recordCustomerActive(customerId, false));
+        });
 
         System.out.println("Customer deactivated successfully.");
     }
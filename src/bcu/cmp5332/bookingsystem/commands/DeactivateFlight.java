@@ -2,6 +2,8 @@ package bcu.cmp5332.bookingsystem.commands;
 
 import bcu.cmp5332.bookingsystem.auth.Role;
 import bcu.cmp5332.bookingsystem.auth.User;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.UnitOfWork;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
@@ -40,7 +42,18 @@ public class DeactivateFlight implements Command {
         }
 
         Flight f = fbs.getFlightByID(flightId);
-        f.deactivate();
+        UnitOfWork.run(work -> {
+            boolean wasActive = f.isActive();
+            f.deactivate();
+            work.addUndo(() -> {
+                if (wasActive) {
+                    f.reactivate();
+                } else {
+                    f.deactivate();
+                }
+            });
+            work.addRecord(() -> FlightBookingSystemData.getJournal().recordFlightActive(flightId, false));
+        });
 
         System.out.println("Flight deactivated successfully.");
     }
@@ -0,0 +1,77 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.data.FlightScheduleImporter;
+import bcu.cmp5332.bookingsystem.data.UnitOfWork;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command for adding the flights of a CSV schedule file (admin only).
+ * The flights are saved with the rest of the system after the command, in one write.
+ * If the schedule cannot be read to the end or the report cannot be written, none of
+ * its flights are added.
+ */
+public class ImportFlights implements Command {
+
+    /** Number of rejected rows printed; the report file lists them all. */
+    public static final int SHOWN_REJECTIONS = 10;
+
+    private final Path schedule;
+    private final Path report;
+
+    /**
+     * Creates an ImportFlights command.
+     *
+     * @param schedule the CSV file to import
+     * @param report file to write rejected rows to, or null for none
+     */
+    public ImportFlights(Path schedule, Path report) {
+        this.schedule = schedule;
+        this.report = report;
+    }
+
+    /**
+     * Executes the import flights command.
+     * Prints the number of flights imported and the first rejected rows.
+     *
+     * @param flightBookingSystem the FlightBookingSystem to add flights to
+     * @throws FlightBookingSystemException if the schedule or report cannot be read or written
+     */
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+        // The report is part of the unit, so an import whose report cannot be written is undone
+        UnitOfWork.run(work -> {
+            FlightScheduleImporter.Result result;
+            try {
+                result = new FlightScheduleImporter(flightBookingSystem).importFile(schedule, work);
+            } catch (IOException ex) {
+                throw new FlightBookingSystemException("Unable to read flight schedule: " + ex.getMessage());
+            }
+            if (report != null) {
+                try {
+                    result.writeReport(report);
+                } catch (IOException ex) {
+                    throw new FlightBookingSystemException("Unable to write import report: " + ex.getMessage());
+                }
+            }
+            work.commit();
+            printResult(result);
+        });
+    }
+
+    private void printResult(FlightScheduleImporter.Result result) {
+
+        int shown = Math.min(SHOWN_REJECTIONS, result.getRejected().size());
+        for (FlightScheduleImporter.Rejection rejection : result.getRejected().subList(0, shown)) {
+            System.out.println("Line " + rejection.getLineNumber() + ": " + rejection.getReason());
+        }
+        System.out.printf("%d flight(s) imported, %d row(s) rejected in %d ms%n",
+                result.getImported(), result.getRejected().size(), result.getElapsedNanos() / 1_000_000);
+        if (report != null && !result.getRejected().isEmpty()) {
+            System.out.println("Rejected rows written to " + report);
+        }
+    }
+}
@@ -4,7 +4,6 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
-import java.util.List;
 
 /**
  * Displays all active flights in the system.
@@ -21,9 +20,8 @@ public class ListFlights implements Command {
      */
     @Override
     public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        List<Flight> flights = flightBookingSystem.getFlights();
         int count = 0;
-        for (Flight flight : flights) {
+        for (Flight flight : flightBookingSystem.getFlights()) {
             if (flight.isActive()) {
                 System.out.println(flight.getDetailsShort());
                 count++;
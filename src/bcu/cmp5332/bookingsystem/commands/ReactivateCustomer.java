@@ -2,6 +2,8 @@ package bcu.cmp5332.bookingsystem.commands;
 
 import bcu.cmp5332.bookingsystem.auth.Role;
 import bcu.cmp5332.bookingsystem.auth.User;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.UnitOfWork;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
@@ -40,7 +42,18 @@ public class ReactivateCustomer implements Command {
         }
 
         Customer c = fbs.getCustomerByID(customerId);
-        c.reactivate();
+        UnitOfWork.run(work -> {
+            boolean wasActive = c.isActive();
+            c.reactivate();
+            work.addUndo(() -> {
+                if (wasActive) {
+                    c.reactivate();
+                } else {
+                    c.deactivate();
+                }
+            });
+            work.addRecord(() -> FlightBookingSystemData.getJournal().recordCustomerActive(customerId, true));
+        });
 
         System.out.println("Customer reactivated successfully.");
     }
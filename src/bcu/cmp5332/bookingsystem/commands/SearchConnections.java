@@ -0,0 +1,56 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.search.Itinerary;
+import bcu.cmp5332.bookingsystem.search.ItinerarySearch;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Displays the best journeys between two airports starting on a given date,
+ * including journeys with connecting flights.
+ */
+public class SearchConnections implements Command {
+
+    /** Number of journeys shown. */
+    public static final int RESULTS = 5;
+
+    private final String origin;
+    private final String destination;
+    private final LocalDate date;
+    private final ItinerarySearch.Order order;
+
+    /**
+     * Creates a SearchConnections command.
+     *
+     * @param origin the origin
+     * @param destination the destination
+     * @param date the date the journey starts
+     * @param order whether to rank journeys by price or by length
+     */
+    public SearchConnections(String origin, String destination, LocalDate date, ItinerarySearch.Order order) {
+        this.origin = origin;
+        this.destination = destination;
+        this.date = date;
+        this.order = order;
+    }
+
+    /**
+     * Executes the search connections command.
+     * Prints each journey with its legs and leg prices.
+     *
+     * @param flightBookingSystem the FlightBookingSystem to search
+     * @throws FlightBookingSystemException if execution fails
+     */
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+        List<Itinerary> journeys = new ItinerarySearch(flightBookingSystem)
+                .search(origin, destination, date, date, RESULTS, order);
+        for (Itinerary journey : journeys) {
+            System.out.println(journey.getDetailsLong());
+        }
+        System.out.println(journeys.size() + " journey(s)");
+    }
+}
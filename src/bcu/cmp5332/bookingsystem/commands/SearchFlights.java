@@ -0,0 +1,84 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.auth.Role;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.pricing.FareTable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Displays the active flights between two airports, optionally within a date range.
+ * Customers only see future flights, together with their current price.
+ */
+public class SearchFlights implements Command {
+
+    private final String origin;
+    private final String destination;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Role role;
+
+    /**
+     * Creates a SearchFlights command.
+     *
+     * @param origin the origin to search from
+     * @param destination the destination to search to
+     * @param from the first departure date, inclusive, or null for any
+     * @param to the last departure date, inclusive, or null for any
+     * @param role the user's role (ADMIN or CUSTOMER)
+     */
+    public SearchFlights(String origin, String destination, LocalDate from, LocalDate to, Role role) {
+        this.origin = origin;
+        this.destination = destination;
+        this.from = from;
+        this.to = to;
+        this.role = role;
+    }
+
+    /**
+     * Executes the search flights command.
+     * Prints the matching flights ordered by departure date and the total count.
+     *
+     * @param flightBookingSystem the FlightBookingSystem to search
+     * @throws FlightBookingSystemException if the date range is invalid
+     */
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new FlightBookingSystemException("End date cannot be before start date.");
+        }
+
+        LocalDate first = from;
+        if (role == Role.CUSTOMER) {
+            // Customers can only see flights departing after the system date
+            LocalDate tomorrow = flightBookingSystem.getSystemDate().plusDays(1);
+            if (first == null || first.isBefore(tomorrow)) {
+                first = tomorrow;
+            }
+        }
+
+        List<Flight> flights = new ArrayList<>();
+        for (Flight flight : flightBookingSystem.findFlightsByRoute(origin, destination, first, to)) {
+            if (flight.isActive()) {
+                flights.add(flight);
+            }
+        }
+
+        if (role == Role.CUSTOMER) {
+            FareTable fares = flightBookingSystem.quoteFlights(flights);
+            for (int i = 0; i < fares.size(); i++) {
+                System.out.println(fares.getFlight(i).getDetailsShort()
+                        + " | Price: " + String.format("%.2f", fares.getPrice(i)));
+            }
+        } else {
+            for (Flight flight : flights) {
+                System.out.println(flight.getDetailsShort());
+            }
+        }
+        System.out.println(flights.size() + " flight(s)");
+    }
+}
@@ -1,13 +1,17 @@
 package bcu.cmp5332.bookingsystem.commands;
 
+import bcu.cmp5332.bookingsystem.data.FinancialLedger;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.UnitOfWork;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Booking;
 import bcu.cmp5332.bookingsystem.model.BookingStatus;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.pricing.FeeEngine;
 
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDate;
 
 /**
  * Updates an existing booking from one flight to another with dynamic pricing.
@@ -37,12 +41,18 @@ public class UpdateBooking implements Command {
      * Executes the update booking command.
      * Validates that old flight has not departed, cancels old booking, applies rebooking fee,
      * and creates new booking with dynamic pricing. Shows refund/credit if customer overpaid.
+     * Runs as one unit of work, so a failure part way through leaves both bookings as they were.
      *
      * @param fbs the flight booking system
      * @throws FlightBookingSystemException if update cannot be completed
      */
     @Override
     public void execute(FlightBookingSystem fbs) throws FlightBookingSystemException {
+        fbs.getBookingLocks().run(customerId, () -> UnitOfWork.run(work -> rebook(fbs, work)),
+                oldFlightId, newFlightId);
+    }
+
+    private void rebook(FlightBookingSystem fbs, UnitOfWork work) throws FlightBookingSystemException {
 
         Customer customer = fbs.getCustomerByID(customerId);
         Flight oldFlight = fbs.getFlightByID(oldFlightId);
@@ -84,48 +94,68 @@ public class UpdateBooking implements Command {
             throw new FlightBookingSystemException("Customer already has an active booking for the new flight.");
         }
 
-        // Capacity enforcement on new flight
-        int cap = newFlight.getCapacity();
-        int currentPassengers = newFlight.getPassengers().size();
-        if (cap > 0 && currentPassengers >= cap) {
-            throw new FlightBookingSystemException("Cannot rebook. New flight is full (" + cap + " seats).");
-        }
-
         // Rebooking fee based on old booking price
+        FeeEngine fees = fbs.getFees();
         double oldPrice = booking.getBookingPrice();
-        double rebookFee = oldPrice * 0.05; // 5%
-        if (rebookFee < 2.0) {
-            rebookFee = 2.0;
-        }
+        double rebookFee = fees.rebookingFee(oldPrice);
 
         // Calculate dynamic price for the new flight
         double newDynamicPrice = calculateDynamicPrice(fbs, newFlight);
 
+        // Capacity enforcement on new flight
+        if (!newFlight.tryReserveSeat()) {
+            throw new FlightBookingSystemException(
+                    "Cannot rebook. New flight is full (" + newFlight.getCapacity() + " seats).");
+        }
+
+        // Add passenger to new flight; gives the claimed seat back itself if it fails
+        newFlight.addReservedPassenger(customer);
+        work.addUndo(() -> newFlight.removePassenger(customer));
+
         // Mark old booking as CANCELED and store rebook fee
+        double oldFee = booking.getFeeLast();
+        String oldFeeType = booking.getFeeType();
         booking.setStatus(BookingStatus.CANCELED);
         booking.setFeeLast(rebookFee);
         booking.setFeeType("REBOOK");
+        work.addUndo(() -> {
+            booking.setStatus(BookingStatus.ACTIVE);
+            booking.setFeeLast(oldFee);
+            booking.setFeeType(oldFeeType);
+        });
 
         // Create new booking
         Booking newBooking = new Booking(customer, newFlight, fbs.getSystemDate(), newDynamicPrice + rebookFee);
         newBooking.setStatus(BookingStatus.ACTIVE);
         newBooking.setFeeLast(0.0);
 
-        // Add new booking to customer and passenger to new flight
+        // Add new booking to customer
         customer.addBooking(newBooking);
-        newFlight.addPassenger(customer);
+        work.addUndo(() -> customer.cancelBookingForFlight(newFlight));
 
         // Remove passenger from old flight
         oldFlight.removePassenger(customer);
+        work.addUndo(() -> oldFlight.addPassenger(customer));
+
+        // The old booking less the fee is carried over as credit towards the new booking
+        double refundAfterFee = fees.refundAfter(oldPrice, rebookFee);
+        FinancialLedger ledger = FlightBookingSystemData.getLedger();
+        LocalDate today = fbs.getSystemDate();
+        work.addLedgerEntry(ledger, FinancialLedger.Type.FEE, customerId, oldFlightId, today, rebookFee);
+        work.addLedgerEntry(ledger, FinancialLedger.Type.CREDIT, customerId, oldFlightId, today, refundAfterFee);
+        work.addLedgerEntry(ledger, FinancialLedger.Type.CHARGE, customerId, newFlightId, today,
+                newBooking.getBookingPrice());
+        work.addRecord(() -> FlightBookingSystemData.getJournal().recordRebook(oldFlightId, newBooking, rebookFee));
+        work.commit();
 
         System.out.println("Booking updated successfully.");
         System.out.println("Old booking price: " + String.format("%.2f", oldPrice));
-        System.out.println("Rebooking fee (5% of old price, minimum $2): " + String.format("%.2f", rebookFee));
+        System.out.println(String.format("Rebooking fee (%.0f%% of old price, minimum $%.0f): %.2f",
+                fees.getRebookPercent(), fees.getRebookMinimum(), rebookFee));
         System.out.println("New flight base price: " + String.format("%.2f", newDynamicPrice));
         System.out.println("New booking price: " + String.format("%.2f", newBooking.getBookingPrice()));
 
         // Calculate and show refund/credit if applicable
-        double refundAfterFee = oldPrice - rebookFee;
         double amountToPay = newBooking.getBookingPrice() - refundAfterFee;
 
         if (amountToPay < 0) {
@@ -138,12 +168,7 @@ public class UpdateBooking implements Command {
     }
 
     private Booking findBooking(Customer customer, int flightId) {
-        for (Booking b : customer.getBookings()) {
-            if (b.getFlight().getId() == flightId && b.getStatus() == BookingStatus.ACTIVE) {
-                return b;
-            }
-        }
-        return null;
+        return customer.getActiveBooking(flightId);
     }
 
     private double calculateDynamicPrice(FlightBookingSystem fbs, Flight flight) throws FlightBookingSystemException {
@@ -153,31 +178,6 @@ public class UpdateBooking implements Command {
             throw new FlightBookingSystemException("Cannot calculate price. Flight has already departed.");
         }
 
-        double price = flight.getBasePrice();
-
-        // Seat-based pricing
-        int capacity = flight.getCapacity();
-        int currentPassengers = flight.getPassengers().size();
-
-        if (capacity > 0) {
-            double occupancyRate = (double) currentPassengers / capacity;
-
-            if (occupancyRate >= 0.8) {
-                price = price * 1.20;
-            } else if (occupancyRate >= 0.5) {
-                price = price * 1.10;
-            }
-        }
-
-        // Date-based pricing
-        long daysToDeparture = ChronoUnit.DAYS.between(fbs.getSystemDate(), flight.getDepartureDate());
-
-        if (daysToDeparture <= 7) {
-            price = price * 1.30;
-        } else if (daysToDeparture <= 30) {
-            price = price * 1.15;
-        }
-
-        return price;
+        return fbs.quote(flight);
     }
 }
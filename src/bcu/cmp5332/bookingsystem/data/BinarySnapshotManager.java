@@ -0,0 +1,524 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingStatus;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the whole FlightBookingSystem (system date, flights, customers and bookings)
+ * as one compact binary snapshot in ./resources/data/snapshot.bin.
+ *
+ * Layout: a 16 byte header (magic "FBSS", version, body length, CRC32 of the body)
+ * followed by the body. Ids and counts are varints, dates are epoch days,
+ * prices are stored in cents and strings are length-prefixed UTF-8.
+ * Since version 2 the body ends with the last flight and customer ids handed out,
+ * so ids are not reused after a restart. Since version 3 it ends with the sequence number
+ * of the last journal record the snapshot contains, so replaying the journal skips them.
+ * Version 1 and 2 snapshots are still read.
+ * Users are not part of the snapshot and stay in users.txt.
+ */
+public class BinarySnapshotManager implements DataManager {
+
+    public static final String RESOURCE = "./resources/data/snapshot.bin";
+
+    private static final int MAGIC = 0x46425353; // "FBSS"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 16;
+
+    private final Path path;
+
+    // Size of the last encoded body, used to size the next encoder so it does not regrow
+    private volatile int lastBodySize = 8192;
+
+    // Journal sequence number stored in the last snapshot loaded
+    private volatile long journalSequence;
+
+    /**
+     * Creates a manager for the default snapshot file.
+     */
+    public BinarySnapshotManager() {
+        this(RESOURCE);
+    }
+
+    /**
+     * Creates a manager for the given snapshot file.
+     *
+     * @param path the snapshot file path
+     */
+    public BinarySnapshotManager(String path) {
+        this.path = Paths.get(path);
+    }
+
+    /**
+     * Indicates whether a snapshot file is present.
+     *
+     * @return true if the snapshot or its previous version exists
+     */
+    public boolean exists() {
+        return DurableFile.exists(path);
+    }
+
+    /**
+     * Returns the size of the snapshot file.
+     *
+     * @return the file size in bytes, or 0 if there is no snapshot
+     * @throws IOException if the size cannot be read
+     */
+    public long size() throws IOException {
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    /**
+     * Loads the snapshot into the given system.
+     *
+     * @param fbs the FlightBookingSystem to populate
+     * @throws IOException if file reading fails
+     * @throws FlightBookingSystemException if the header, checksum or body is invalid
+     */
+    @Override
+    public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        Path source = DurableFile.resolve(path);
+        if (source == null) {
+            throw new FlightBookingSystemException("Snapshot file " + path + " does not exist.");
+        }
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(source));
+
+        if (buf.remaining() < HEADER_SIZE || buf.getInt() != MAGIC) {
+            throw new FlightBookingSystemException("Snapshot file " + path + " is not a booking system snapshot.");
+        }
+        int version = buf.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new FlightBookingSystemException("Unsupported snapshot version " + version + ".");
+        }
+        int length = buf.getInt();
+        int crc = buf.getInt();
+        if (length != buf.remaining()) {
+            throw new FlightBookingSystemException("Snapshot file is truncated.");
+        }
+
+        CRC32 check = new CRC32();
+        check.update(buf.array(), HEADER_SIZE, length);
+        if ((int) check.getValue() != crc) {
+            throw new FlightBookingSystemException("Snapshot checksum mismatch.");
+        }
+
+        try {
+            fbs.setSystemDate(LocalDate.ofEpochDay(readSignedVarLong(buf)));
+
+            int flightCount = readVarInt(buf);
+            for (int i = 0; i < flightCount; i++) {
+                int id = readVarInt(buf);
+                String number = readString(buf);
+                String origin = readString(buf);
+                String destination = readString(buf);
+                LocalDate departure = LocalDate.ofEpochDay(readSignedVarLong(buf));
+                int capacity = readVarInt(buf);
+                double basePrice = readSignedVarLong(buf) / 100.0;
+                boolean active = buf.get() != 0;
+
+                Flight flight = new Flight(id, number, origin, destination, departure, capacity, basePrice);
+                if (!active) {
+                    flight.deactivate();
+                }
+                fbs.addFlight(flight);
+            }
+
+            int customerCount = readVarInt(buf);
+            for (int i = 0; i < customerCount; i++) {
+                int id = readVarInt(buf);
+                String name = readString(buf);
+                String phone = readString(buf);
+                boolean active = buf.get() != 0;
+
+                Customer customer = new Customer(id, name, phone);
+                if (!active) {
+                    customer.deactivate();
+                }
+                fbs.addCustomer(customer);
+            }
+
+            int bookingCount = readVarInt(buf);
+            for (int i = 0; i < bookingCount; i++) {
+                Customer customer = fbs.getCustomerByID(readVarInt(buf));
+                Flight flight = fbs.getFlightByID(readVarInt(buf));
+                LocalDate bookingDate = LocalDate.ofEpochDay(readSignedVarLong(buf));
+                double price = readSignedVarLong(buf) / 100.0;
+                BookingStatus status = buf.get() == 0 ? BookingStatus.ACTIVE : BookingStatus.CANCELED;
+                double feeLast = readSignedVarLong(buf) / 100.0;
+                String feeType = readString(buf);
+
+                Booking booking = new Booking(customer, flight, bookingDate, price);
+                booking.setStatus(status);
+                booking.setFeeLast(feeLast);
+                booking.setFeeType(feeType);
+
+                customer.addBooking(booking);
+                if (status == BookingStatus.ACTIVE) {
+                    flight.addPassenger(customer);
+                }
+            }
+
+            if (version >= 2) {
+                fbs.getFlightIds().observe(readVarInt(buf));
+                fbs.getCustomerIds().observe(readVarInt(buf));
+            }
+            journalSequence = version >= 3 ? readVarLong(buf) : 0;
+        } catch (RuntimeException ex) {
+            throw new FlightBookingSystemException("Invalid snapshot data\nError: " + ex);
+        }
+    }
+
+    /**
+     * Writes the whole system to the snapshot file.
+     *
+     * @param fbs the FlightBookingSystem to save
+     * @throws IOException if file writing fails
+     */
+    @Override
+    public void storeData(FlightBookingSystem fbs) throws IOException {
+        write(encode(fbs));
+    }
+
+    /**
+     * Encodes the whole system as the contents of a snapshot file.
+     *
+     * @param fbs the FlightBookingSystem to encode
+     * @return the snapshot file contents
+     */
+    public byte[] encode(FlightBookingSystem fbs) {
+        return encode(capture(fbs));
+    }
+
+    /**
+     * Returns the sequence number of the last journal record contained in the snapshot
+     * loaded by {@link #loadData(FlightBookingSystem)}.
+     *
+     * @return the journal sequence number, or 0 if the snapshot stores none
+     */
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    /**
+     * Copies the values a snapshot is made of, without encoding them.
+     * This is much cheaper than {@link #encode(FlightBookingSystem)}, so a save can
+     * capture the system on the thread that changed it and encode on another one.
+     *
+     * @param fbs the FlightBookingSystem to capture
+     * @return the captured values
+     */
+    public Capture capture(FlightBookingSystem fbs) {
+        return capture(fbs, 0);
+    }
+
+    /**
+     * Copies the values a snapshot is made of, together with the sequence number of the
+     * last journal record they contain.
+     *
+     * @param fbs the FlightBookingSystem to capture
+     * @param journalSequence the journal sequence number at the checkpoint the capture follows
+     * @return the captured values
+     */
+    public Capture capture(FlightBookingSystem fbs, long journalSequence) {
+        // Each collection is copied once, so every count matches the entries captured for it
+        // even if flights, customers or bookings are added meanwhile
+        Flight[] flights = fbs.getFlights().toArray(new Flight[0]);
+        Customer[] customers = fbs.getCustomers().toArray(new Customer[0]);
+
+        Capture c = new Capture(fbs.getSystemDate().toEpochDay(), flights.length, customers.length);
+        for (int i = 0; i < flights.length; i++) {
+            Flight f = flights[i];
+            c.flightIds[i] = f.getId();
+            c.flightNumbers[i] = f.getFlightNumber();
+            c.origins[i] = f.getOrigin();
+            c.destinations[i] = f.getDestination();
+            c.departures[i] = f.getDepartureDate().toEpochDay();
+            c.capacities[i] = f.getCapacity();
+            c.basePrices[i] = toCents(f.getBasePrice());
+            c.flightsActive[i] = f.isActive();
+        }
+        for (int i = 0; i < customers.length; i++) {
+            Customer customer = customers[i];
+            c.customerIds[i] = customer.getId();
+            c.names[i] = customer.getName();
+            c.phones[i] = customer.getPhone();
+            c.customersActive[i] = customer.isActive();
+            for (Booking b : customer.getBookings()) {
+                c.addBooking(customer.getId(), b);
+            }
+        }
+        c.lastFlightId = fbs.getFlightIds().last();
+        c.lastCustomerId = fbs.getCustomerIds().last();
+        c.journalSequence = journalSequence;
+        return c;
+    }
+
+    /**
+     * Encodes captured values as the contents of a snapshot file.
+     *
+     * @param c values from {@link #capture(FlightBookingSystem)}
+     * @return the snapshot file contents
+     */
+    public byte[] encode(Capture c) {
+        Encoder out = new Encoder(lastBodySize + lastBodySize / 8);
+
+        out.signedVarLong(c.systemDate);
+
+        out.varInt(c.flightIds.length);
+        for (int i = 0; i < c.flightIds.length; i++) {
+            out.varInt(c.flightIds[i]);
+            out.string(c.flightNumbers[i]);
+            out.string(c.origins[i]);
+            out.string(c.destinations[i]);
+            out.signedVarLong(c.departures[i]);
+            out.varInt(c.capacities[i]);
+            out.signedVarLong(c.basePrices[i]);
+            out.put(c.flightsActive[i] ? 1 : 0);
+        }
+
+        out.varInt(c.customerIds.length);
+        for (int i = 0; i < c.customerIds.length; i++) {
+            out.varInt(c.customerIds[i]);
+            out.string(c.names[i]);
+            out.string(c.phones[i]);
+            out.put(c.customersActive[i] ? 1 : 0);
+        }
+
+        out.varInt(c.bookingCount);
+        for (int i = 0; i < c.bookingCount; i++) {
+            out.varInt(c.bookingCustomers[i]);
+            out.varInt(c.bookingFlights[i]);
+            out.signedVarLong(c.bookingDates[i]);
+            out.signedVarLong(c.bookingPrices[i]);
+            out.put(c.bookingsActive[i] ? 0 : 1);
+            out.signedVarLong(c.feesLast[i]);
+            out.string(c.feeTypes[i]);
+        }
+
+        out.varInt(c.lastFlightId);
+        out.varInt(c.lastCustomerId);
+        out.varLong(c.journalSequence);
+
+        lastBodySize = out.size;
+        CRC32 crc = new CRC32();
+        crc.update(out.bytes, 0, out.size);
+
+        ByteBuffer image = ByteBuffer.allocate(HEADER_SIZE + out.size);
+        image.putInt(MAGIC).putInt(VERSION).putInt(out.size).putInt((int) crc.getValue());
+        image.put(out.bytes, 0, out.size);
+        return image.array();
+    }
+
+    /**
+     * Replaces the snapshot file with previously encoded contents.
+     *
+     * @param image the snapshot file contents from {@link #encode(FlightBookingSystem)}
+     * @throws IOException if file writing fails
+     */
+    public void write(byte[] image) throws IOException {
+        DurableFile.write(path, image);
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    private static int readVarInt(ByteBuffer buf) {
+        return (int) readVarLong(buf);
+    }
+
+    private static long readVarLong(ByteBuffer buf) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long readSignedVarLong(ByteBuffer buf) {
+        long raw = readVarLong(buf);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int len = readVarInt(buf);
+        if (len == 0) {
+            return null;
+        }
+        len--;
+        String s = new String(buf.array(), buf.position(), len, StandardCharsets.UTF_8);
+        buf.position(buf.position() + len);
+        return s;
+    }
+
+    /**
+     * The values of one snapshot, copied into flat arrays so they no longer change
+     * with the system they were captured from.
+     */
+    public static final class Capture {
+        private final long systemDate;
+
+        private final int[] flightIds;
+        private final String[] flightNumbers;
+        private final String[] origins;
+        private final String[] destinations;
+        private final long[] departures;
+        private final int[] capacities;
+        private final long[] basePrices;
+        private final boolean[] flightsActive;
+
+        private final int[] customerIds;
+        private final String[] names;
+        private final String[] phones;
+        private final boolean[] customersActive;
+
+        private int bookingCount;
+        private int[] bookingCustomers;
+        private int[] bookingFlights;
+        private long[] bookingDates;
+        private long[] bookingPrices;
+        private boolean[] bookingsActive;
+        private long[] feesLast;
+        private String[] feeTypes;
+
+        private int lastFlightId;
+        private int lastCustomerId;
+        private long journalSequence;
+
+        private Capture(long systemDate, int flights, int customers) {
+            this.systemDate = systemDate;
+            flightIds = new int[flights];
+            flightNumbers = new String[flights];
+            origins = new String[flights];
+            destinations = new String[flights];
+            departures = new long[flights];
+            capacities = new int[flights];
+            basePrices = new long[flights];
+            flightsActive = new boolean[flights];
+            customerIds = new int[customers];
+            names = new String[customers];
+            phones = new String[customers];
+            customersActive = new boolean[customers];
+            int bookings = Math.max(16, customers);
+            bookingCustomers = new int[bookings];
+            bookingFlights = new int[bookings];
+            bookingDates = new long[bookings];
+            bookingPrices = new long[bookings];
+            bookingsActive = new boolean[bookings];
+            feesLast = new long[bookings];
+            feeTypes = new String[bookings];
+        }
+
+        private void addBooking(int customerId, Booking b) {
+            if (bookingCount == bookingCustomers.length) {
+                growBookings(bookingCount * 2);
+            }
+            int i = bookingCount++;
+            bookingCustomers[i] = customerId;
+            bookingFlights[i] = b.getFlight().getId();
+            bookingDates[i] = b.getBookingDate().toEpochDay();
+            bookingPrices[i] = toCents(b.getBookingPrice());
+            bookingsActive[i] = b.getStatus() == BookingStatus.ACTIVE;
+            feesLast[i] = toCents(b.getFeeLast());
+            feeTypes[i] = b.getFeeType();
+        }
+
+        private void growBookings(int capacity) {
+            bookingCustomers = Arrays.copyOf(bookingCustomers, capacity);
+            bookingFlights = Arrays.copyOf(bookingFlights, capacity);
+            bookingDates = Arrays.copyOf(bookingDates, capacity);
+            bookingPrices = Arrays.copyOf(bookingPrices, capacity);
+            bookingsActive = Arrays.copyOf(bookingsActive, capacity);
+            feesLast = Arrays.copyOf(feesLast, capacity);
+            feeTypes = Arrays.copyOf(feeTypes, capacity);
+        }
+    }
+
+    /**
+     * Growable byte buffer with the varint and string encodings used by the snapshot.
+     */
+    private static class Encoder {
+        private byte[] bytes;
+        private int size = 0;
+
+        Encoder(int capacity) {
+            bytes = new byte[Math.max(capacity, 64)];
+        }
+
+        void put(int b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[size++] = (byte) b;
+        }
+
+        void varInt(int value) {
+            varLong(value & 0xFFFFFFFFL);
+        }
+
+        void varLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                put((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            put((int) value);
+        }
+
+        void signedVarLong(long value) {
+            varLong((value << 1) ^ (value >> 63));
+        }
+
+        /** Strings are stored as (UTF-8 length + 1) so that 0 can mean null. */
+        void string(String s) {
+            if (s == null) {
+                put(0);
+                return;
+            }
+            int length = s.length();
+            if (isAscii(s, length)) {
+                // Most names and codes are ASCII, which is its own UTF-8; copy the chars directly
+                varInt(length + 1);
+                if (size + length > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+                }
+                for (int i = 0; i < length; i++) {
+                    bytes[size++] = (byte) s.charAt(i);
+                }
+                return;
+            }
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            varInt(utf8.length + 1);
+            if (size + utf8.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + utf8.length));
+            }
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        private static boolean isAscii(String s, int length) {
+            for (int i = 0; i < length; i++) {
+                if (s.charAt(i) >= 0x80) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
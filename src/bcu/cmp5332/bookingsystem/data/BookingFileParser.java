@@ -0,0 +1,399 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingStatus;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Zero-copy parser for bookings.txt.
+ * The file is memory-mapped and scanned byte by byte for "::" delimiters; ids, dates
+ * and prices are decoded straight from the buffer without building intermediate Strings.
+ * Parsing produces primitive {@link Records}; linking them to customers and flights
+ * is a separate step so that parsing can run without touching the FlightBookingSystem.
+ *
+ * Format: customerId::flightId::bookingDate::bookingPrice::status::feeLast::feeType::
+ * (price, status, feeLast and feeType are optional for older files).
+ */
+public class BookingFileParser {
+
+    private static final byte[] CANCELED = "CANCELED".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CANCEL = "CANCEL".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REBOOK = "REBOOK".getBytes(StandardCharsets.US_ASCII);
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int MAX_FIELDS = 7;
+
+    /**
+     * Parsed booking rows held in parallel primitive arrays.
+     * A NaN price means the row had no stored price and the flight base price applies.
+     */
+    public static class Records {
+        int size;
+        int lineCount;
+        int[] lines = new int[64];
+        int[] customerIds = new int[64];
+        int[] flightIds = new int[64];
+        LocalDate[] bookingDates = new LocalDate[64];
+        double[] prices = new double[64];
+        boolean[] canceled = new boolean[64];
+        double[] feeLast = new double[64];
+        String[] feeTypes = new String[64];
+
+        /**
+         * Returns the number of parsed rows.
+         *
+         * @return row count
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns the number of lines (including blank ones) the parsed range covered.
+         *
+         * @return line count
+         */
+        public int lineCount() {
+            return lineCount;
+        }
+
+        private void grow() {
+            int n = lines.length * 2;
+            lines = Arrays.copyOf(lines, n);
+            customerIds = Arrays.copyOf(customerIds, n);
+            flightIds = Arrays.copyOf(flightIds, n);
+            bookingDates = Arrays.copyOf(bookingDates, n);
+            prices = Arrays.copyOf(prices, n);
+            canceled = Arrays.copyOf(canceled, n);
+            feeLast = Arrays.copyOf(feeLast, n);
+            feeTypes = Arrays.copyOf(feeTypes, n);
+        }
+    }
+
+    /**
+     * Memory-maps a whole file read-only.
+     *
+     * @param path the file to map
+     * @return the mapped buffer
+     * @throws IOException if the file cannot be mapped
+     */
+    public static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File " + path + " is too large to map (" + size + " bytes).");
+            }
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Parses the lines in the byte range [start, end) of the buffer.
+     * The range must begin at the start of a line.
+     *
+     * @param buf the mapped file
+     * @param start first byte of the range
+     * @param end end of the range (exclusive)
+     * @param firstLine line number of the first line in the range (1-based)
+     * @return the parsed rows
+     * @throws FlightBookingSystemException if a line is invalid
+     */
+    public static Records parse(ByteBuffer buf, int start, int end, int firstLine)
+            throws FlightBookingSystemException {
+
+        Records out = new Records();
+        int[] fieldStart = new int[MAX_FIELDS];
+        int[] fieldEnd = new int[MAX_FIELDS];
+
+        int lineIdx = firstLine;
+        int pos = start;
+
+        while (pos < end) {
+            int lineEnd = pos;
+            while (lineEnd < end && buf.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > pos && buf.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+
+            if (!isBlank(buf, pos, lineEnd)) {
+                int fields = splitFields(buf, pos, lineEnd, fieldStart, fieldEnd);
+                try {
+                    parseLine(buf, fields, fieldStart, fieldEnd, lineIdx, out);
+                } catch (RuntimeException ex) {
+                    throw new FlightBookingSystemException(
+                            "Invalid booking data on line " + lineIdx + "\nError: " + ex.getMessage());
+                }
+            }
+
+            lineIdx++;
+            pos = next;
+        }
+        out.lineCount = lineIdx - firstLine;
+        return out;
+    }
+
+    /**
+     * Links parsed rows into the system: each booking is added to its customer and,
+     * when active, the customer is added to the flight's passengers.
+     *
+     * @param fbs the system that already holds the referenced flights and customers
+     * @param records the parsed rows
+     * @throws FlightBookingSystemException if a row references a missing customer or flight
+     */
+    public static void link(FlightBookingSystem fbs, Records records) throws FlightBookingSystemException {
+        for (int i = 0; i < records.size; i++) {
+            try {
+                Customer customer = fbs.getCustomerByID(records.customerIds[i]);
+                Flight flight = fbs.getFlightByID(records.flightIds[i]);
+
+                double price = Double.isNaN(records.prices[i]) ? flight.getBasePrice() : records.prices[i];
+
+                Booking booking = new Booking(customer, flight, records.bookingDates[i], price);
+                if (records.canceled[i]) {
+                    booking.setStatus(BookingStatus.CANCELED);
+                }
+                booking.setFeeLast(records.feeLast[i]);
+                booking.setFeeType(records.feeTypes[i]);
+
+                // Rebuild relationships (even for canceled bookings, we keep them in the system)
+                customer.addBooking(booking);
+                if (booking.getStatus() == BookingStatus.ACTIVE) {
+                    flight.addPassenger(customer);
+                }
+            } catch (Exception ex) {
+                throw new FlightBookingSystemException(
+                        "Invalid booking data on line " + records.lines[i] + "\nError: " + ex.getMessage());
+            }
+        }
+    }
+
+    private static void parseLine(ByteBuffer buf, int fields, int[] fs, int[] fe, int lineIdx, Records out) {
+        if (fields < 3) {
+            throw new IllegalArgumentException("Expected at least 3 fields but found " + fields + ".");
+        }
+
+        if (out.size == out.lines.length) {
+            out.grow();
+        }
+        int i = out.size;
+
+        out.lines[i] = lineIdx;
+        out.customerIds[i] = parseInt(buf, fs[0], fe[0]);
+        out.flightIds[i] = parseInt(buf, fs[1], fe[1]);
+        out.bookingDates[i] = parseDate(buf, fs[2], fe[2]);
+
+        // Optional columns are trimmed and fall back to defaults (backward compatible)
+        out.prices[i] = Double.NaN;
+        out.canceled[i] = false;
+        out.feeLast[i] = 0.0;
+        out.feeTypes[i] = null;
+
+        for (int f = 3; f < fields && f < MAX_FIELDS; f++) {
+            int s = fs[f];
+            int e = fe[f];
+            while (s < e && buf.get(s) <= ' ') s++;
+            while (e > s && buf.get(e - 1) <= ' ') e--;
+            if (s == e) {
+                continue;
+            }
+
+            if (f == 3) {
+                out.prices[i] = parseDouble(buf, s, e);
+            } else if (f == 4) {
+                out.canceled[i] = equalsBytes(buf, s, e, CANCELED);
+            } else if (f == 5) {
+                try {
+                    out.feeLast[i] = parseDouble(buf, s, e);
+                } catch (NumberFormatException ex) {
+                    out.feeLast[i] = 0.0;
+                }
+            } else {
+                out.feeTypes[i] = feeType(buf, s, e);
+            }
+        }
+
+        out.size++;
+    }
+
+    private static int splitFields(ByteBuffer buf, int start, int end, int[] fs, int[] fe) {
+        int count = 0;
+        int fieldBegin = start;
+        int p = start;
+        while (p < end - 1 && count < MAX_FIELDS - 1) {
+            if (buf.get(p) == ':' && buf.get(p + 1) == ':') {
+                fs[count] = fieldBegin;
+                fe[count] = p;
+                count++;
+                p += 2;
+                fieldBegin = p;
+            } else {
+                p++;
+            }
+        }
+        // Last field runs to the next separator or to the end of the line
+        int lastEnd = end;
+        for (int q = fieldBegin; q < end - 1; q++) {
+            if (buf.get(q) == ':' && buf.get(q + 1) == ':') {
+                lastEnd = q;
+                break;
+            }
+        }
+        fs[count] = fieldBegin;
+        fe[count] = lastEnd;
+        return count + 1;
+    }
+
+    private static boolean isBlank(ByteBuffer buf, int start, int end) {
+        for (int p = start; p < end; p++) {
+            if (buf.get(p) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseInt(ByteBuffer buf, int start, int end) {
+        if (start == end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        boolean negative = buf.get(start) == '-';
+        int p = negative || buf.get(start) == '+' ? start + 1 : start;
+        if (p == end || end - p > 10) {
+            throw new NumberFormatException("For input string: \"" + text(buf, start, end) + "\"");
+        }
+        long value = 0;
+        for (; p < end; p++) {
+            int d = buf.get(p) - '0';
+            if (d < 0 || d > 9) {
+                throw new NumberFormatException("For input string: \"" + text(buf, start, end) + "\"");
+            }
+            value = value * 10 + d;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + text(buf, start, end) + "\"");
+        }
+        return (int) value;
+    }
+
+    private static LocalDate parseDate(ByteBuffer buf, int start, int end) {
+        if (end - start == 10 && buf.get(start + 4) == '-' && buf.get(start + 7) == '-') {
+            int y = digits(buf, start, start + 4);
+            int m = digits(buf, start + 5, start + 7);
+            int d = digits(buf, start + 8, start + 10);
+            if (y >= 0 && m >= 0 && d >= 0) {
+                return LocalDate.of(y, m, d);
+            }
+        }
+        return LocalDate.parse(text(buf, start, end));
+    }
+
+    private static int digits(ByteBuffer buf, int start, int end) {
+        int value = 0;
+        for (int p = start; p < end; p++) {
+            int d = buf.get(p) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * Parses plain decimals such as "299.99" directly. Values with more than 15
+     * significant digits or an exponent fall back to Double.parseDouble so the
+     * result is always correctly rounded.
+     */
+    private static double parseDouble(ByteBuffer buf, int start, int end) {
+        int p = start;
+        boolean negative = false;
+        if (buf.get(p) == '-' || buf.get(p) == '+') {
+            negative = buf.get(p) == '-';
+            p++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = -1;
+        boolean any = false;
+
+        for (; p < end; p++) {
+            byte b = buf.get(p);
+            if (b >= '0' && b <= '9') {
+                any = true;
+                if (mantissa == 0 && b == '0' && fraction < 0) {
+                    continue;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fraction >= 0) {
+                    fraction++;
+                }
+                if (digits > 15) {
+                    return Double.parseDouble(text(buf, start, end));
+                }
+            } else if (b == '.' && fraction < 0) {
+                fraction = 0;
+            } else {
+                return Double.parseDouble(text(buf, start, end));
+            }
+        }
+
+        if (!any) {
+            throw new NumberFormatException("For input string: \"" + text(buf, start, end) + "\"");
+        }
+
+        double value = fraction > 0 ? mantissa / POW10[fraction] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static String feeType(ByteBuffer buf, int start, int end) {
+        if (equalsBytes(buf, start, end, CANCEL)) {
+            return "CANCEL";
+        }
+        if (equalsBytes(buf, start, end, REBOOK)) {
+            return "REBOOK";
+        }
+        return text(buf, start, end);
+    }
+
+    private static boolean equalsBytes(ByteBuffer buf, int start, int end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buf.get(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String text(ByteBuffer buf, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buf.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
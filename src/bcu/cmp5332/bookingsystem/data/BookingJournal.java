@@ -0,0 +1,473 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingStatus;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only write-ahead journal for booking mutations.
+ * Each mutation is stored as one line in ./resources/data/journal.txt so that a save
+ * after a booking change only appends a few bytes instead of rewriting every data file.
+ * On startup the journal is replayed on top of the last full snapshot.
+ *
+ * Every record starts with a sequence number, one higher than the record before it.
+ * A snapshot stores the sequence number of the last record it contains, and replay
+ * skips the records up to that number, so records that are still in the journal
+ * because the process stopped between storing a snapshot and truncating the journal
+ * are not applied twice. Records written before sequence numbers were added have none
+ * and are always applied.
+ *
+ * Record formats after the sequence number (fields separated by {@link DataManager#SEPARATOR}):
+ * <pre>
+ * BOOK::customerId::flightId::bookingDate::price::
+ * CANCEL::customerId::flightId::fee::
+ * REBOOK::customerId::oldFlightId::newFlightId::bookingDate::newPrice::fee::
+ * FLIGHT::flightId::active::
+ * CUSTOMER::customerId::active::
+ * DATE::systemDate::
+ * </pre>
+ */
+public class BookingJournal {
+
+    public static final String RESOURCE = "./resources/data/journal.txt";
+
+    /** Number of buffered records that triggers a group commit. */
+    private static final int GROUP_COMMIT_SIZE = 64;
+
+    private final Path path;
+    private final StringBuilder pending = new StringBuilder();
+    private int pendingRecords = 0;
+    private boolean uncommitted = false;
+    private boolean open = false;
+
+    // Sequence number of the last record appended or replayed
+    private long sequence = 0;
+
+    /**
+     * Creates a journal backed by the given file.
+     *
+     * @param path the journal file path
+     */
+    public BookingJournal(String path) {
+        this.path = Paths.get(path);
+    }
+
+    /**
+     * Enables recording. Until the journal is opened every record call is ignored,
+     * which keeps commands usable on systems that were not loaded from disk.
+     */
+    public synchronized void open() {
+        open = true;
+    }
+
+    /**
+     * Disables recording and drops any buffered records.
+     */
+    public synchronized void close() {
+        open = false;
+        pending.setLength(0);
+        pendingRecords = 0;
+        uncommitted = false;
+    }
+
+    /**
+     * Indicates whether records are currently being written.
+     *
+     * @return true if the journal is open
+     */
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Indicates whether records were appended since the last commit or reset.
+     *
+     * @return true if there are records not yet forced to disk
+     */
+    public synchronized boolean hasUncommittedRecords() {
+        return uncommitted;
+    }
+
+    /**
+     * Returns the current size of the journal file in bytes.
+     *
+     * @return file size, or 0 if the journal does not exist
+     */
+    public long size() {
+        File file = path.toFile();
+        return file.exists() ? file.length() : 0L;
+    }
+
+    /**
+     * Records a new booking.
+     *
+     * @param booking the booking that was added
+     * @throws FlightBookingSystemException if the journal cannot be written
+     */
+    public void recordBooking(Booking booking) throws FlightBookingSystemException {
+        append("BOOK", booking.getCustomer().getId(), booking.getFlight().getId(),
+                booking.getBookingDate(), booking.getBookingPrice());
+    }
+
+    /**
+     * Records a cancellation.
+     *
+     * @param customerId the customer id
+     * @param flightId the flight id
+     * @param fee the cancellation fee charged
+     * @throws FlightBookingSystemException if the journal cannot be written
+     */
+    public void recordCancel(int customerId, int flightId, double fee) throws FlightBookingSystemException {
+        append("CANCEL", customerId, flightId, fee);
+    }
+
+    /**
+     * Records a rebooking from one flight to another.
+     *
+     * @param oldFlightId the flight the customer moved away from
+     * @param newBooking the booking created on the new flight
+     * @param fee the rebooking fee charged on the old booking
+     * @throws FlightBookingSystemException if the journal cannot be written
+     */
+    public void recordRebook(int oldFlightId, Booking newBooking, double fee) throws FlightBookingSystemException {
+        append("REBOOK", newBooking.getCustomer().getId(), oldFlightId, newBooking.getFlight().getId(),
+                newBooking.getBookingDate(), newBooking.getBookingPrice(), fee);
+    }
+
+    /**
+     * Records a flight being deactivated or reactivated.
+     *
+     * @param flightId the flight id
+     * @param active the new active flag
+     * @throws FlightBookingSystemException if the journal cannot be written
+     */
+    public void recordFlightActive(int flightId, boolean active) throws FlightBookingSystemException {
+        append("FLIGHT", flightId, active);
+    }
+
+    /**
+     * Records a customer being deactivated or reactivated.
+     *
+     * @param customerId the customer id
+     * @param active the new active flag
+     * @throws FlightBookingSystemException if the journal cannot be written
+     */
+    public void recordCustomerActive(int customerId, boolean active) throws FlightBookingSystemException {
+        append("CUSTOMER", customerId, active);
+    }
+
+    /**
+     * Records a change of the system date.
+     *
+     * @param systemDate the new system date
+     * @throws FlightBookingSystemException if the journal cannot be written
+     */
+    public void recordSystemDate(LocalDate systemDate) throws FlightBookingSystemException {
+        append("DATE", systemDate);
+    }
+
+    private synchronized void append(Object... fields) throws FlightBookingSystemException {
+        if (!open) {
+            return;
+        }
+
+        int start = pending.length();
+        pending.append(++sequence).append(DataManager.SEPARATOR);
+        for (Object field : fields) {
+            pending.append(field).append(DataManager.SEPARATOR);
+        }
+        pending.append('\n');
+        pendingRecords++;
+        uncommitted = true;
+
+        if (pendingRecords >= GROUP_COMMIT_SIZE) {
+            try {
+                writePending(false);
+            } catch (IOException ex) {
+                // The change this record describes is rolled back, so it must not be written later
+                pending.setLength(start);
+                pendingRecords--;
+                sequence--;
+                throw new FlightBookingSystemException("Unable to write booking journal: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes all buffered records and forces them to disk (group commit).
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    public synchronized void commit() throws IOException {
+        writePending(true);
+        uncommitted = false;
+    }
+
+    /**
+     * Empties the journal. Called after a full snapshot has been stored,
+     * since the snapshot already contains every journaled change.
+     *
+     * @throws IOException if the journal file cannot be truncated
+     */
+    public synchronized void reset() throws IOException {
+        pending.setLength(0);
+        pendingRecords = 0;
+        uncommitted = false;
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Writes out any buffered records and returns the current end of the journal.
+     * A snapshot captured at this point contains every record before the returned position.
+     *
+     * @return the journal length in bytes
+     * @throws IOException if buffered records cannot be written
+     */
+    public synchronized long checkpoint() throws IOException {
+        writePending(false);
+        return size();
+    }
+
+    /**
+     * Returns the sequence number of the last record appended or replayed.
+     * A snapshot captured at a {@link #checkpoint()} stores this number, read while
+     * holding the journal's lock so no record is appended in between.
+     *
+     * @return the last sequence number, or 0 if there was no record
+     */
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Removes the records before a {@link #checkpoint()} position once the snapshot
+     * captured there has been stored. Records appended after the checkpoint are kept.
+     *
+     * @param position a position returned by {@link #checkpoint()}
+     * @throws IOException if the journal file cannot be rewritten
+     */
+    public synchronized void truncate(long position) throws IOException {
+        long length = size();
+        if (position >= length) {
+            Files.deleteIfExists(path);
+            DurableFile.syncDirectory(path.toAbsolutePath().getParent());
+            if (pendingRecords == 0) {
+                uncommitted = false;
+            }
+            return;
+        }
+        if (position <= 0) {
+            return;
+        }
+
+        byte[] tail;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate((int) (length - position));
+            ch.position(position);
+            while (buf.hasRemaining() && ch.read(buf) >= 0) {
+                // keep reading until the tail is complete
+            }
+            tail = buf.array();
+        }
+
+        // The kept records must be on disk before the rename makes them the journal
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(tail);
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            ch.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        DurableFile.syncDirectory(path.toAbsolutePath().getParent());
+    }
+
+    private void writePending(boolean force) throws IOException {
+        if (pendingRecords == 0) {
+            if (force && uncommitted && Files.exists(path)) {
+                try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    ch.force(false);
+                }
+            }
+            return;
+        }
+
+        ByteBuffer buf = ByteBuffer.wrap(pending.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            if (force) {
+                ch.force(false);
+            }
+        }
+
+        pending.setLength(0);
+        pendingRecords = 0;
+    }
+
+    /**
+     * Replays every journal record on top of the given system.
+     * A trailing line without a newline is treated as a torn write and ignored.
+     *
+     * @param fbs the system loaded from the last snapshot
+     * @return the number of records applied
+     * @throws IOException if the journal cannot be read
+     * @throws FlightBookingSystemException if a record is invalid
+     */
+    public int replay(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        return replay(fbs, 0);
+    }
+
+    /**
+     * Replays the journal records after a sequence number on top of the given system.
+     * New records are numbered after the highest number seen.
+     *
+     * @param fbs the system loaded from the last snapshot
+     * @param afterSequence the sequence number stored in that snapshot
+     * @return the number of records applied
+     * @throws IOException if the journal cannot be read
+     * @throws FlightBookingSystemException if a record is invalid
+     */
+    public synchronized int replay(FlightBookingSystem fbs, long afterSequence)
+            throws IOException, FlightBookingSystemException {
+        sequence = Math.max(sequence, afterSequence);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n');
+        if (end < 0) {
+            return 0;
+        }
+
+        List<String> lines = List.of(content.substring(0, end).split("\n", -1));
+        int applied = 0;
+        int lineIdx = 1;
+
+        for (String line : lines) {
+            if (!line.trim().isEmpty()) {
+                try {
+                    String[] parts = line.split(DataManager.SEPARATOR, -1);
+                    long number = recordSequence(parts[0]);
+                    if (number < 0) {
+                        apply(fbs, parts, 0);
+                        applied++;
+                    } else if (number > afterSequence) {
+                        apply(fbs, parts, 1);
+                        applied++;
+                    }
+                    sequence = Math.max(sequence, number);
+                } catch (Exception ex) {
+                    throw new FlightBookingSystemException(
+                            "Invalid journal record on line " + lineIdx + "\nError: " + ex.getMessage());
+                }
+            }
+            lineIdx++;
+        }
+        return applied;
+    }
+
+    /**
+     * Returns the sequence number a record starts with, or -1 for a record without one.
+     */
+    private static long recordSequence(String first) {
+        if (first.isEmpty() || !Character.isDigit(first.charAt(0))) {
+            return -1;
+        }
+        return Long.parseLong(first);
+    }
+
+    private void apply(FlightBookingSystem fbs, String[] record, int offset) throws FlightBookingSystemException {
+        String[] parts = offset == 0 ? record : Arrays.copyOfRange(record, offset, record.length);
+        switch (parts[0]) {
+            case "BOOK": {
+                Customer customer = fbs.getCustomerByID(Integer.parseInt(parts[1]));
+                Flight flight = fbs.getFlightByID(Integer.parseInt(parts[2]));
+                Booking booking = new Booking(customer, flight, LocalDate.parse(parts[3]),
+                        Double.parseDouble(parts[4]));
+                customer.addBooking(booking);
+                flight.addPassenger(customer);
+                break;
+            }
+            case "CANCEL": {
+                Customer customer = fbs.getCustomerByID(Integer.parseInt(parts[1]));
+                Flight flight = fbs.getFlightByID(Integer.parseInt(parts[2]));
+                Booking booking = findActiveBooking(customer, flight.getId());
+                booking.setStatus(BookingStatus.CANCELED);
+                booking.setFeeLast(Double.parseDouble(parts[3]));
+                booking.setFeeType("CANCEL");
+                flight.removePassenger(customer);
+                break;
+            }
+            case "REBOOK": {
+                Customer customer = fbs.getCustomerByID(Integer.parseInt(parts[1]));
+                Flight oldFlight = fbs.getFlightByID(Integer.parseInt(parts[2]));
+                Flight newFlight = fbs.getFlightByID(Integer.parseInt(parts[3]));
+                Booking old = findActiveBooking(customer, oldFlight.getId());
+                old.setStatus(BookingStatus.CANCELED);
+                old.setFeeLast(Double.parseDouble(parts[6]));
+                old.setFeeType("REBOOK");
+                Booking booking = new Booking(customer, newFlight, LocalDate.parse(parts[4]),
+                        Double.parseDouble(parts[5]));
+                customer.addBooking(booking);
+                newFlight.addPassenger(customer);
+                oldFlight.removePassenger(customer);
+                break;
+            }
+            case "FLIGHT": {
+                Flight flight = fbs.getFlightByID(Integer.parseInt(parts[1]));
+                if (Boolean.parseBoolean(parts[2])) {
+                    flight.reactivate();
+                } else {
+                    flight.deactivate();
+                }
+                break;
+            }
+            case "CUSTOMER": {
+                Customer customer = fbs.getCustomerByID(Integer.parseInt(parts[1]));
+                if (Boolean.parseBoolean(parts[2])) {
+                    customer.reactivate();
+                } else {
+                    customer.deactivate();
+                }
+                break;
+            }
+            case "DATE":
+                fbs.setSystemDate(LocalDate.parse(parts[1]));
+                break;
+            default:
+                throw new FlightBookingSystemException("Unknown journal record type " + parts[0]);
+        }
+    }
+
+    private Booking findActiveBooking(Customer customer, int flightId) throws FlightBookingSystemException {
+        Booking booking = customer.getActiveBooking(flightId);
+        if (booking != null) {
+            return booking;
+        }
+        throw new FlightBookingSystemException("No active booking for customer " + customer.getId()
+                + " on flight " + flightId);
+    }
+}
@@ -4,19 +4,37 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 /**
  * Manages persistence of customer records to and from a file.
- * Loads and saves customers from ./resources/data/customers.txt.
+ * Loads and saves customers from ./resources/data/customers.txt by default.
  */
 public class CustomerDataManager implements DataManager {
 
-    private final String RESOURCE = "./resources/data/customers.txt";
+    /** Default customers file. */
+    public static final String DEFAULT_RESOURCE = "./resources/data/customers.txt";
+
+    private final String resource;
+
+    /**
+     * Creates a manager for the default customers file.
+     */
+    public CustomerDataManager() {
+        this(DEFAULT_RESOURCE);
+    }
+
+    /**
+     * Creates a manager for the given customers file.
+     *
+     * @param path the customers file path
+     */
+    public CustomerDataManager(String path) {
+        resource = path;
+    }
 
     /**
      * Loads customers from the customers.txt file and adds them to the system.
@@ -28,7 +46,9 @@ public class CustomerDataManager implements DataManager {
     @Override
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
 
-        try (Scanner sc = new Scanner(new File(RESOURCE))) {
+        Path file = Paths.get(resource);
+        Path source = DurableFile.resolve(file);
+        try (Scanner sc = new Scanner((source != null ? source : file).toFile())) {
             int lineIdx = 1;
 
             while (sc.hasNextLine()) {
@@ -75,6 +95,7 @@ public class CustomerDataManager implements DataManager {
 
     /**
      * Saves all customers from the system to the customers.txt file.
+     * The file is replaced atomically through {@link DurableFile}.
      *
      * @param fbs the FlightBookingSystem containing customers to save
      * @throws IOException if file writing fails
@@ -82,14 +103,15 @@ public class CustomerDataManager implements DataManager {
     @Override
     public void storeData(FlightBookingSystem fbs) throws IOException {
 
-        try (PrintWriter out = new PrintWriter(new FileWriter(RESOURCE))) {
+        String newline = System.lineSeparator();
+        DurableFile.writeText(Paths.get(resource), out -> {
             for (Customer customer : fbs.getCustomers()) {
-                out.print(customer.getId() + SEPARATOR);
-                out.print(customer.getName() + SEPARATOR);
-                out.print(customer.getPhone() + SEPARATOR);
-                out.print(customer.isActive() + SEPARATOR);
-                out.println();
+                out.write(customer.getId() + SEPARATOR);
+                out.write(customer.getName() + SEPARATOR);
+                out.write(customer.getPhone() + SEPARATOR);
+                out.write(customer.isActive() + SEPARATOR);
+                out.write(newline);
             }
-        }
+        });
     }
 }
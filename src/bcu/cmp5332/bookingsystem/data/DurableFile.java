@@ -0,0 +1,245 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Crash-safe replacement of data files.
+ *
+ * A file is written to a temporary file in the same directory in one buffered pass,
+ * forced to disk and then atomically renamed over the target, so a crash leaves
+ * either the old or the new contents in place, never a truncated mix. Each file gets
+ * a sidecar (file name + ".crc") holding its length and CRC32, and the contents it
+ * replaces are kept as the previous generation (file name + ".prev"). When loading,
+ * {@link #resolve(Path)} checks the file against its sidecar and falls back to the
+ * previous generation if the file is damaged or missing.
+ *
+ * Files without a sidecar (for example data files created before this format) are
+ * accepted as they are.
+ */
+public final class DurableFile {
+
+    /** Size of the write buffer; data files are written in chunks of this size. */
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CHECKSUM_SUFFIX = ".crc";
+    private static final String PREVIOUS_SUFFIX = ".prev";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private DurableFile() {
+    }
+
+    /**
+     * Writes the contents of a text file.
+     */
+    public interface TextContent {
+        /**
+         * Writes the file contents. The writer is buffered, so small writes are cheap.
+         *
+         * @param out the buffered writer for the new file
+         * @throws IOException if writing fails
+         */
+        void writeTo(Writer out) throws IOException;
+    }
+
+    /**
+     * Replaces a text file with the given contents, encoded as UTF-8.
+     *
+     * @param target the file to replace
+     * @param content writes the new contents
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeText(Path target, TextContent content) throws IOException {
+        replace(target, stream -> {
+            Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            content.writeTo(out);
+            out.flush();
+        });
+    }
+
+    /**
+     * Replaces a file with the given bytes.
+     *
+     * @param target the file to replace
+     * @param contents the new contents
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path target, byte[] contents) throws IOException {
+        replace(target, stream -> stream.write(contents));
+    }
+
+    /**
+     * Indicates whether the file or its previous generation exists.
+     *
+     * @param target the data file
+     * @return true if there is something to load
+     */
+    public static boolean exists(Path target) {
+        return Files.exists(target) || Files.exists(sibling(target, PREVIOUS_SUFFIX));
+    }
+
+    /**
+     * Returns the file to load for the given data file: the file itself if it is intact,
+     * otherwise its previous generation.
+     *
+     * @param target the data file
+     * @return the intact file to read, or null if neither the file nor a previous generation exists
+     * @throws IOException if the files cannot be read
+     * @throws FlightBookingSystemException if every existing generation is damaged
+     */
+    public static Path resolve(Path target) throws IOException, FlightBookingSystemException {
+        if (Files.exists(target) && isIntact(target)) {
+            return target;
+        }
+
+        Path previous = sibling(target, PREVIOUS_SUFFIX);
+        if (Files.exists(previous) && isIntact(previous)) {
+            System.out.println("WARNING: " + target + " is damaged or missing; loading the previous version.");
+            return previous;
+        }
+
+        if (Files.exists(target) || Files.exists(previous)) {
+            throw new FlightBookingSystemException("Data file " + target
+                    + " is damaged and no intact previous version is available.");
+        }
+        return null;
+    }
+
+    private interface Body {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private static void replace(Path target, Body body) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+
+        Path tmp = sibling(target, TEMP_SUFFIX);
+        CRC32 crc = new CRC32();
+        long length;
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // The channel stream is unbuffered; writers above it buffer BUFFER_SIZE at a time
+            CheckedOutputStream out = new CheckedOutputStream(Channels.newOutputStream(ch), crc);
+            body.writeTo(out);
+            out.flush();
+            length = ch.size();
+            ch.force(true);
+        }
+
+        // Keep the current contents as the previous generation, together with their checksum.
+        // The target itself stays in place until the new contents are renamed over it
+        Path checksum = sibling(target, CHECKSUM_SUFFIX);
+        if (Files.exists(target)) {
+            keep(target, sibling(target, PREVIOUS_SUFFIX));
+            if (Files.exists(checksum)) {
+                keep(checksum, sibling(target, PREVIOUS_SUFFIX + CHECKSUM_SUFFIX));
+            } else {
+                Files.deleteIfExists(sibling(target, PREVIOUS_SUFFIX + CHECKSUM_SUFFIX));
+            }
+        }
+
+        Path checksumTmp = sibling(target, CHECKSUM_SUFFIX + TEMP_SUFFIX);
+        try (FileChannel ch = FileChannel.open(checksumTmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.write(ByteBuffer.wrap((length + " " + Long.toHexString(crc.getValue()) + "\n")
+                    .getBytes(StandardCharsets.US_ASCII)));
+            ch.force(true);
+        }
+        move(checksumTmp, checksum);
+        move(tmp, target);
+        syncDirectory(dir);
+    }
+
+    private static boolean isIntact(Path file) throws IOException {
+        Path checksum = sibling(file, CHECKSUM_SUFFIX);
+        if (!Files.exists(checksum)) {
+            return true;
+        }
+
+        String[] parts = new String(Files.readAllBytes(checksum), StandardCharsets.US_ASCII).trim().split(" ");
+        long expectedLength;
+        long expectedCrc;
+        try {
+            expectedLength = Long.parseLong(parts[0]);
+            expectedCrc = Long.parseLong(parts[1], 16);
+        } catch (RuntimeException ex) {
+            return false;
+        }
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() != expectedLength) {
+                return false;
+            }
+            CRC32 crc = new CRC32();
+            ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+            while (ch.read(buf) > 0) {
+                buf.flip();
+                crc.update(buf);
+                buf.clear();
+            }
+            return crc.getValue() == expectedCrc;
+        }
+    }
+
+    /**
+     * Makes {@code to} hold the current contents of {@code from} without touching
+     * {@code from}: a hard link where the file system supports one, otherwise a copy.
+     */
+    private static void keep(Path from, Path to) throws IOException {
+        Path tmp = sibling(to, TEMP_SUFFIX);
+        Files.deleteIfExists(tmp);
+        try {
+            Files.createLink(tmp, from);
+        } catch (IOException | UnsupportedOperationException ex) {
+            Files.copy(from, tmp, StandardCopyOption.REPLACE_EXISTING);
+        }
+        move(tmp, to);
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forces a directory's entries to disk, so renames inside it survive a crash.
+     *
+     * @param dir the directory, or null for none
+     */
+    static void syncDirectory(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        // Makes the renames durable; not supported on every platform, where it is skipped
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException ex) {
+            // ignored
+        }
+    }
+
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+}
@@ -0,0 +1,305 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only ledger of the money moved by bookings, stored in ./resources/data/ledger.bin.
+ *
+ * Every charge, refund, credit and fee is one fixed-width binary record, so the file can
+ * be scanned sequentially without parsing and a torn final record is easy to detect.
+ * Running totals per flight, per customer and overall are kept in memory while the ledger
+ * is open; totals for a date range are computed by scanning the file.
+ *
+ * Record layout ({@link #RECORD_SIZE} bytes, big-endian):
+ * <pre>
+ * type (1 byte) | reserved (3 bytes) | customerId (int) | flightId (int) | epochDay (int) | amount in cents (long)
+ * </pre>
+ */
+public class FinancialLedger {
+
+    public static final String RESOURCE = "./resources/data/ledger.bin";
+
+    /** Size of every record in bytes. */
+    public static final int RECORD_SIZE = 24;
+
+    /**
+     * Kinds of ledger entries.
+     */
+    public enum Type {
+        /** Price paid for a new booking. */
+        CHARGE,
+        /** Money paid back after a cancellation. */
+        REFUND,
+        /** Value of an old booking carried over to a rebooking. */
+        CREDIT,
+        /** Fee kept from a cancelled or rebooked booking. */
+        FEE
+    }
+
+    /**
+     * Sums of ledger entries by type. Amounts are kept in cents so totals do not drift.
+     */
+    public static final class Totals {
+        private final long[] cents = new long[Type.values().length];
+
+        void add(Type type, long amount) {
+            cents[type.ordinal()] += amount;
+        }
+
+        /**
+         * Returns the sum of the entries of one type.
+         *
+         * @param type the entry type
+         * @return the total amount
+         */
+        public double get(Type type) {
+            return cents[type.ordinal()] / 100.0;
+        }
+
+        /**
+         * Returns the money kept: charges less refunds and credits. Fees are already
+         * part of this, since they are the share of a charge that was not given back.
+         *
+         * @return the net revenue
+         */
+        public double getRevenue() {
+            return (cents[Type.CHARGE.ordinal()] - cents[Type.REFUND.ordinal()]
+                    - cents[Type.CREDIT.ordinal()]) / 100.0;
+        }
+
+        private Totals copy() {
+            Totals out = new Totals();
+            System.arraycopy(cents, 0, out.cents, 0, cents.length);
+            return out;
+        }
+    }
+
+    private final Path path;
+    private FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+
+    private final Totals total = new Totals();
+    private final Map<Integer, Totals> byFlight = new HashMap<>();
+    private final Map<Integer, Totals> byCustomer = new HashMap<>();
+
+    /**
+     * Creates a ledger backed by the given file.
+     *
+     * @param path the ledger file path
+     */
+    public FinancialLedger(String path) {
+        this.path = Paths.get(path);
+    }
+
+    /**
+     * Opens the ledger for recording and rebuilds the running totals from the file.
+     * Until the ledger is opened every record call is ignored, which keeps commands
+     * usable on systems that were not loaded from disk. A torn final record is cut off.
+     * A complete record with an unknown entry type means the file is damaged; the ledger
+     * is then copied aside and not opened, so no valid record after it is lost.
+     *
+     * @throws IOException if the ledger cannot be read
+     * @throws FlightBookingSystemException if the ledger holds a damaged record
+     */
+    public synchronized void open() throws IOException, FlightBookingSystemException {
+        if (channel != null) {
+            return;
+        }
+        Arrays.fill(total.cents, 0);
+        byFlight.clear();
+        byCustomer.clear();
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long complete = channel.size() - channel.size() % RECORD_SIZE;
+        long valid = scan(channel, complete, this::addToTotals);
+        if (valid < complete) {
+            channel.close();
+            channel = null;
+            Arrays.fill(total.cents, 0);
+            byFlight.clear();
+            byCustomer.clear();
+            Path copy = path.resolveSibling(path.getFileName() + ".damaged");
+            Files.copy(path, copy, StandardCopyOption.REPLACE_EXISTING);
+            throw new FlightBookingSystemException("Ledger file " + path + " has an invalid record at byte "
+                    + valid + ". A copy was saved to " + copy + "; the ledger was not changed.");
+        }
+        channel.truncate(complete);
+        channel.position(complete);
+    }
+
+    /**
+     * Stops recording and closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Indicates whether entries are currently being recorded.
+     *
+     * @return true if the ledger is open
+     */
+    public synchronized boolean isOpen() {
+        return channel != null;
+    }
+
+    /**
+     * Appends an entry and adds it to the running totals.
+     *
+     * @param type the entry type
+     * @param customerId the customer the money moved for
+     * @param flightId the flight the money belongs to
+     * @param date the system date of the transaction
+     * @param amount the amount, rounded to cents
+     * @throws FlightBookingSystemException if the entry cannot be written
+     */
+    public synchronized void record(Type type, int customerId, int flightId, LocalDate date, double amount)
+            throws FlightBookingSystemException {
+        if (channel == null) {
+            return;
+        }
+
+        long cents = Math.round(amount * 100);
+        int day = (int) date.toEpochDay();
+        record.clear();
+        record.put((byte) type.ordinal()).put((byte) 0).put((byte) 0).put((byte) 0);
+        record.putInt(customerId).putInt(flightId).putInt(day).putLong(cents);
+        record.flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException ex) {
+            throw new FlightBookingSystemException("Unable to write financial ledger: " + ex.getMessage());
+        }
+        addToTotals(type, customerId, flightId, day, cents);
+    }
+
+    /**
+     * Forces recorded entries to disk.
+     *
+     * @throws IOException if the file cannot be forced
+     */
+    public synchronized void commit() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Returns the totals of every entry.
+     *
+     * @return a copy of the overall totals
+     */
+    public synchronized Totals getTotals() {
+        return total.copy();
+    }
+
+    /**
+     * Returns the totals of the entries for one flight.
+     *
+     * @param flightId the flight id
+     * @return a copy of the flight's totals
+     */
+    public synchronized Totals getFlightTotals(int flightId) {
+        Totals totals = byFlight.get(flightId);
+        return totals == null ? new Totals() : totals.copy();
+    }
+
+    /**
+     * Returns the totals of the entries for one customer.
+     *
+     * @param customerId the customer id
+     * @return a copy of the customer's totals
+     */
+    public synchronized Totals getCustomerTotals(int customerId) {
+        Totals totals = byCustomer.get(customerId);
+        return totals == null ? new Totals() : totals.copy();
+    }
+
+    /**
+     * Returns the totals of the entries dated within a range, by scanning the ledger file.
+     *
+     * @param from the first date, inclusive
+     * @param to the last date, inclusive
+     * @return the totals for the range
+     * @throws IOException if the ledger cannot be read
+     */
+    public synchronized Totals getTotalsBetween(LocalDate from, LocalDate to) throws IOException {
+        Totals totals = new Totals();
+        if (channel == null) {
+            return totals;
+        }
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        scan(channel, channel.size(), (type, customerId, flightId, day, cents) -> {
+            if (day >= first && day <= last) {
+                totals.add(type, cents);
+            }
+        });
+        return totals;
+    }
+
+    private interface Visitor {
+        void visit(Type type, int customerId, int flightId, int day, long cents);
+    }
+
+    /**
+     * Visits the records before a position in file order.
+     *
+     * @return the end of the last valid record; scanning stops at a record with an unknown type
+     */
+    private static long scan(FileChannel ch, long length, Visitor visitor) throws IOException {
+        Type[] types = Type.values();
+        ByteBuffer buf = ByteBuffer.allocate(DurableFile.BUFFER_SIZE / RECORD_SIZE * RECORD_SIZE);
+        long position = 0;
+        while (position < length) {
+            buf.clear();
+            buf.limit((int) Math.min(buf.capacity(), length - position));
+            int read = ch.read(buf, position);
+            if (read <= 0) {
+                break;
+            }
+            buf.flip();
+            while (buf.remaining() >= RECORD_SIZE) {
+                int ordinal = buf.get(buf.position());
+                if (ordinal < 0 || ordinal >= types.length) {
+                    // A damaged record; the caller decides what to do with the rest of the file
+                    return position + buf.position();
+                }
+                buf.position(buf.position() + 4);
+                visitor.visit(types[ordinal], buf.getInt(), buf.getInt(), buf.getInt(), buf.getLong());
+            }
+            position += read - buf.remaining();
+        }
+        return position;
+    }
+
+    private void addToTotals(Type type, int customerId, int flightId, int day, long cents) {
+        total.add(type, cents);
+        byFlight.computeIfAbsent(flightId, k -> new Totals()).add(type, cents);
+        byCustomer.computeIfAbsent(customerId, k -> new Totals()).add(type, cents);
+    }
+}
@@ -2,31 +2,55 @@ package bcu.cmp5332.bookingsystem.data;
 
 import bcu.cmp5332.bookingsystem.auth.UserDataManager;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.ChangeTracker;
+import bcu.cmp5332.bookingsystem.model.DataSet;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Factory and coordinator for all data persistence operations.
  * Manages loading and saving of flights, customers, bookings, and users.
+ * The system is saved as a binary snapshot; the text files remain available
+ * through {@link #importText(Path)} and {@link #exportText(FlightBookingSystem, Path)}.
  */
 public class FlightBookingSystemData {
 
-    private static final List<DataManager> dataManagers = new ArrayList<>();
-
+    private static final FlightDataManager flightDataManager = new FlightDataManager();
+    private static final CustomerDataManager customerDataManager = new CustomerDataManager();
+    private static final BookingDataManager bookingDataManager = new BookingDataManager();
     private static final UserDataManager userDataManager = new UserDataManager();
     private static final SystemDateManager systemDateManager = new SystemDateManager();
+    private static final BinarySnapshotManager snapshotManager = new BinarySnapshotManager();
+    private static final BookingJournal journal = new BookingJournal(BookingJournal.RESOURCE);
+    private static final FinancialLedger ledger = new FinancialLedger(FinancialLedger.RESOURCE);
+    private static final PersistenceService persistence = new PersistenceService(FlightBookingSystemData::write);
+
+    /** Journal size after which a commit writes a full snapshot instead. */
+    private static final long CHECKPOINT_BYTES = 4L * 1024 * 1024;
+
+    /** Number of threads used to load the data files at startup. */
+    private static final int LOAD_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    private static Map<String, Long> loadTimings = Collections.emptyMap();
+
+    private static long skippedFiles;
+    private static long skippedBytes;
 
     static {
-        dataManagers.add(new FlightDataManager());
-        dataManagers.add(new CustomerDataManager());
-        dataManagers.add(new BookingDataManager());
+        persistence.flushOnExit();
     }
 
     /**
      * Loads all data from files into a new FlightBookingSystem.
+     * Uses the binary snapshot when present, otherwise imports the text files.
+     * Independent files are loaded in parallel; see {@link StartupLoader}.
      *
      * @return a FlightBookingSystem populated with data from files
      * @throws FlightBookingSystemException if data format is invalid
@@ -34,38 +58,223 @@ public class FlightBookingSystemData {
      */
     public static FlightBookingSystem load() throws FlightBookingSystemException, IOException {
 
-        FlightBookingSystem fbs = new FlightBookingSystem();
+        StartupLoader loader = new StartupLoader(LOAD_THREADS);
+        try {
+            // Users are not part of FlightBookingSystem object, so they are loaded alongside it
+            FlightBookingSystem fbs;
+            if (snapshotManager.exists()) {
+                fbs = loader.loadSnapshot(snapshotManager, userDataManager);
+                // Everything just loaded is already in the snapshot
+                fbs.getChanges().clear();
+            } else {
+                fbs = loader.loadText(flightDataManager, customerDataManager, bookingDataManager.getResource(),
+                        systemDateManager, userDataManager);
+            }
+
+            // Apply booking mutations recorded since the last snapshot; records the snapshot
+            // already contains are skipped, in case the journal was not truncated after it
+            loader.time("journal", () -> journal.replay(fbs, snapshotManager.getJournalSequence()));
+            journal.open();
+            loader.time("ledger", ledger::open);
 
-        for (DataManager dm : dataManagers) {
-            dm.loadData(fbs);
+            return fbs;
+        } finally {
+            loadTimings = loader.getTimings();
+            loader.shutdown();
         }
+    }
 
-        // Load system date from file
-        systemDateManager.loadData(fbs);
+    /**
+     * Loads flights, customers, bookings and the system date from the text files in a
+     * directory (flights.txt, customers.txt, bookings.txt and systemdate.txt).
+     *
+     * @param directory the directory holding the text files
+     * @return a FlightBookingSystem populated from the text files
+     * @throws FlightBookingSystemException if data format is invalid
+     * @throws IOException if file reading fails
+     */
+    public static FlightBookingSystem importText(Path directory) throws FlightBookingSystemException, IOException {
+
+        StartupLoader loader = new StartupLoader(LOAD_THREADS);
+        try {
+            return loader.loadText(new FlightDataManager(textFile(directory, "flights.txt")),
+                    new CustomerDataManager(textFile(directory, "customers.txt")),
+                    textFile(directory, "bookings.txt"),
+                    new SystemDateManager(textFile(directory, "systemdate.txt")), null);
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    /**
+     * Writes flights, customers, bookings and the system date to text files in a
+     * directory, in the format {@link #importText(Path)} reads.
+     *
+     * @param fbs the FlightBookingSystem to export
+     * @param directory the directory to write the text files to
+     * @throws IOException if file writing fails
+     */
+    public static void exportText(FlightBookingSystem fbs, Path directory) throws IOException {
 
-        // Users are not part of FlightBookingSystem object, so pass null
-        userDataManager.loadData(null);
+        new FlightDataManager(textFile(directory, "flights.txt")).storeData(fbs);
+        new CustomerDataManager(textFile(directory, "customers.txt")).storeData(fbs);
+        new BookingDataManager(textFile(directory, "bookings.txt")).storeData(fbs);
+        new SystemDateManager(textFile(directory, "systemdate.txt")).storeData(fbs);
+    }
 
-        return fbs;
+    private static String textFile(Path directory, String name) {
+        return directory.resolve(name).toString();
     }
 
     /**
-     * Saves all data from the FlightBookingSystem to files.
+     * Saves the data from the FlightBookingSystem to files and waits for the write.
+     * Only files whose data changed since the last save are rewritten;
+     * skipped files are counted in {@link #getSkippedFiles()} and {@link #getSkippedBytes()}.
      *
      * @param fbs the FlightBookingSystem to save
      * @throws IOException if file writing fails
      */
     public static void store(FlightBookingSystem fbs) throws IOException {
+        persistence.submit(capture(fbs));
+        persistence.flush();
+        ledger.commit();
+    }
 
-        for (DataManager dm : dataManagers) {
-            dm.storeData(fbs);
+    /**
+     * Requests a save of the FlightBookingSystem and returns without waiting for it.
+     * The changed data is captured immediately and written on a background thread;
+     * failures are passed to the handler set with {@link #setSaveFailureHandler(Consumer)}.
+     *
+     * @param fbs the FlightBookingSystem to save
+     */
+    public static void requestStore(FlightBookingSystem fbs) {
+        try {
+            persistence.submit(capture(fbs));
+        } catch (IOException ex) {
+            persistence.reportFailure(ex);
         }
+    }
 
-        // Save system date to file
-        systemDateManager.storeData(fbs);
+    /**
+     * Waits until every requested save has been written.
+     *
+     * @throws IOException if the most recent save failed
+     */
+    public static void flush() throws IOException {
+        persistence.flush();
+    }
 
-        // Users are not part of FlightBookingSystem object, so pass null
-        userDataManager.storeData(null);
+    /**
+     * Sets the handler that is told about background saves that failed.
+     * The handler is called on the persistence thread.
+     *
+     * @param handler receives the save failure
+     */
+    public static void setSaveFailureHandler(Consumer<IOException> handler) {
+        persistence.setFailureHandler(handler);
+    }
+
+    /**
+     * Captures the data that changed since the last save.
+     * The snapshot is only copied here; it is encoded on the persistence thread.
+     */
+    private static PersistenceService.Save capture(FlightBookingSystem fbs) throws IOException {
+
+        ChangeTracker changes = fbs.getChanges();
+        Set<DataSet> changed = changes.getChanged();
+        BinarySnapshotManager.Capture snapshot = null;
+        long journalPosition = -1;
+        if (!changed.isEmpty() || !snapshotManager.exists()) {
+            // Every journal record up to here is contained in the snapshot
+            long journalSequence;
+            synchronized (journal) {
+                journalPosition = journal.checkpoint();
+                journalSequence = journal.getSequence();
+            }
+            changes.clear();
+            snapshot = snapshotManager.capture(fbs, journalSequence);
+        } else {
+            recordSkipped(snapshotManager.size());
+        }
+
+        // Users are not part of FlightBookingSystem object
+        String users = null;
+        if (userDataManager.hasChanges()) {
+            users = userDataManager.encode();
+            userDataManager.markSaved();
+        } else {
+            recordSkipped(new File(userDataManager.getResource()).length());
+        }
+
+        boolean usersCaptured = users != null;
+        return new PersistenceService.Save(snapshot, users, journalPosition, () -> {
+            changed.forEach(changes::markChanged);
+            if (usersCaptured) {
+                userDataManager.markUnsaved();
+            }
+        });
+    }
+
+    private static void write(PersistenceService.Save save) throws IOException {
+        if (save.snapshot != null) {
+            snapshotManager.write(snapshotManager.encode(save.snapshot));
+            journal.truncate(save.journalPosition);
+        }
+        if (save.users != null) {
+            userDataManager.write(save.users);
+        }
+    }
+
+    private static synchronized void recordSkipped(long bytes) {
+        skippedFiles++;
+        skippedBytes += bytes;
+    }
+
+    /**
+     * Returns how many file writes {@link #store(FlightBookingSystem)} skipped because
+     * the data was unchanged.
+     *
+     * @return number of skipped file writes
+     */
+    public static synchronized long getSkippedFiles() {
+        return skippedFiles;
+    }
+
+    /**
+     * Returns how many bytes {@link #store(FlightBookingSystem)} avoided rewriting
+     * because the data was unchanged.
+     *
+     * @return number of bytes not rewritten
+     */
+    public static synchronized long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+    /**
+     * Persists the changes made by the last command.
+     * If the command only recorded journal entries, the journal is group-committed
+     * instead of rewriting every data file. Otherwise (or once the journal grows
+     * too large) a full snapshot is stored.
+     *
+     * @param fbs the FlightBookingSystem to save
+     * @throws IOException if writing fails
+     */
+    public static void commit(FlightBookingSystem fbs) throws IOException {
+        ledger.commit();
+        if (journal.hasUncommittedRecords() && journal.size() < CHECKPOINT_BYTES) {
+            journal.commit();
+        } else {
+            store(fbs);
+        }
+    }
+
+    /**
+     * Returns how long each phase of the last {@link #load()} took, in milliseconds.
+     *
+     * @return phase name to duration, in completion order
+     */
+    public static Map<String, Long> getLoadTimings() {
+        return loadTimings;
     }
 
     /**
@@ -76,4 +285,22 @@ public class FlightBookingSystemData {
     public static UserDataManager getUserDataManager() {
         return userDataManager;
     }
+
+    /**
+     * Returns the booking journal that commands record their mutations in.
+     *
+     * @return the BookingJournal instance
+     */
+    public static BookingJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns the ledger that commands record charges, refunds, credits and fees in.
+     *
+     * @return the FinancialLedger instance
+     */
+    public static FinancialLedger getLedger() {
+        return ledger;
+    }
 }
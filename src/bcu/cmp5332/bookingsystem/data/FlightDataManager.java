@@ -3,10 +3,9 @@ package bcu.cmp5332.bookingsystem.data;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.Scanner;
 
@@ -16,8 +15,27 @@ import java.util.Scanner;
  */
 public class FlightDataManager implements DataManager {
     
-    private final String RESOURCE = "./resources/data/flights.txt";
-    
+    /** Default flights file. */
+    public static final String DEFAULT_RESOURCE = "./resources/data/flights.txt";
+
+    private final String resource;
+
+    /**
+     * Creates a manager for the default flights file.
+     */
+    public FlightDataManager() {
+        this(DEFAULT_RESOURCE);
+    }
+
+    /**
+     * Creates a manager for the given flights file.
+     *
+     * @param path the flights file path
+     */
+    public FlightDataManager(String path) {
+        resource = path;
+    }
+
     /**
      * Loads flight data from file. Supports backward compatibility with old format.
      * Format: id::flightNumber::origin::destination::departureDate::capacity::basePrice::active::
@@ -28,7 +46,9 @@ public class FlightDataManager implements DataManager {
      */
     @Override
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
-        try (Scanner sc = new Scanner(new File(RESOURCE))) {
+        Path file = Paths.get(resource);
+        Path source = DurableFile.resolve(file);
+        try (Scanner sc = new Scanner((source != null ? source : file).toFile())) {
             int line_idx = 1;
             while (sc.hasNextLine()) {
                 String line = sc.nextLine();
@@ -85,6 +105,7 @@ public class FlightDataManager implements DataManager {
     
     /**
      * Stores flight data to file in new format including capacity, basePrice, and active flag.
+     * The file is replaced atomically through {@link DurableFile}.
      * Format: id::flightNumber::origin::destination::departureDate::capacity::basePrice::active::
      * 
      * @param fbs the flight booking system containing flights to store
@@ -92,18 +113,19 @@ public class FlightDataManager implements DataManager {
      */
     @Override
     public void storeData(FlightBookingSystem fbs) throws IOException {
-        try (PrintWriter out = new PrintWriter(new FileWriter(RESOURCE))) {
+        String newline = System.lineSeparator();
+        DurableFile.writeText(Paths.get(resource), out -> {
             for (Flight flight : fbs.getFlights()) {
-                out.print(flight.getId() + SEPARATOR);
-                out.print(flight.getFlightNumber() + SEPARATOR);
-                out.print(flight.getOrigin() + SEPARATOR);
-                out.print(flight.getDestination() + SEPARATOR);
-                out.print(flight.getDepartureDate() + SEPARATOR);
-                out.print(flight.getCapacity() + SEPARATOR);
-                out.print(flight.getBasePrice() + SEPARATOR);
-                out.print(flight.isActive() + SEPARATOR);
-                out.println();
+                out.write(flight.getId() + SEPARATOR);
+                out.write(flight.getFlightNumber() + SEPARATOR);
+                out.write(flight.getOrigin() + SEPARATOR);
+                out.write(flight.getDestination() + SEPARATOR);
+                out.write(flight.getDepartureDate() + SEPARATOR);
+                out.write(flight.getCapacity() + SEPARATOR);
+                out.write(flight.getBasePrice() + SEPARATOR);
+                out.write(flight.isActive() + SEPARATOR);
+                out.write(newline);
             }
-        }
+        });
     }
 }
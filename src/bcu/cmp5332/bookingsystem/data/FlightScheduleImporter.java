@@ -0,0 +1,350 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Imports a flight schedule from a CSV file into a FlightBookingSystem.
+ *
+ * Each row is {@code flightNumber,origin,destination,departureDate,capacity,basePrice},
+ * dates as YYYY-MM-DD; fields may be wrapped in double quotes and an optional header row
+ * is skipped. The file is streamed in chunks: the rows of a chunk are parsed and checked
+ * against the {@link Flight} rules in parallel, then checked in order for duplicates of
+ * the flight number/departure date key, both existing flights and earlier rows. The
+ * accepted rows get a block of consecutive ids and are added to the system.
+ *
+ * Rejected rows are collected with their line number and reason. The import is one
+ * {@link UnitOfWork}: if reading the file fails part way, the flights of the chunks already
+ * added are removed again, so a failed import adds nothing. Nothing is saved here; the
+ * caller persists the system once after the import.
+ */
+public class FlightScheduleImporter {
+
+    /** Number of rows parsed together. */
+    static final int CHUNK_SIZE = 16_384;
+
+    private static final int FIELDS = 6;
+
+    /**
+     * A row that was not imported.
+     */
+    public static final class Rejection {
+        private final int lineNumber;
+        private final String row;
+        private final String reason;
+
+        Rejection(int lineNumber, String row, String reason) {
+            this.lineNumber = lineNumber;
+            this.row = row;
+            this.reason = reason;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getRow() {
+            return row;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    /**
+     * The outcome of an import.
+     */
+    public static final class Result {
+        private final int imported;
+        private final List<Rejection> rejected;
+        private final long elapsedNanos;
+
+        Result(int imported, List<Rejection> rejected, long elapsedNanos) {
+            this.imported = imported;
+            this.rejected = Collections.unmodifiableList(rejected);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public List<Rejection> getRejected() {
+            return rejected;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Writes the rejected rows as CSV: line number, reason, then the original row.
+         *
+         * @param report the report file to write
+         * @throws IOException if the report cannot be written
+         */
+        public void writeReport(Path report) throws IOException {
+            DurableFile.writeText(report, out -> {
+                out.write("line,reason,row" + System.lineSeparator());
+                for (Rejection r : rejected) {
+                    out.write(r.lineNumber + "," + quote(r.reason) + "," + quote(r.row) + System.lineSeparator());
+                }
+            });
+        }
+    }
+
+    /**
+     * Parsed fields of one row, or the reason it was rejected.
+     */
+    private static final class Row {
+        String flightNumber;
+        String origin;
+        String destination;
+        LocalDate departureDate;
+        int capacity;
+        double basePrice;
+        String error;
+    }
+
+    private final FlightBookingSystem fbs;
+
+    /**
+     * Creates an importer that adds flights to the given system.
+     *
+     * @param fbs the system to import into
+     */
+    public FlightScheduleImporter(FlightBookingSystem fbs) {
+        if (fbs == null) {
+            throw new IllegalArgumentException("Flight booking system cannot be null.");
+        }
+        this.fbs = fbs;
+    }
+
+    /**
+     * Imports every row of a CSV file.
+     *
+     * @param csv the schedule file
+     * @return the number of flights imported and the rejected rows
+     * @throws IOException if the file cannot be read
+     */
+    public Result importFile(Path csv) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            return importFrom(in);
+        }
+    }
+
+    /**
+     * Imports every row of a CSV file as part of a larger unit of work, which removes
+     * the imported flights again if it rolls back.
+     *
+     * @param csv the schedule file
+     * @param work the unit of work the import belongs to
+     * @return the number of flights imported and the rejected rows
+     * @throws IOException if the file cannot be read; the caller rolls back the unit then
+     */
+    public Result importFile(Path csv, UnitOfWork work) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            return importRows(in, work, System.nanoTime());
+        }
+    }
+
+    /**
+     * Imports every row read from a reader.
+     *
+     * @param in the schedule, one row per line
+     * @return the number of flights imported and the rejected rows
+     * @throws IOException if the input cannot be read; no flights are imported then
+     */
+    public Result importFrom(BufferedReader in) throws IOException {
+        long start = System.nanoTime();
+        UnitOfWork work = new UnitOfWork();
+        Result result;
+        try {
+            result = importRows(in, work, start);
+        } catch (IOException | RuntimeException ex) {
+            work.rollback(ex);
+            throw ex;
+        }
+        try {
+            work.commit();
+        } catch (FlightBookingSystemException ex) {
+            // No records are registered, so there is nothing that could fail to write
+            throw new IllegalStateException(ex);
+        }
+        return result;
+    }
+
+    private Result importRows(BufferedReader in, UnitOfWork work, long start) throws IOException {
+        List<Rejection> rejected = new ArrayList<>();
+        int imported = 0;
+
+        String[] lines = new String[CHUNK_SIZE];
+        int[] lineNumbers = new int[CHUNK_SIZE];
+        int lineNumber = 0;
+        int count = 0;
+        boolean first = true;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (first) {
+                first = false;
+                if (line.trim().toLowerCase(Locale.ROOT).startsWith("flightnumber")) {
+                    continue;
+                }
+            }
+            lines[count] = line;
+            lineNumbers[count] = lineNumber;
+            count++;
+            if (count == CHUNK_SIZE) {
+                imported += importChunk(lines, lineNumbers, count, rejected, work);
+                count = 0;
+            }
+        }
+        imported += importChunk(lines, lineNumbers, count, rejected, work);
+
+        return new Result(imported, rejected, System.nanoTime() - start);
+    }
+
+    private int importChunk(String[] lines, int[] lineNumbers, int count, List<Rejection> rejected,
+                            UnitOfWork work) {
+        if (count == 0) {
+            return 0;
+        }
+        Row[] rows = new Row[count];
+        IntStream.range(0, count).parallel().forEach(i -> rows[i] = parse(lines[i]));
+
+        // One pass in file order, so the first of two duplicate rows wins. Earlier chunks
+        // are already in the system; the key set catches duplicates within this chunk
+        Set<String> keys = new HashSet<>(count * 2);
+        int accepted = 0;
+        for (int i = 0; i < count; i++) {
+            Row row = rows[i];
+            if (row.error == null && (fbs.findFlight(row.flightNumber, row.departureDate) != null
+                    || !keys.add(row.flightNumber + '|' + row.departureDate))) {
+                row.error = "There is a flight with same number and departure date in the system";
+            }
+            if (row.error != null) {
+                rejected.add(new Rejection(lineNumbers[i], lines[i], row.error));
+            } else {
+                rows[accepted++] = row;
+            }
+        }
+
+        // One undo action per chunk removes the flights it added
+        List<Flight> added = new ArrayList<>(accepted);
+        work.addUndo(() -> {
+            for (Flight flight : added) {
+                fbs.removeFlight(flight);
+            }
+        });
+
+        int id = fbs.getFlightIds().nextBlock(accepted);
+        for (int i = 0; i < accepted; i++, id++) {
+            Row row = rows[i];
+            Flight flight = new Flight(id, row.flightNumber, row.origin, row.destination,
+                    row.departureDate, row.capacity, row.basePrice);
+            try {
+                fbs.addFlight(flight);
+            } catch (FlightBookingSystemException ex) {
+                // Ruled out by the duplicate check above
+                throw new IllegalStateException(ex);
+            }
+            added.add(flight);
+        }
+        return accepted;
+    }
+
+    private static Row parse(String line) {
+        Row row = new Row();
+        List<String> fields = splitCsv(line);
+        if (fields == null) {
+            row.error = "Missing closing quote.";
+            return row;
+        }
+        if (fields.size() != FIELDS) {
+            row.error = "Expected " + FIELDS + " fields but found " + fields.size() + ".";
+            return row;
+        }
+        try {
+            row.flightNumber = fields.get(0);
+            row.origin = fields.get(1);
+            row.destination = fields.get(2);
+            row.departureDate = LocalDate.parse(fields.get(3));
+            row.capacity = Integer.parseInt(fields.get(4));
+            row.basePrice = Double.parseDouble(fields.get(5));
+            if (!Double.isFinite(row.basePrice)) {
+                throw new NumberFormatException();
+            }
+            Flight.validate(row.flightNumber, row.origin, row.destination,
+                    row.departureDate, row.capacity, row.basePrice);
+        } catch (DateTimeParseException ex) {
+            row.error = "Invalid departure date. Please use YYYY-MM-DD.";
+        } catch (NumberFormatException ex) {
+            row.error = "Invalid capacity or base price.";
+        } catch (IllegalArgumentException ex) {
+            row.error = ex.getMessage();
+        }
+        return row;
+    }
+
+    /**
+     * Splits a CSV line into trimmed fields; double quotes group a field and a doubled
+     * quote inside them stands for one quote.
+     *
+     * @return the fields, or null if a quote is not closed
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(FIELDS);
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (inQuotes) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    inQuotes = false;
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                inQuotes = true;
+            } else if (ch == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        if (inQuotes) {
+            return null;
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,193 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Writes saves on a background thread so that callers return immediately.
+ *
+ * A save is captured on the caller's thread as encoded file contents, which gives a
+ * consistent picture of the system without locking the model. Saves that arrive while
+ * a write is running are merged, so a burst of requests results in a single write of
+ * the latest contents. {@link #flush()} waits for every save requested so far.
+ * Failures are reported to the failure handler unless a flush is waiting for them,
+ * in which case the flush throws instead.
+ */
+public class PersistenceService {
+
+    /**
+     * Writes a captured save to disk.
+     */
+    interface Writer {
+        void write(Save save) throws IOException;
+    }
+
+    /**
+     * The encoded contents of one save. A null field means that file is unchanged.
+     */
+    static final class Save {
+        final BinarySnapshotManager.Capture snapshot;
+        final String users;
+        final long journalPosition;
+        final Runnable onFailure;
+
+        /**
+         * @param snapshot the captured snapshot, encoded when written, or null to leave it unchanged
+         * @param users the users file contents, or null to leave it unchanged
+         * @param journalPosition journal records before this position are in the snapshot
+         * @param onFailure marks the captured data as unsaved again if the write fails
+         */
+        Save(BinarySnapshotManager.Capture snapshot, String users, long journalPosition, Runnable onFailure) {
+            this.snapshot = snapshot;
+            this.users = users;
+            this.journalPosition = journalPosition;
+            this.onFailure = onFailure;
+        }
+
+        Save merge(Save newer) {
+            return new Save(
+                    newer.snapshot != null ? newer.snapshot : snapshot,
+                    newer.users != null ? newer.users : users,
+                    Math.max(journalPosition, newer.journalPosition),
+                    () -> {
+                        onFailure.run();
+                        newer.onFailure.run();
+                    });
+        }
+    }
+
+    private final Writer writer;
+    private final ExecutorService executor;
+
+    private Save pending;
+    private long requested;
+    private long completed;
+    private int flushing;
+    private IOException lastFailure;
+    private volatile Consumer<IOException> failureHandler =
+            ex -> System.out.println("ERROR: Failed to save changes: " + ex.getMessage());
+
+    /**
+     * Creates a service that writes saves with the given writer.
+     *
+     * @param writer writes a captured save
+     */
+    PersistenceService(Writer writer) {
+        this.writer = writer;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "persistence-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Queues a captured save and returns immediately.
+     *
+     * @param save the save to write
+     */
+    synchronized void submit(Save save) {
+        requested++;
+        if (pending == null) {
+            pending = save;
+            executor.execute(this::writePending);
+        } else {
+            pending = pending.merge(save);
+        }
+    }
+
+    /**
+     * Waits until every save requested before this call has been written.
+     *
+     * @throws IOException if the most recent write failed
+     */
+    public synchronized void flush() throws IOException {
+        long target = requested;
+        flushing++;
+        try {
+            while (completed < target) {
+                wait();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for data to be saved.", ex);
+        } finally {
+            flushing--;
+        }
+
+        if (lastFailure != null) {
+            throw lastFailure;
+        }
+    }
+
+    /**
+     * Sets the handler that receives failures of background saves.
+     * The handler is called on the writer thread.
+     *
+     * @param handler the failure handler
+     */
+    public void setFailureHandler(Consumer<IOException> handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Failure handler cannot be null.");
+        }
+        this.failureHandler = handler;
+    }
+
+    /**
+     * Reports a failure that happened before a save could be queued.
+     *
+     * @param failure the failure
+     */
+    void reportFailure(IOException failure) {
+        failureHandler.accept(failure);
+    }
+
+    /**
+     * Flushes outstanding saves when the JVM exits, including System.exit
+     * and windows closed with EXIT_ON_CLOSE.
+     */
+    void flushOnExit() {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                flush();
+            } catch (IOException ex) {
+                System.out.println("ERROR: Failed to save changes: " + ex.getMessage());
+            }
+        }, "persistence-flush"));
+    }
+
+    private void writePending() {
+        Save save;
+        long covers;
+        synchronized (this) {
+            save = pending;
+            pending = null;
+            covers = requested;
+        }
+
+        IOException failure = null;
+        try {
+            writer.write(save);
+        } catch (IOException ex) {
+            failure = ex;
+        } catch (RuntimeException ex) {
+            failure = new IOException(ex);
+        }
+        if (failure != null) {
+            save.onFailure.run();
+        }
+
+        boolean report;
+        synchronized (this) {
+            completed = covers;
+            lastFailure = failure;
+            report = failure != null && flushing == 0;
+            notifyAll();
+        }
+        if (report) {
+            failureHandler.accept(failure);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads the data files in parallel on a bounded thread pool.
+ *
+ * Flights, customers, the system date and users do not depend on each other, so they
+ * are loaded concurrently. They write to different parts of the FlightBookingSystem
+ * (the flight map, the customer map and the date), so the shared system is safe to
+ * populate this way. bookings.txt is split into line-aligned chunks that are parsed
+ * concurrently as soon as loading starts; once flights and customers are in place the
+ * chunks are linked in file order, so the result is the same as a sequential load.
+ *
+ * The time spent in each phase is recorded and available from {@link #getTimings()}.
+ */
+public class StartupLoader {
+
+    /** Bookings files smaller than this are parsed as a single chunk. */
+    private static final int MIN_CHUNK_BYTES = 4 * 1024 * 1024;
+
+    private final ExecutorService executor;
+    private final int threads;
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Creates a loader using at most the given number of threads.
+     *
+     * @param threads size of the thread pool
+     */
+    public StartupLoader(int threads) {
+        this.threads = Math.max(1, threads);
+        this.executor = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread t = new Thread(r, "startup-loader");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Loads the text data files into a new system.
+     *
+     * @param flights the flight data manager
+     * @param customers the customer data manager
+     * @param bookingsFile path of bookings.txt
+     * @param systemDate the system date manager
+     * @param users the user data manager (may be null to skip users)
+     * @return the loaded system
+     * @throws IOException if a file cannot be read
+     * @throws FlightBookingSystemException if a file contains invalid data
+     */
+    public FlightBookingSystem loadText(DataManager flights, DataManager customers, String bookingsFile,
+                                        DataManager systemDate, DataManager users)
+            throws IOException, FlightBookingSystemException {
+
+        long start = System.nanoTime();
+        FlightBookingSystem fbs = new FlightBookingSystem();
+
+        try {
+            Future<?> flightsDone = submit("flights", () -> flights.loadData(fbs));
+            Future<?> customersDone = submit("customers", () -> customers.loadData(fbs));
+            Future<?> dateDone = submit("systemdate", () -> systemDate.loadData(fbs));
+            Future<?> usersDone = users == null ? null : submit("users", () -> users.loadData(null));
+
+            List<Future<BookingFileParser.Records>> chunks = new ArrayList<>();
+            Path source = DurableFile.resolve(Paths.get(bookingsFile));
+
+            if (source != null) {
+                long parseStart = System.nanoTime();
+                ByteBuffer buf = BookingFileParser.map(source);
+                // Each range is parsed with its real line numbers, so errors name the right line
+                int firstLine = 1;
+                int counted = 0;
+                for (int[] range : splitRanges(buf, threads)) {
+                    firstLine += countLines(buf, counted, range[0]);
+                    counted = range[0];
+                    int rangeFirstLine = firstLine;
+                    chunks.add(executor.submit(() ->
+                            BookingFileParser.parse(buf, range[0], range[1], rangeFirstLine)));
+                }
+
+                List<BookingFileParser.Records> parsed = new ArrayList<>();
+                for (Future<BookingFileParser.Records> chunk : chunks) {
+                    parsed.add(await(chunk));
+                }
+                timings.put("bookings-parse", elapsed(parseStart));
+
+                await(flightsDone);
+                await(customersDone);
+
+                long linkStart = System.nanoTime();
+                for (BookingFileParser.Records records : parsed) {
+                    BookingFileParser.link(fbs, records);
+                }
+                timings.put("bookings-link", elapsed(linkStart));
+            } else {
+                await(flightsDone);
+                await(customersDone);
+            }
+
+            await(dateDone);
+            if (usersDone != null) {
+                await(usersDone);
+            }
+        } finally {
+            timings.put("total", elapsed(start));
+        }
+        return fbs;
+    }
+
+    /**
+     * Loads the binary snapshot while users are loaded in parallel.
+     *
+     * @param snapshot the snapshot manager
+     * @param users the user data manager
+     * @return the loaded system
+     * @throws IOException if a file cannot be read
+     * @throws FlightBookingSystemException if a file contains invalid data
+     */
+    public FlightBookingSystem loadSnapshot(DataManager snapshot, DataManager users)
+            throws IOException, FlightBookingSystemException {
+
+        long start = System.nanoTime();
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        try {
+            Future<?> usersDone = submit("users", () -> users.loadData(null));
+            await(submit("snapshot", () -> snapshot.loadData(fbs)));
+            await(usersDone);
+        } finally {
+            timings.put("total", elapsed(start));
+        }
+        return fbs;
+    }
+
+    /**
+     * Runs a step on the calling thread and records its duration.
+     *
+     * @param phase the phase name
+     * @param step the step to run
+     * @throws IOException if the step fails to read a file
+     * @throws FlightBookingSystemException if the step finds invalid data
+     */
+    public void time(String phase, LoadStep step) throws IOException, FlightBookingSystemException {
+        long start = System.nanoTime();
+        try {
+            step.run();
+        } finally {
+            timings.put(phase, elapsed(start));
+        }
+    }
+
+    /**
+     * Returns the duration of each phase in milliseconds, in completion order.
+     *
+     * @return phase timings
+     */
+    public Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    /**
+     * Stops the loader's threads.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A loading step that may fail with the checked exceptions used by data managers.
+     */
+    public interface LoadStep {
+        /**
+         * Runs the step.
+         *
+         * @throws IOException if a file cannot be read
+         * @throws FlightBookingSystemException if data is invalid
+         */
+        void run() throws IOException, FlightBookingSystemException;
+    }
+
+    private Future<?> submit(String phase, LoadStep step) {
+        return executor.submit((Callable<Void>) () -> {
+            time(phase, step);
+            return null;
+        });
+    }
+
+    private static <T> T await(Future<T> future) throws IOException, FlightBookingSystemException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Loading was interrupted.", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof FlightBookingSystemException) {
+                throw (FlightBookingSystemException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Splits the buffer into up to {@code parts} ranges that start and end on line boundaries.
+     */
+    private static List<int[]> splitRanges(ByteBuffer buf, int parts) {
+        int size = buf.limit();
+        int chunk = Math.max(MIN_CHUNK_BYTES, size / parts + 1);
+        List<int[]> ranges = new ArrayList<>();
+
+        int start = 0;
+        while (start < size) {
+            int end = (int) Math.min((long) start + chunk, size);
+            while (end < size && buf.get(end - 1) != '\n') {
+                end++;
+            }
+            ranges.add(new int[]{start, end});
+            start = end;
+        }
+        return ranges;
+    }
+
+    private static int countLines(ByteBuffer buf, int start, int end) {
+        int lines = 0;
+        for (int p = start; p < end; p++) {
+            if (buf.get(p) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private static long elapsed(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
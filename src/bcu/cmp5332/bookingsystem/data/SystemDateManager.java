@@ -4,9 +4,10 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 
 /**
@@ -14,11 +15,31 @@ import java.time.LocalDate;
  */
 public class SystemDateManager implements DataManager {
 
-    private static final String FILEPATH = "resources/data/systemdate.txt";
+    /** Default system date file. */
+    public static final String DEFAULT_FILEPATH = "resources/data/systemdate.txt";
+
+    private final String filePath;
+
+    /**
+     * Creates a manager for the default system date file.
+     */
+    public SystemDateManager() {
+        this(DEFAULT_FILEPATH);
+    }
+
+    /**
+     * Creates a manager for the given system date file.
+     *
+     * @param path the system date file path
+     */
+    public SystemDateManager(String path) {
+        filePath = path;
+    }
 
     @Override
     public void loadData(FlightBookingSystem fbs) throws FlightBookingSystemException, IOException {
-        try (BufferedReader br = new BufferedReader(new FileReader(FILEPATH))) {
+        Path source = DurableFile.resolve(Paths.get(filePath));
+        try (BufferedReader br = Files.newBufferedReader(source != null ? source : Paths.get(filePath))) {
             String line = br.readLine();
 
             if (line != null && !line.trim().isEmpty()) {
@@ -42,8 +63,7 @@ public class SystemDateManager implements DataManager {
     public void storeData(FlightBookingSystem fbs) throws IOException {
         if (fbs == null) return;
 
-        try (PrintWriter pw = new PrintWriter("resources/data/systemdate.txt")) {
-            pw.println(fbs.getSystemDate().toString());
-        }
+        String contents = fbs.getSystemDate().toString() + System.lineSeparator();
+        DurableFile.writeText(Paths.get(filePath), out -> out.write(contents));
     }
 }
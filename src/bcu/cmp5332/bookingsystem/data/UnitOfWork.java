@@ -0,0 +1,214 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Makes the changes of one command all-or-nothing.
+ *
+ * While a command changes the model it registers the inverse of each step as an undo
+ * action, and the journal and ledger entries that describe the change as records. If
+ * the command fails, the undo actions run in reverse order and no record is written,
+ * so neither the model nor the files are left half changed. If it succeeds, the records
+ * are written in order on commit: the journal then only ever holds complete changes,
+ * which replaying it on startup or on another copy of the system relies on.
+ *
+ * Commit writes every record or none. A record may come with a cancel action, such as
+ * a reversing ledger entry; if a later record cannot be written, the records already
+ * written are cancelled, newest first, and the unit stays open so it can be rolled back.
+ * A record without a cancel action, such as the journal record that is replayed on
+ * startup, must therefore be registered last.
+ */
+public final class UnitOfWork {
+
+    /**
+     * The changes made by a command inside a unit of work.
+     */
+    public interface Body {
+        /**
+         * Makes the changes, registering their undo actions and records.
+         *
+         * @param work the unit of work
+         * @throws FlightBookingSystemException if the changes cannot be made
+         */
+        void run(UnitOfWork work) throws FlightBookingSystemException;
+    }
+
+    /**
+     * Reverses one step of a change.
+     */
+    public interface Undo {
+        /**
+         * Reverses the step.
+         *
+         * @throws FlightBookingSystemException if the step cannot be reversed
+         */
+        void undo() throws FlightBookingSystemException;
+    }
+
+    /**
+     * Writes one entry describing a change, for example to the journal or the ledger.
+     */
+    public interface Record {
+        /**
+         * Writes the entry.
+         *
+         * @throws FlightBookingSystemException if the entry cannot be written
+         */
+        void write() throws FlightBookingSystemException;
+    }
+
+    private final List<Undo> undos = new ArrayList<>();
+    private final List<Record> records = new ArrayList<>();
+    private final List<Undo> cancels = new ArrayList<>();
+    private boolean committed = false;
+
+    /**
+     * Runs a command's changes as one unit of work. The body may commit the unit itself,
+     * for example before printing a success message; otherwise it is committed once the
+     * body returns. If the body or the commit fails, the changes are rolled back.
+     *
+     * @param body the changes to make
+     * @throws FlightBookingSystemException if the changes cannot be made
+     */
+    public static void run(Body body) throws FlightBookingSystemException {
+        UnitOfWork work = new UnitOfWork();
+        try {
+            body.run(work);
+            work.commit();
+        } catch (FlightBookingSystemException | RuntimeException ex) {
+            work.rollback(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Registers the inverse of a step that has just been made.
+     *
+     * @param undo reverses the step
+     */
+    public void addUndo(Undo undo) {
+        checkOpen();
+        undos.add(undo);
+    }
+
+    /**
+     * Registers an entry to write when the unit commits.
+     *
+     * @param record writes the entry
+     */
+    public void addRecord(Record record) {
+        addRecord(record, null);
+    }
+
+    /**
+     * Registers an entry to write when the unit commits, with the action that cancels it
+     * again if a record registered after it cannot be written.
+     *
+     * @param record writes the entry
+     * @param cancel cancels the written entry, or null if it cannot be cancelled
+     */
+    public void addRecord(Record record, Undo cancel) {
+        checkOpen();
+        records.add(record);
+        cancels.add(cancel);
+    }
+
+    /**
+     * Registers a ledger entry to write when the unit commits. If a later record cannot
+     * be written, the entry is cancelled with a reversing entry of the opposite amount.
+     *
+     * @param ledger the ledger to write to
+     * @param type the entry type
+     * @param customerId the customer the money moved for
+     * @param flightId the flight the money belongs to
+     * @param date the system date of the transaction
+     * @param amount the amount
+     */
+    public void addLedgerEntry(FinancialLedger ledger, FinancialLedger.Type type, int customerId, int flightId,
+                               LocalDate date, double amount) {
+        addRecord(() -> ledger.record(type, customerId, flightId, date, amount),
+                () -> ledger.record(type, customerId, flightId, date, -amount));
+    }
+
+    /**
+     * Writes the registered records in order. If a record cannot be written, the records
+     * written before it are cancelled and the unit is not committed, so it can still be
+     * rolled back.
+     *
+     * @throws FlightBookingSystemException if a record cannot be written
+     */
+    public void commit() throws FlightBookingSystemException {
+        if (committed) {
+            return;
+        }
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                records.get(i).write();
+            } catch (FlightBookingSystemException | RuntimeException ex) {
+                cancelWritten(i, ex);
+                throw ex;
+            }
+        }
+        committed = true;
+        undos.clear();
+        records.clear();
+        cancels.clear();
+    }
+
+    private void cancelWritten(int count, Exception cause) {
+        for (int i = count - 1; i >= 0; i--) {
+            Undo cancel = cancels.get(i);
+            if (cancel == null) {
+                cause.addSuppressed(new IllegalStateException("A written record cannot be cancelled."));
+                continue;
+            }
+            try {
+                cancel.undo();
+            } catch (FlightBookingSystemException | RuntimeException ex) {
+                cause.addSuppressed(ex);
+            }
+        }
+    }
+
+    /**
+     * Indicates whether the unit has been committed.
+     *
+     * @return true once the records have been written
+     */
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /**
+     * Reverses every registered step, newest first, unless the unit was committed.
+     * A step that cannot be reversed does not stop the others; its failure is added to
+     * the cause as a suppressed exception.
+     *
+     * @param cause the failure that made the unit roll back
+     */
+    public void rollback(Exception cause) {
+        if (committed) {
+            return;
+        }
+        for (int i = undos.size() - 1; i >= 0; i--) {
+            try {
+                undos.get(i).undo();
+            } catch (FlightBookingSystemException | RuntimeException ex) {
+                cause.addSuppressed(ex);
+            }
+        }
+        undos.clear();
+        records.clear();
+        cancels.clear();
+    }
+
+    private void checkOpen() {
+        if (committed) {
+            throw new IllegalStateException("Unit of work is already committed.");
+        }
+    }
+}
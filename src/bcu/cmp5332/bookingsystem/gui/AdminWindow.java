@@ -88,10 +88,7 @@ public class AdminWindow extends JFrame {
             dispose();
             new LoginWindow(fbs);
         });
-        exit.addActionListener(e -> {
-            doSave();
-            System.exit(0);
-        });
+        exit.addActionListener(e -> saveAndExit());
 
         file.add(save);
         file.add(logout);
@@ -121,7 +118,7 @@ public class AdminWindow extends JFrame {
         try {
             LocalDate newDate = LocalDate.parse(input.trim(), DateTimeFormatter.ISO_LOCAL_DATE);
             fbs.setSystemDate(newDate);
-            FlightBookingSystemData.store(fbs);
+            FlightBookingSystemData.requestStore(fbs);
 
             // Update the date label immediately
             dateLabel.setText("System Date: " + newDate);
@@ -200,7 +197,7 @@ public class AdminWindow extends JFrame {
 
             // Check if email already exists
             UserDataManager udm = FlightBookingSystemData.getUserDataManager();
-            AuthService authService = new AuthService(udm.getUsers());
+            AuthService authService = new AuthService(udm);
 
             if (authService.emailExists(email)) {
                 JOptionPane.showMessageDialog(this,
@@ -213,7 +210,7 @@ public class AdminWindow extends JFrame {
             // Create admin account
             authService.registerAdmin(firstName, middleName, lastName, email, password);
 
-            FlightBookingSystemData.store(fbs);
+            FlightBookingSystemData.requestStore(fbs);
 
             JOptionPane.showMessageDialog(this,
                     "Admin account created successfully\n" +
@@ -240,12 +237,18 @@ public class AdminWindow extends JFrame {
     }
 
     private void doSave() {
+        // Written in the background; failures are reported by the save failure handler
+        FlightBookingSystemData.requestStore(fbs);
+        JOptionPane.showMessageDialog(this, "Your changes are being saved.", "Saved", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void saveAndExit() {
         try {
             FlightBookingSystemData.store(fbs);
-            JOptionPane.showMessageDialog(this, "Saved successfully.", "Saved", JOptionPane.INFORMATION_MESSAGE);
         } catch (IOException ex) {
             JOptionPane.showMessageDialog(this, ex.toString(), "Save Error", JOptionPane.ERROR_MESSAGE);
         }
+        System.exit(0);
     }
 
     private static void applyLightTheme() {
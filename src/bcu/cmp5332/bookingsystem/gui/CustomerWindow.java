@@ -82,10 +82,7 @@ public class CustomerWindow extends JFrame {
             dispose();
             new LoginWindow(fbs);
         });
-        exit.addActionListener(e -> {
-            doSave();
-            System.exit(0);
-        });
+        exit.addActionListener(e -> saveAndExit());
 
         file.add(save);
         file.add(logout);
@@ -96,12 +93,18 @@ public class CustomerWindow extends JFrame {
     }
 
     private void doSave() {
+        // Written in the background; failures are reported by the save failure handler
+        FlightBookingSystemData.requestStore(fbs);
+        JOptionPane.showMessageDialog(this, "Your changes are being saved.", "Saved", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void saveAndExit() {
         try {
             FlightBookingSystemData.store(fbs);
-            JOptionPane.showMessageDialog(this, "Saved successfully.", "Saved", JOptionPane.INFORMATION_MESSAGE);
         } catch (IOException ex) {
             JOptionPane.showMessageDialog(this, ex.toString(), "Save Error", JOptionPane.ERROR_MESSAGE);
         }
+        System.exit(0);
     }
 
     private static void applyLightTheme() {
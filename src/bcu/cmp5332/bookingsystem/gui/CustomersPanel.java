@@ -29,6 +29,9 @@ public class CustomersPanel extends JPanel {
     private final JButton deactivateBtn = new JButton("Deactivate");
     private final JButton reactivateBtn = new JButton("Reactivate");
 
+    private final JTextField searchField = new JTextField(12);
+    private final JButton searchBtn = new JButton("Search");
+
     public CustomersPanel(FlightBookingSystem fbs) {
         this.fbs = fbs;
 
@@ -53,12 +56,17 @@ public class CustomersPanel extends JPanel {
         top.add(detailsBtn);
         top.add(deactivateBtn);
         top.add(reactivateBtn);
+        top.add(new JLabel("Name:"));
+        top.add(searchField);
+        top.add(searchBtn);
 
         refreshBtn.addActionListener(e -> loadCustomers());
         addBtn.addActionListener(e -> handleAddCustomer());
         detailsBtn.addActionListener(e -> showDetails());
         deactivateBtn.addActionListener(e -> setActive(false));
         reactivateBtn.addActionListener(e -> setActive(true));
+        searchBtn.addActionListener(e -> loadCustomers());
+        searchField.addActionListener(e -> loadCustomers());
 
         add(top, BorderLayout.NORTH);
         add(new JScrollPane(table), BorderLayout.CENTER);
@@ -66,7 +74,10 @@ public class CustomersPanel extends JPanel {
 
     public void loadCustomers() {
         model.setRowCount(0);
-        List<Customer> customers = fbs.getCustomers();
+        String search = searchField.getText().trim();
+        List<Customer> customers = search.isEmpty()
+                ? fbs.getCustomers()
+                : fbs.findCustomersByName(search);
         for (Customer c : customers) {
             model.addRow(new Object[]{
                     c.getId(),
@@ -181,7 +192,7 @@ public class CustomersPanel extends JPanel {
 
             // Check if email already exists
             UserDataManager udm = FlightBookingSystemData.getUserDataManager();
-            AuthService authService = new AuthService(udm.getUsers());
+            AuthService authService = new AuthService(udm);
 
             if (authService.emailExists(email)) {
                 JOptionPane.showMessageDialog(this,
@@ -204,13 +215,13 @@ public class CustomersPanel extends JPanel {
             User user = authService.registerCustomer(firstName, middleName, lastName, email, password);
 
             // Create customer record and link to user
-            int newId = fbs.getCustomers().size() + 1;
+            int newId = fbs.getCustomerIds().next();
             Customer customer = new Customer(newId, user.getFullName(), phone);
             fbs.addCustomer(customer);
 
             user.setCustomerId(newId);
 
-            FlightBookingSystemData.store(fbs);
+            FlightBookingSystemData.requestStore(fbs);
 
             JOptionPane.showMessageDialog(this,
                     "Customer added successfully with ID " + newId + "\n" +
@@ -2,10 +2,14 @@ package bcu.cmp5332.bookingsystem.gui;
 
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.pricing.FareTable;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -27,13 +31,22 @@ public class FlightsPanel extends JPanel {
     private final JButton deactivateBtn = new JButton("Deactivate");
     private final JButton reactivateBtn = new JButton("Reactivate");
 
+    private final JTextField originField = new JTextField(6);
+    private final JTextField destinationField = new JTextField(6);
+    private final JTextField fromField = new JTextField(8);
+    private final JTextField toField = new JTextField(8);
+    private final JButton searchBtn = new JButton("Search");
+    private final JButton clearBtn = new JButton("Clear");
+
     public FlightsPanel(FlightBookingSystem fbs, boolean adminMode) {
         this.fbs = fbs;
         this.adminMode = adminMode;
 
-        model = new DefaultTableModel(new Object[]{
-                "ID", "Flight No", "Origin", "Destination", "Date", "Seats", "Base Price", "Active"
-        }, 0) {
+        // Customers also see the price a booking made now would pay
+        Object[] columns = adminMode
+                ? new Object[]{"ID", "Flight No", "Origin", "Destination", "Date", "Seats", "Base Price", "Active"}
+                : new Object[]{"ID", "Flight No", "Origin", "Destination", "Date", "Seats", "Base Price", "Price", "Active"};
+        model = new DefaultTableModel(columns, 0) {
             @Override
             public boolean isCellEditable(int row, int col) {
                 return false;
@@ -71,23 +84,80 @@ public class FlightsPanel extends JPanel {
             reactivateBtn.addActionListener(e -> setActive(true));
         }
 
-        add(top, BorderLayout.NORTH);
+        // Route filter: origin and destination, optionally a departure date range (YYYY-MM-DD)
+        JPanel filter = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filter.add(new JLabel("Origin:"));
+        filter.add(originField);
+        filter.add(new JLabel("Destination:"));
+        filter.add(destinationField);
+        filter.add(new JLabel("From:"));
+        filter.add(fromField);
+        filter.add(new JLabel("To:"));
+        filter.add(toField);
+        filter.add(searchBtn);
+        filter.add(clearBtn);
+
+        searchBtn.addActionListener(e -> loadFlights());
+        clearBtn.addActionListener(e -> {
+            originField.setText("");
+            destinationField.setText("");
+            fromField.setText("");
+            toField.setText("");
+            loadFlights();
+        });
+
+        JPanel north = new JPanel(new GridLayout(0, 1));
+        north.add(top);
+        north.add(filter);
+
+        add(north, BorderLayout.NORTH);
         add(new JScrollPane(table), BorderLayout.CENTER);
     }
 
     public void loadFlights() {
         model.setRowCount(0);
 
-        List<Flight> flights;
-        
+        List<Flight> routeFlights = null;
+        if (isFiltered()) {
+            routeFlights = searchRoute();
+            if (routeFlights == null) {
+                return;
+            }
+        }
+
         // Customers see only future flights (departure date > system date)
         // Admins see all flights
-        if (adminMode) {
-            flights = fbs.getFlights();
-        } else {
-            flights = fbs.getFutureFlights(fbs.getSystemDate());
+        if (!adminMode) {
+            FareTable fares;
+            if (routeFlights == null) {
+                fares = fbs.quoteFutureFlights();
+            } else {
+                List<Flight> future = new ArrayList<>();
+                for (Flight f : routeFlights) {
+                    if (f.getDepartureDate().isAfter(fbs.getSystemDate())) {
+                        future.add(f);
+                    }
+                }
+                fares = fbs.quoteFlights(future);
+            }
+            for (int i = 0; i < fares.size(); i++) {
+                Flight f = fares.getFlight(i);
+                model.addRow(new Object[]{
+                        f.getId(),
+                        f.getFlightNumber(),
+                        f.getOrigin(),
+                        f.getDestination(),
+                        f.getDepartureDate(),
+                        f.getCapacity(),
+                        String.format("%.2f", f.getBasePrice()),
+                        String.format("%.2f", fares.getPrice(i)),
+                        f.isActive()
+                });
+            }
+            return;
         }
-        
+
+        List<Flight> flights = routeFlights == null ? fbs.getFlights() : routeFlights;
         for (Flight f : flights) {
             model.addRow(new Object[]{
                     f.getId(),
@@ -102,6 +172,53 @@ public class FlightsPanel extends JPanel {
         }
     }
 
+    private boolean isFiltered() {
+        return !originField.getText().trim().isEmpty()
+                || !destinationField.getText().trim().isEmpty()
+                || !fromField.getText().trim().isEmpty()
+                || !toField.getText().trim().isEmpty();
+    }
+
+    /**
+     * Looks up the flights matching the route filter.
+     *
+     * @return the matching flights, or null if the filter is incomplete or invalid
+     */
+    private List<Flight> searchRoute() {
+        String origin = originField.getText().trim();
+        String destination = destinationField.getText().trim();
+        if (origin.isEmpty() || destination.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Enter both origin and destination to search.",
+                    "Info", JOptionPane.INFORMATION_MESSAGE);
+            return null;
+        }
+
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = fromField.getText().isBlank() ? null : LocalDate.parse(fromField.getText().trim());
+            to = toField.getText().isBlank() ? null : LocalDate.parse(toField.getText().trim());
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid date format. Please use YYYY-MM-DD.",
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            JOptionPane.showMessageDialog(this, "End date cannot be before start date.",
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
+
+        // Like the searchflights command, a route search lists active flights only, for admins too
+        List<Flight> flights = new ArrayList<>();
+        for (Flight f : fbs.findFlightsByRoute(origin, destination, from, to)) {
+            if (f.isActive()) {
+                flights.add(f);
+            }
+        }
+        return flights;
+    }
+
     private Integer getSelectedFlightId() {
         int row = table.getSelectedRow();
         if (row < 0) return null;
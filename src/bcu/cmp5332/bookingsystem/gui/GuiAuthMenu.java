@@ -11,6 +11,7 @@ import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
 
 /**
  * GUI Authentication Menu.
@@ -23,10 +24,37 @@ public class GuiAuthMenu extends JFrame {
 
     public GuiAuthMenu(FlightBookingSystem fbs) {
         this.fbs = fbs;
+        FlightBookingSystemData.setSaveFailureHandler(GuiAuthMenu::showSaveError);
         applyLightTheme();
         initialize();
     }
 
+    /**
+     * Shows a failed background save to the user.
+     *
+     * @param ex the save failure
+     */
+    static void showSaveError(IOException ex) {
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                ex.toString(),
+                "Save Error",
+                JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Waits for pending saves before the application exits.
+     *
+     * @param parent the window to show an error over
+     */
+    static void flushAndExit(Component parent) {
+        try {
+            FlightBookingSystemData.flush();
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(parent, ex.toString(), "Save Error", JOptionPane.ERROR_MESSAGE);
+        }
+        System.exit(0);
+    }
+
     private static void applyLightTheme() {
         try {
             UIManager.setLookAndFeel("javax.swing.plaf.metal.MetalLookAndFeel");
@@ -75,7 +103,7 @@ public class GuiAuthMenu extends JFrame {
 
         loginBtn.addActionListener(e -> handleLogin());
         registerBtn.addActionListener(e -> handleRegister());
-        exitBtn.addActionListener(e -> System.exit(0));
+        exitBtn.addActionListener(e -> flushAndExit(this));
 
         add(panel);
         setVisible(true);
@@ -90,7 +118,7 @@ public class GuiAuthMenu extends JFrame {
 
         try {
             UserDataManager udm = FlightBookingSystemData.getUserDataManager();
-            AuthService authService = new AuthService(udm.getUsers());
+            AuthService authService = new AuthService(udm);
 
             User user = authService.login(email, password);
 
@@ -188,7 +216,7 @@ public class GuiAuthMenu extends JFrame {
             }
 
             UserDataManager udm = FlightBookingSystemData.getUserDataManager();
-            AuthService authService = new AuthService(udm.getUsers());
+            AuthService authService = new AuthService(udm);
 
             // Check if email already exists
             if (authService.emailExists(email)) {
@@ -212,14 +240,14 @@ public class GuiAuthMenu extends JFrame {
             User user = authService.registerCustomer(first, middle, last, email, password);
 
             // Create customer record and link to user
-            int newCustomerId = fbs.getCustomers().size() + 1;
+            int newCustomerId = fbs.getCustomerIds().next();
             Customer customer = new Customer(newCustomerId, user.getFullName(), phone);
             fbs.addCustomer(customer);
 
             user.setCustomerId(newCustomerId);
 
             // Persist
-            FlightBookingSystemData.store(fbs);
+            FlightBookingSystemData.requestStore(fbs);
 
             JOptionPane.showMessageDialog(this,
                     "Registration successful. You can now login.",
@@ -5,8 +5,6 @@ import bcu.cmp5332.bookingsystem.auth.User;
 import bcu.cmp5332.bookingsystem.auth.UserDataManager;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 
-import java.util.List;
-
 /**
  * GUI-side authentication service.
  * Uses the already-loaded UserDataManager for login operations.
@@ -41,27 +39,21 @@ public class GuiAuthService {
             throw new FlightBookingSystemException("Password cannot be empty.");
         }
 
-        List<User> users = udm.getUsers();
-        for (User u : users) {
-            if (u.getEmail().equalsIgnoreCase(email.trim())) {
-                if (!u.getPassword().equals(password)) {
-                    throw new FlightBookingSystemException("Invalid email or password.");
-                }
-
-                Role role = u.getRole();
-                Integer customerId = null;
-                if (role == Role.CUSTOMER) {
-                    customerId = extractCustomerId(u);
-                    if (customerId == null) {
-                        throw new FlightBookingSystemException("Customer account is not linked properly.");
-                    }
-                }
+        User u = udm.findByEmail(email);
+        if (u == null || !u.getPassword().equals(password)) {
+            throw new FlightBookingSystemException("Invalid email or password.");
+        }
 
-                return new GuiSession(u, role, customerId);
+        Role role = u.getRole();
+        Integer customerId = null;
+        if (role == Role.CUSTOMER) {
+            customerId = extractCustomerId(u);
+            if (customerId == null) {
+                throw new FlightBookingSystemException("Customer account is not linked properly.");
             }
         }
 
-        throw new FlightBookingSystemException("Invalid email or password.");
+        return new GuiSession(u, role, customerId);
     }
 
     /**
@@ -30,6 +30,7 @@ public class LoginWindow extends JFrame {
      */
     public LoginWindow(FlightBookingSystem fbs) {
         this.fbs = fbs;
+        FlightBookingSystemData.setSaveFailureHandler(GuiAuthMenu::showSaveError);
         initialize();
     }
 
@@ -61,7 +62,7 @@ public class LoginWindow extends JFrame {
         loginBtn.addActionListener(e -> doLogin());
         exitBtn.addActionListener(e -> {
             dispose();
-            System.exit(0);
+            GuiAuthMenu.flushAndExit(null);
         });
 
         getContentPane().setLayout(new BorderLayout());
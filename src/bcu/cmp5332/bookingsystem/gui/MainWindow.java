@@ -6,6 +6,7 @@ import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -178,7 +179,7 @@ public class MainWindow extends JFrame implements ActionListener {
     }
 
     public void displayFlights() {
-        List<Flight> flightsList = fbs.getFlights();
+        List<Flight> flightsList = new ArrayList<>(fbs.getFlights());
         // headers for the table
         String[] columns = new String[]{"Flight No", "Origin", "Destination", "Departure Date"};
 
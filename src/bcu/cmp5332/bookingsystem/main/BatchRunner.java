@@ -0,0 +1,101 @@
+package bcu.cmp5332.bookingsystem.main;
+
+import bcu.cmp5332.bookingsystem.auth.User;
+import bcu.cmp5332.bookingsystem.commands.Command;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Runs a file of commands without prompting, for example a nightly schedule update.
+ *
+ * Each line holds one command with all of its arguments inline (see {@link CommandParser});
+ * blank lines and lines starting with {@code #} are skipped, and {@code exit} ends the run.
+ * A failing command is reported and the run carries on with the next line. Nothing is
+ * saved here: the caller persists the system once, after {@link #run(BufferedReader)}.
+ */
+public class BatchRunner {
+
+    private final FlightBookingSystem fbs;
+    private final User user;
+
+    private int succeeded;
+    private int failed;
+    private long elapsedNanos;
+
+    /**
+     * Creates a runner that executes commands as the given user.
+     *
+     * @param fbs the system to run the commands on
+     * @param user the user the commands run as
+     */
+    public BatchRunner(FlightBookingSystem fbs, User user) {
+        this.fbs = fbs;
+        this.user = user;
+    }
+
+    /**
+     * Runs every command in the input and prints the status of each one, followed by
+     * a summary with the number of commands run per second.
+     *
+     * @param in the commands, one per line
+     * @return true if every command succeeded
+     * @throws IOException if the input cannot be read
+     */
+    public boolean run(BufferedReader in) throws IOException {
+        long start = System.nanoTime();
+        int lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            if (trimmed.equalsIgnoreCase("exit")) {
+                break;
+            }
+
+            System.out.println("> " + trimmed);
+            try {
+                Command command = CommandParser.parse(trimmed, user.getRole(), user);
+                command.execute(fbs);
+                succeeded++;
+                System.out.println("[line " + lineNumber + "] OK");
+            } catch (FlightBookingSystemException | IllegalArgumentException ex) {
+                failed++;
+                System.out.println("[line " + lineNumber + "] FAILED: " + ex.getMessage());
+            } catch (RuntimeException ex) {
+                // An unexpected error fails this line only, so the rest of the file still runs and is saved
+                failed++;
+                System.out.println("[line " + lineNumber + "] FAILED: " + ex);
+            }
+        }
+        elapsedNanos = System.nanoTime() - start;
+
+        int total = succeeded + failed;
+        double millis = elapsedNanos / 1_000_000.0;
+        double perSecond = elapsedNanos == 0 ? 0 : total * 1_000_000_000.0 / elapsedNanos;
+        System.out.println(String.format("%d command(s): %d succeeded, %d failed in %.1f ms (%.0f commands/s)",
+                total, succeeded, failed, millis, perSecond));
+        return failed == 0;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns how long the last run took, excluding saving.
+     *
+     * @return the run time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -1,7 +1,9 @@
 package bcu.cmp5332.bookingsystem.main;
 
+import bcu.cmp5332.bookingsystem.auth.AuthService;
 import bcu.cmp5332.bookingsystem.auth.Role;
 import bcu.cmp5332.bookingsystem.auth.User;
+import bcu.cmp5332.bookingsystem.commands.AddAdmin;
 import bcu.cmp5332.bookingsystem.commands.AddBooking;
 import bcu.cmp5332.bookingsystem.commands.AddCustomer;
 import bcu.cmp5332.bookingsystem.commands.AddFlight;
@@ -12,23 +14,34 @@ import bcu.cmp5332.bookingsystem.commands.DeactivateCustomer;
 import bcu.cmp5332.bookingsystem.commands.DeactivateFlight;
 import bcu.cmp5332.bookingsystem.commands.EditBooking;
 import bcu.cmp5332.bookingsystem.commands.Help;
+import bcu.cmp5332.bookingsystem.commands.ImportFlights;
 import bcu.cmp5332.bookingsystem.commands.ListCustomers;
 import bcu.cmp5332.bookingsystem.commands.ListFlights;
 import bcu.cmp5332.bookingsystem.commands.LoadGUI;
 import bcu.cmp5332.bookingsystem.commands.ReactivateCustomer;
 import bcu.cmp5332.bookingsystem.commands.ReactivateFlight;
+import bcu.cmp5332.bookingsystem.commands.SearchConnections;
+import bcu.cmp5332.bookingsystem.commands.SearchFlights;
 import bcu.cmp5332.bookingsystem.commands.ShowCustomer;
 import bcu.cmp5332.bookingsystem.commands.ShowFlight;
 import bcu.cmp5332.bookingsystem.commands.UpdateBooking;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.search.ItinerarySearch;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Parses user commands and creates corresponding Command objects.
+ * Arguments are separated by spaces; an argument containing spaces can be
+ * wrapped in double quotes, for example {@code addflight BA200 "New York" London 2026-05-01 150 320.50}.
  */
 public class CommandParser {
 
@@ -50,9 +63,28 @@ public class CommandParser {
         }
 
         try {
-            String[] parts = line.split("\\s+");
+            String[] parts = tokenize(line);
             String cmd = parts[0].toLowerCase();
 
+            if (cmd.equals("addflight") && parts.length > 1) {
+                if (parts.length != 7) {
+                    throw new FlightBookingSystemException(
+                            "Usage: addflight NUMBER ORIGIN DESTINATION YYYY-MM-DD CAPACITY PRICE");
+                }
+                LocalDate departureDate;
+                try {
+                    departureDate = LocalDate.parse(parts[4]);
+                } catch (DateTimeParseException ex) {
+                    throw new FlightBookingSystemException("Invalid date format. Please use YYYY-MM-DD (e.g., 2026-02-07)");
+                }
+                int capacity = Integer.parseInt(parts[5]);
+                double basePrice = Double.parseDouble(parts[6]);
+                if (capacity < 0 || basePrice < 0) {
+                    throw new FlightBookingSystemException("Capacity and base price must be at least 0.");
+                }
+                return new AddFlight(parts[1], parts[2], parts[3], departureDate, capacity, basePrice);
+            }
+
             if (cmd.equals("addflight")) {
                 BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
 
@@ -73,10 +105,23 @@ public class CommandParser {
                 return new AddFlight(flightNumber, origin, destination, departureDate, capacity, basePrice);
             }
 
+            if (cmd.equals("addcustomer") && (parts.length == 6 || parts.length == 7)) {
+                // The middle name is optional: FIRST [MIDDLE] LAST EMAIL PASSWORD PHONE
+                String middle = parts.length == 7 ? parts[2] : "";
+                int last = parts.length - 4;
+                AuthService authService = new AuthService(FlightBookingSystemData.getUserDataManager());
+                return new AddCustomer(parts[1], middle, parts[last], parts[last + 1], parts[last + 2],
+                        parts[last + 3], authService);
+            }
+
             if (cmd.equals("addcustomer")) {
-                // Special handling for addcustomer - should not reach here
-                // This is handled directly in Main.java
-                throw new FlightBookingSystemException("Error: addcustomer should be handled by Main, not CommandParser");
+                // Without arguments, Main prompts for the details and builds the same command
+                throw new FlightBookingSystemException("Usage: addcustomer FIRST [MIDDLE] LAST EMAIL PASSWORD PHONE");
+            }
+
+            if (cmd.equals("addadmin") && parts.length == 5) {
+                AuthService authService = new AuthService(FlightBookingSystemData.getUserDataManager());
+                return new AddAdmin(parts[1], parts[2], parts[3], parts[4], authService);
             }
 
             if (cmd.equals("addadmin")) {
@@ -101,6 +146,48 @@ public class CommandParser {
                 }
             }
 
+            if (cmd.equals("searchflights")) {
+                if (parts.length < 3 || parts.length > 5) {
+                    throw new FlightBookingSystemException(
+                            "Usage: searchflights ORIGIN DESTINATION [FROM YYYY-MM-DD] [TO YYYY-MM-DD]");
+                }
+                try {
+                    LocalDate from = parts.length > 3 ? LocalDate.parse(parts[3]) : null;
+                    LocalDate to = parts.length > 4 ? LocalDate.parse(parts[4]) : null;
+                    return new SearchFlights(parts[1], parts[2], from, to, role);
+                } catch (DateTimeParseException ex) {
+                    throw new FlightBookingSystemException("Invalid date format. Please use YYYY-MM-DD (e.g., 2026-02-07)");
+                }
+            }
+
+            if (cmd.equals("importflights")) {
+                if (parts.length < 2 || parts.length > 3) {
+                    throw new FlightBookingSystemException("Usage: importflights FILE [REPORT FILE]");
+                }
+                Path report = parts.length == 3 ? Paths.get(parts[2]) : null;
+                return new ImportFlights(Paths.get(parts[1]), report);
+            }
+
+            if (cmd.equals("searchconnections")) {
+                if (parts.length < 4 || parts.length > 5) {
+                    throw new FlightBookingSystemException(
+                            "Usage: searchconnections ORIGIN DESTINATION YYYY-MM-DD [cheapest|shortest]");
+                }
+                ItinerarySearch.Order order = ItinerarySearch.Order.CHEAPEST;
+                if (parts.length == 5) {
+                    if (parts[4].equalsIgnoreCase("shortest")) {
+                        order = ItinerarySearch.Order.SHORTEST;
+                    } else if (!parts[4].equalsIgnoreCase("cheapest")) {
+                        throw new FlightBookingSystemException("Order must be cheapest or shortest.");
+                    }
+                }
+                try {
+                    return new SearchConnections(parts[1], parts[2], LocalDate.parse(parts[3]), order);
+                } catch (DateTimeParseException ex) {
+                    throw new FlightBookingSystemException("Invalid date format. Please use YYYY-MM-DD (e.g., 2026-02-07)");
+                }
+            }
+
             if (parts.length == 1) {
                 if (cmd.equals("listflights")) {
                     return new ListFlights();
@@ -159,6 +246,44 @@ public class CommandParser {
         throw new FlightBookingSystemException("Invalid command.");
     }
 
+    /**
+     * Splits a command line into arguments at spaces, keeping text inside
+     * double quotes together as one argument.
+     *
+     * @param line the command line
+     * @return the arguments, command name first
+     * @throws FlightBookingSystemException if a quote is not closed
+     */
+    static String[] tokenize(String line) throws FlightBookingSystemException {
+        List<String> parts = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        boolean hasToken = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (ch == '"') {
+                inQuotes = !inQuotes;
+                hasToken = true;
+            } else if (Character.isWhitespace(ch) && !inQuotes) {
+                if (hasToken) {
+                    parts.add(current.toString());
+                    current.setLength(0);
+                    hasToken = false;
+                }
+            } else {
+                current.append(ch);
+                hasToken = true;
+            }
+        }
+        if (inQuotes) {
+            throw new FlightBookingSystemException("Missing closing quote in command.");
+        }
+        if (hasToken) {
+            parts.add(current.toString());
+        }
+        return parts.toArray(new String[0]);
+    }
+
     /**
      * Reads an integer from user input with retry logic.
      * Keeps prompting until a valid integer >= minValue is entered.
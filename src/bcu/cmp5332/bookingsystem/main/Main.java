@@ -4,18 +4,25 @@ import bcu.cmp5332.bookingsystem.auth.AuthService;
 import bcu.cmp5332.bookingsystem.auth.Role;
 import bcu.cmp5332.bookingsystem.auth.User;
 import bcu.cmp5332.bookingsystem.auth.UserDataManager;
+import bcu.cmp5332.bookingsystem.commands.AddCustomer;
 import bcu.cmp5332.bookingsystem.commands.Command;
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
 import bcu.cmp5332.bookingsystem.gui.GuiAuthMenu;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.pricing.FareTable;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.awt.Color;
 import javax.swing.UIManager;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 
 /**
  * Entry point for the Flight Booking System command-line interface.
@@ -29,18 +36,30 @@ public class Main {
      * Main entry point for the Flight Booking System.
      * Loads system data, authenticates users, and processes commands.
      *
-     * @param args command-line arguments (not used)
+     * With {@code --batch FILE EMAIL PASSWORD} the commands in FILE ("-" for standard input)
+     * are run as that admin without prompting, and the changes are saved once at the end.
+     * With {@code --export-text DIR} the saved system is written to text files in DIR, and
+     * with {@code --import-text DIR} the text files in DIR replace the saved system.
+     *
+     * @param args command-line arguments (optional batch mode)
      * @throws IOException if file reading/writing fails
      * @throws FlightBookingSystemException if system operation fails
      */
     public static void main(String[] args) throws IOException, FlightBookingSystemException {
 
+        if (args.length > 0 && args[0].equals("--batch")) {
+            System.exit(runBatch(args));
+        }
+        if (args.length > 0 && (args[0].equals("--export-text") || args[0].equals("--import-text"))) {
+            System.exit(runTextTransfer(args));
+        }
+
         // Set consistent Light Look and Feel for all GUI windows
         setGuiLookAndFeel();
 
-        FlightBookingSystem fbs = FlightBookingSystemData.load();
+        FlightBookingSystem fbs = loadSystem();
         UserDataManager userDataManager = FlightBookingSystemData.getUserDataManager();
-        AuthService authService = new AuthService(userDataManager.getUsers());
+        AuthService authService = new AuthService(userDataManager);
 
         BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
 
@@ -102,7 +121,7 @@ public class Main {
                         System.out.print("Email: ");
                         email = br.readLine().trim();
 
-                        if (!isValidEmail(email)) {
+                        if (!AuthService.isValidEmail(email)) {
                             System.out.println("Invalid email format. Please enter a valid email.");
                             continue;
                         }
@@ -141,14 +160,14 @@ public class Main {
                         User user = authService.registerCustomer(first, middle, last, email, password);
 
                         // Create customer record and link to user
-                        int newCustomerId = fbs.getCustomers().size() + 1;
+                        int newCustomerId = fbs.getCustomerIds().next();
                         Customer customer = new Customer(newCustomerId, user.getFullName(), phone);
                         fbs.addCustomer(customer);
 
                         user.setCustomerId(newCustomerId);
 
-                        // Persist immediately
-                        FlightBookingSystemData.store(fbs);
+                        // Persist in the background
+                        FlightBookingSystemData.requestStore(fbs);
 
                         System.out.println("Registration successful. You can now login.");
                     } catch (FlightBookingSystemException ex) {
@@ -214,7 +233,7 @@ public class Main {
 
                     try {
                         authService.createAdmin(currentUser, first, middle, last, email, password);
-                        FlightBookingSystemData.store(fbs);
+                        FlightBookingSystemData.requestStore(fbs);
                         System.out.println("Admin account created successfully.");
                     } catch (FlightBookingSystemException ex) {
                         System.out.println(ex.getMessage());
@@ -239,6 +258,101 @@ public class Main {
         }
     }
 
+    /**
+     * Runs a command file as an admin and saves the result once.
+     *
+     * @param args the program arguments: --batch FILE EMAIL PASSWORD
+     * @return the process exit status: 0 if every command succeeded and the save worked
+     */
+    private static int runBatch(String[] args) throws IOException, FlightBookingSystemException {
+        if (args.length != 4) {
+            System.out.println("Usage: --batch FILE EMAIL PASSWORD  (FILE can be - for standard input)");
+            return 2;
+        }
+
+        FlightBookingSystem fbs = loadSystem();
+        AuthService authService = new AuthService(FlightBookingSystemData.getUserDataManager());
+        try {
+            currentUser = authService.login(args[2], args[3]);
+        } catch (FlightBookingSystemException ex) {
+            System.out.println(ex.getMessage());
+            return 2;
+        }
+        if (currentUser.getRole() != Role.ADMIN) {
+            System.out.println("Batch mode is only available to admin accounts.");
+            return 2;
+        }
+
+        BatchRunner runner = new BatchRunner(fbs, currentUser);
+        boolean allSucceeded;
+        try (BufferedReader in = args[1].equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : Files.newBufferedReader(Paths.get(args[1]))) {
+            allSucceeded = runner.run(in);
+        }
+
+        // One save for the whole file: a snapshot that contains the journaled changes, and the users
+        long start = System.nanoTime();
+        try {
+            FlightBookingSystemData.store(fbs);
+        } catch (IOException ex) {
+            System.out.println("ERROR: Failed to save changes: " + ex.getMessage());
+            return 1;
+        }
+        System.out.println(String.format(
+                "Changes saved in %.1f ms (%d unchanged file(s) skipped, %d bytes not rewritten)",
+                (System.nanoTime() - start) / 1_000_000.0,
+                FlightBookingSystemData.getSkippedFiles(), FlightBookingSystemData.getSkippedBytes()));
+        return allSucceeded ? 0 : 1;
+    }
+
+    /**
+     * Loads the saved system and prints one line with the time each loading phase took.
+     *
+     * @return the loaded system
+     */
+    private static FlightBookingSystem loadSystem() throws IOException, FlightBookingSystemException {
+        long start = System.nanoTime();
+        FlightBookingSystem fbs = FlightBookingSystemData.load();
+        double elapsed = (System.nanoTime() - start) / 1_000_000.0;
+
+        StringJoiner phases = new StringJoiner(", ");
+        for (Map.Entry<String, Long> phase : FlightBookingSystemData.getLoadTimings().entrySet()) {
+            if (!phase.getKey().equals("total")) {
+                phases.add(phase.getKey() + " " + phase.getValue() + " ms");
+            }
+        }
+        System.out.println(String.format("Data loaded in %.1f ms (%s)", elapsed, phases));
+        return fbs;
+    }
+
+    /**
+     * Exports the saved system to text files, or replaces it with the text files of a
+     * directory. User accounts are kept as they are.
+     *
+     * @param args the program arguments: --export-text DIR or --import-text DIR
+     * @return the process exit status: 0 if the files were written
+     */
+    private static int runTextTransfer(String[] args) throws IOException, FlightBookingSystemException {
+        if (args.length != 2) {
+            System.out.println("Usage: --export-text DIR  or  --import-text DIR");
+            return 2;
+        }
+
+        Path directory = Paths.get(args[1]);
+        FlightBookingSystem fbs = loadSystem();
+        if (args[0].equals("--export-text")) {
+            FlightBookingSystemData.exportText(fbs, directory);
+            System.out.println("Text files written to " + directory);
+        } else {
+            FlightBookingSystem imported = FlightBookingSystemData.importText(directory);
+            FlightBookingSystemData.store(imported);
+            System.out.println(String.format("Imported %d flight(s) and %d customer(s) from %s",
+                    imported.getFlights().size(), imported.getCustomers().size(), directory));
+        }
+        return 0;
+    }
+
     private static void runCommandMode(BufferedReader br, FlightBookingSystem fbs) throws IOException {
 
         System.out.println();
@@ -276,7 +390,8 @@ public class Main {
                     String lower = trimmed.toLowerCase();
 
                     if (lower.startsWith("addflight") || lower.startsWith("addcustomer")
-                            || lower.startsWith("listcustomers") || lower.startsWith("advancedate")) {
+                            || lower.startsWith("listcustomers") || lower.startsWith("advancedate")
+                            || lower.startsWith("importflights")) {
                         System.out.println("Only admin can use this command.");
                         continue;
                     }
@@ -308,12 +423,13 @@ public class Main {
                     }
                 }
 
-                // Special handling for addcustomer - requires both User and Customer creation (admin only)
-                if (trimmed.toLowerCase().startsWith("addcustomer")) {
+                // Without arguments addcustomer prompts for the details; with inline arguments
+                // it is parsed below. Both run AddCustomer, which creates the customer and its account
+                if (trimmed.equalsIgnoreCase("addcustomer")) {
                     if (currentUser.getRole() != Role.ADMIN) {
                         System.out.println("Only admin can use this command.");
                     } else {
-                        handleAddCustomerAdmin(br, fbs);
+                        readAddCustomer(br, fbs).execute(fbs);
                         if (!saveWithRollback(fbs)) {
                             return;  // Rollback occurred, exit command mode
                         }
@@ -447,34 +563,12 @@ public class Main {
         }
     }
 
-    private static boolean isValidEmail(String email) {
-        if (email == null) {
-            return false;
-        }
-
-        if (email.contains(" ")) {
-            return false;
-        }
-
-        int atIndex = email.indexOf('@');
-        int lastAtIndex = email.lastIndexOf('@');
-
-        // must contain exactly one '@'
-        if (atIndex <= 0 || atIndex != lastAtIndex) {
-            return false;
-        }
-
-        // must contain '.' after '@'
-        int dotIndex = email.indexOf('.', atIndex);
-        if (dotIndex <= atIndex + 1 || dotIndex == email.length() - 1) {
-            return false;
-        }
-
-        return true;
-
-    }
-
-    private static void handleAddCustomerAdmin(BufferedReader br, FlightBookingSystem fbs) throws IOException {
+    /**
+     * Prompts for the details of a new customer and its login account.
+     *
+     * @return the command that adds the customer, the same one inline addcustomer runs
+     */
+    private static AddCustomer readAddCustomer(BufferedReader br, FlightBookingSystem fbs) throws IOException {
         System.out.println();
         System.out.print("First name: ");
         String first = br.readLine();
@@ -491,13 +585,13 @@ public class Main {
             System.out.print("Email: ");
             email = br.readLine().trim();
 
-            if (!isValidEmail(email)) {
+            if (!AuthService.isValidEmail(email)) {
                 System.out.println("Invalid email format. Please enter a valid email.");
                 continue;
             }
 
             UserDataManager udm = FlightBookingSystemData.getUserDataManager();
-            AuthService authService = new AuthService(udm.getUsers());
+            AuthService authService = new AuthService(udm);
             
             if (authService.emailExists(email)) {
                 System.out.println("Email already exists.");
@@ -529,27 +623,8 @@ public class Main {
             break;
         }
 
-        try {
-            // Create user account
-            UserDataManager udm = FlightBookingSystemData.getUserDataManager();
-            AuthService authService = new AuthService(udm.getUsers());
-            User user = authService.registerCustomer(first, middle, last, email, password);
-
-            // Create customer record and link to user
-            int newCustomerId = fbs.getCustomers().size() + 1;
-            Customer customer = new Customer(newCustomerId, user.getFullName(), phone);
-            fbs.addCustomer(customer);
-
-            user.setCustomerId(newCustomerId);
-
-            FlightBookingSystemData.store(fbs);
-
-            System.out.println("Customer added successfully with ID " + newCustomerId);
-            System.out.println("Email: " + email);
-            System.out.println("Phone: " + phone);
-        } catch (FlightBookingSystemException ex) {
-            System.out.println("Error: " + ex.getMessage());
-        }
+        AuthService authService = new AuthService(FlightBookingSystemData.getUserDataManager());
+        return new AddCustomer(first, middle, last, email, password, phone, authService);
     }
 
     private static void handleAddAdmin(BufferedReader br, FlightBookingSystem fbs) throws IOException {
@@ -569,13 +644,13 @@ public class Main {
             System.out.print("Email: ");
             email = br.readLine().trim();
 
-            if (!isValidEmail(email)) {
+            if (!AuthService.isValidEmail(email)) {
                 System.out.println("Invalid email format. Please enter a valid email.");
                 continue;
             }
 
             UserDataManager udm = FlightBookingSystemData.getUserDataManager();
-            AuthService authService = new AuthService(udm.getUsers());
+            AuthService authService = new AuthService(udm);
             
             if (authService.emailExists(email)) {
                 System.out.println("Email already exists.");
@@ -591,7 +666,7 @@ public class Main {
         try {
             // Create admin user account
             UserDataManager udm = FlightBookingSystemData.getUserDataManager();
-            AuthService authService = new AuthService(udm.getUsers());
+            AuthService authService = new AuthService(udm);
             authService.registerAdmin(first, middle, last, email, password);
 
             System.out.println("Admin account created successfully");
@@ -602,18 +677,20 @@ public class Main {
     }
 
     private static void handleListFlights(FlightBookingSystem fbs) {
-        List<Flight> flights;
-
-        // Customers see only future flights (departure date > system date)
+        // Customers see only future flights (departure date > system date), with current prices
         // Admins see all active flights
         if (currentUser.getRole() == Role.CUSTOMER) {
-            flights = fbs.getFutureFlights(fbs.getSystemDate());
-        } else {
-            flights = fbs.getFlights();
+            FareTable fares = fbs.quoteFutureFlights();
+            for (int i = 0; i < fares.size(); i++) {
+                System.out.println(fares.getFlight(i).getDetailsShort()
+                        + " | Price: " + String.format("%.2f", fares.getPrice(i)));
+            }
+            System.out.println(fares.size() + " flight(s)");
+            return;
         }
 
         int count = 0;
-        for (Flight flight : flights) {
+        for (Flight flight : fbs.getFlights()) {
             if (flight.isActive()) {
                 System.out.println(flight.getDetailsShort());
                 count++;
@@ -624,6 +701,7 @@ public class Main {
 
     /**
      * Attempts to save the system state, with rollback on failure.
+     * Booking changes are committed through the journal; other changes store a full snapshot.
      * If save fails, reloads from disk to revert in-memory state.
      *
      * @param fbs the FlightBookingSystem to save
@@ -631,7 +709,7 @@ public class Main {
      */
     private static boolean saveWithRollback(FlightBookingSystem fbs) {
         try {
-            FlightBookingSystemData.store(fbs);
+            FlightBookingSystemData.commit(fbs);
             return true;
         } catch (IOException e) {
             System.out.println("ERROR: Failed to save changes: " + e.getMessage());
@@ -16,6 +16,9 @@ public class Booking {
     private double feeLast;
     private String feeType;
 
+    // Slot of this booking in its customer's history, kept by Customer; -1 when not in one
+    int historyPosition = -1;
+
     /**
      * Creates a booking and stores the flight base price as booking price.
      *
@@ -51,6 +54,7 @@ public class Booking {
 
     public void setCustomer(Customer customer) {
         this.customer = customer;
+        markChanged();
     }
 
     public Flight getFlight() {
@@ -58,7 +62,10 @@ public class Booking {
     }
 
     public void setFlight(Flight flight) {
+        Flight oldFlight = this.flight;
         this.flight = flight;
+        reindex(oldFlight, status);
+        markChanged();
     }
 
     public LocalDate getBookingDate() {
@@ -67,6 +74,7 @@ public class Booking {
 
     public void setBookingDate(LocalDate bookingDate) {
         this.bookingDate = bookingDate;
+        markChanged();
     }
 
     /**
@@ -82,6 +90,7 @@ public class Booking {
      */
     public void setBookingPrice(double bookingPrice) {
         this.bookingPrice = bookingPrice;
+        markChanged();
     }
 
     /**
@@ -99,7 +108,10 @@ public class Booking {
      * @param status the booking status
      */
     public void setStatus(BookingStatus status) {
+        BookingStatus oldStatus = this.status;
         this.status = status;
+        reindex(flight, oldStatus);
+        markChanged();
     }
 
     /**
@@ -118,6 +130,7 @@ public class Booking {
      */
     public void setFeeLast(double feeLast) {
         this.feeLast = feeLast;
+        markChanged();
     }
 
     /**
@@ -136,5 +149,18 @@ public class Booking {
      */
     public void setFeeType(String feeType) {
         this.feeType = feeType;
+        markChanged();
+    }
+
+    private void reindex(Flight oldFlight, BookingStatus oldStatus) {
+        if (customer != null && (oldFlight != flight || oldStatus != status)) {
+            customer.bookingChanged(this, oldFlight, oldStatus);
+        }
+    }
+
+    private void markChanged() {
+        if (customer != null) {
+            customer.markChanged(DataSet.BOOKINGS);
+        }
     }
 }
@@ -0,0 +1,89 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks that let bookings for different flights and customers run in parallel.
+ *
+ * A booking operation locks the stripe of its customer and the stripes of every flight it
+ * touches. Customer stripes are always locked before flight stripes, and flight stripes in
+ * ascending order, so two operations can never wait for each other in a cycle (for example
+ * two rebookings between the same pair of flights in opposite directions).
+ *
+ * The customer lock guards the customer's bookings. Seats are claimed without locking
+ * through {@link Flight#tryReserveSeat()}, so capacity holds even for operations that do
+ * not lock the flight; the flight locks keep multi-flight changes such as rebookings
+ * from interleaving on the same flight.
+ */
+public final class BookingLocks {
+
+    /**
+     * An operation run while holding booking locks.
+     */
+    public interface Action {
+        /**
+         * Runs the operation.
+         *
+         * @throws FlightBookingSystemException if the operation fails
+         */
+        void run() throws FlightBookingSystemException;
+    }
+
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] customerStripes = newStripes();
+    private final ReentrantLock[] flightStripes = newStripes();
+
+    /**
+     * Runs an operation while holding the locks of a customer and the given flights.
+     *
+     * @param customerId the customer the operation changes
+     * @param action the operation
+     * @param flightIds the flights the operation changes
+     * @throws FlightBookingSystemException if the operation fails
+     */
+    public void run(int customerId, Action action, int... flightIds) throws FlightBookingSystemException {
+        int[] flights = new int[flightIds.length];
+        for (int i = 0; i < flightIds.length; i++) {
+            flights[i] = stripe(flightIds[i]);
+        }
+        Arrays.sort(flights);
+
+        ReentrantLock customerLock = customerStripes[stripe(customerId)];
+        customerLock.lock();
+        int locked = 0;
+        try {
+            for (int i = 0; i < flights.length; i++) {
+                // Flights sharing a stripe share its lock; take it once
+                if (i == 0 || flights[i] != flights[i - 1]) {
+                    flightStripes[flights[i]].lock();
+                }
+                locked = i + 1;
+            }
+            action.run();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                if (i == 0 || flights[i] != flights[i - 1]) {
+                    flightStripes[flights[i]].unlock();
+                }
+            }
+            customerLock.unlock();
+        }
+    }
+
+    private static int stripe(int id) {
+        // Ids are allocated sequentially, so their low bits spread them evenly
+        return id & (STRIPES - 1);
+    }
+
+    private static ReentrantLock[] newStripes() {
+        ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+}
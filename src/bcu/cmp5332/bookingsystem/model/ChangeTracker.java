@@ -0,0 +1,49 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Records which data sets of a FlightBookingSystem have been modified since
+ * the last save, so that persistence can skip data that has not changed.
+ * Flights and customers report to the tracker of the system they were added to;
+ * bookings report through their customer.
+ */
+public class ChangeTracker {
+
+    private final EnumSet<DataSet> changed = EnumSet.noneOf(DataSet.class);
+
+    /**
+     * Marks a data set as modified.
+     *
+     * @param dataSet the modified data set
+     */
+    public synchronized void markChanged(DataSet dataSet) {
+        changed.add(dataSet);
+    }
+
+    /**
+     * Indicates whether anything has been modified since the last {@link #clear()}.
+     *
+     * @return true if any data set is modified
+     */
+    public synchronized boolean hasChanges() {
+        return !changed.isEmpty();
+    }
+
+    /**
+     * Returns the data sets modified since the last {@link #clear()}.
+     *
+     * @return a copy of the modified data sets
+     */
+    public synchronized Set<DataSet> getChanged() {
+        return EnumSet.copyOf(changed);
+    }
+
+    /**
+     * Forgets all recorded changes, typically after a successful save.
+     */
+    public synchronized void clear() {
+        changed.clear();
+    }
+}
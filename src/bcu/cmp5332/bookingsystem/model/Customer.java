@@ -3,8 +3,13 @@ package bcu.cmp5332.bookingsystem.model;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 
 import java.time.format.DateTimeFormatter;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Represents a customer (passenger) in the Flight Booking System.
@@ -17,7 +22,20 @@ public class Customer {
     private String phone;
     private boolean deleted = false;
 
+    // Booking history in booking order. Removing a booking clears the slot stored in the
+    // booking, and the list is compacted once half of its slots are empty
     private final List<Booking> bookings = new ArrayList<>();
+    private int removedBookings;
+    private final List<Booking> bookingHistory = new BookingHistory();
+
+    // Flight id -> the ACTIVE booking for that flight; bookings keeps the full history
+    private final Map<Integer, Booking> activeBookings = new HashMap<>();
+
+    // Flight id -> every booking in the history for that flight, oldest first
+    private final Map<Integer, List<Booking>> bookingsByFlight = new HashMap<>();
+
+    // The system this customer was added to; null until then
+    private FlightBookingSystem system;
 
     /**
      * Creates a new customer.
@@ -56,13 +74,13 @@ public class Customer {
 
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-        if (bookings.isEmpty()) {
+        if (bookingHistory.isEmpty()) {
             sb.append("No bookings\n");
             sb.append("0 booking(s)\n");
             return sb.toString();
         }
 
-        for (Booking b : bookings) {
+        for (Booking b : bookingHistory) {
             Flight f = b.getFlight();
             sb.append("* Booking date: ")
                     .append(b.getBookingDate().format(dtf))
@@ -85,7 +103,7 @@ public class Customer {
                     .append("\n");
         }
 
-        sb.append(bookings.size()).append(" booking(s)\n");
+        sb.append(bookingHistory.size()).append(" booking(s)\n");
         return sb.toString();
     }
 
@@ -101,16 +119,20 @@ public class Customer {
             throw new IllegalArgumentException("Booking cannot be null.");
         }
 
-        Flight newFlight = booking.getFlight();
-        for (Booking existing : bookings) {
-            // Only check for duplicates with ACTIVE bookings (allow rebooking canceled flights)
-            if (existing.getStatus() == BookingStatus.ACTIVE && existing.getFlight().getId() == newFlight.getId()) {
-                throw new FlightBookingSystemException(
-                        "Customer already has a booking for that flight.");
-            }
+        int flightId = booking.getFlight().getId();
+        // Only check for duplicates with ACTIVE bookings (allow rebooking canceled flights)
+        if (activeBookings.containsKey(flightId)) {
+            throw new FlightBookingSystemException(
+                    "Customer already has a booking for that flight.");
         }
 
+        booking.historyPosition = bookings.size();
         bookings.add(booking);
+        addToFlight(booking);
+        if (booking.getStatus() == BookingStatus.ACTIVE) {
+            activeBookings.put(flightId, booking);
+        }
+        markChanged(DataSet.BOOKINGS);
     }
 
     /**
@@ -126,11 +148,12 @@ public class Customer {
             throw new IllegalArgumentException("Flight cannot be null.");
         }
 
-        Booking toRemove = null;
-        for (Booking b : bookings) {
-            if (b.getFlight().getId() == flight.getId()) {
-                toRemove = b;
-                break;
+        Booking toRemove = activeBookings.remove(flight.getId());
+        if (toRemove == null) {
+            // Only canceled bookings left for this flight
+            List<Booking> forFlight = bookingsByFlight.get(flight.getId());
+            if (forFlight != null) {
+                toRemove = forFlight.get(0);
             }
         }
 
@@ -139,7 +162,80 @@ public class Customer {
                     "Customer does not have a booking for that flight.");
         }
 
-        bookings.remove(toRemove);
+        removeFromFlight(toRemove, toRemove.getFlight());
+        bookings.set(toRemove.historyPosition, null);
+        toRemove.historyPosition = -1;
+        removedBookings++;
+        if (removedBookings * 2 > bookings.size()) {
+            compactHistory();
+        }
+        markChanged(DataSet.BOOKINGS);
+    }
+
+    private void addToFlight(Booking booking) {
+        List<Booking> forFlight = bookingsByFlight.computeIfAbsent(booking.getFlight().getId(),
+                k -> new ArrayList<>(1));
+        // Keep the list in history order; a booking moved here by rebooking may be older
+        int i = forFlight.size();
+        while (i > 0 && forFlight.get(i - 1).historyPosition > booking.historyPosition) {
+            i--;
+        }
+        forFlight.add(i, booking);
+    }
+
+    private void removeFromFlight(Booking booking, Flight flight) {
+        List<Booking> forFlight = bookingsByFlight.get(flight.getId());
+        if (forFlight != null && forFlight.remove(booking) && forFlight.isEmpty()) {
+            bookingsByFlight.remove(flight.getId());
+        }
+    }
+
+    private void compactHistory() {
+        int live = 0;
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking b = bookings.get(i);
+            if (b != null) {
+                b.historyPosition = live;
+                bookings.set(live++, b);
+            }
+        }
+        bookings.subList(live, bookings.size()).clear();
+        removedBookings = 0;
+    }
+
+    /**
+     * Returns the customer's active booking for a flight.
+     *
+     * @param flightId the flight id
+     * @return the ACTIVE booking for that flight, or null if there is none
+     */
+    public Booking getActiveBooking(int flightId) {
+        return activeBookings.get(flightId);
+    }
+
+    /**
+     * Updates the active-booking index after one of this customer's bookings
+     * changed flight or status.
+     *
+     * @param booking the booking that changed
+     * @param oldFlight the flight before the change
+     * @param oldStatus the status before the change
+     */
+    void bookingChanged(Booking booking, Flight oldFlight, BookingStatus oldStatus) {
+        if (oldStatus == BookingStatus.ACTIVE && oldFlight != null) {
+            activeBookings.remove(oldFlight.getId(), booking);
+        }
+        if (booking.getStatus() == BookingStatus.ACTIVE && booking.getFlight() != null) {
+            activeBookings.putIfAbsent(booking.getFlight().getId(), booking);
+        }
+        if (booking.historyPosition >= 0 && oldFlight != booking.getFlight()) {
+            if (oldFlight != null) {
+                removeFromFlight(booking, oldFlight);
+            }
+            if (booking.getFlight() != null) {
+                addToFlight(booking);
+            }
+        }
     }
 
     public int getId() {
@@ -148,6 +244,7 @@ public class Customer {
 
     public void setId(int id) {
         this.id = id;
+        markChanged(DataSet.CUSTOMERS);
     }
 
     public String getName() {
@@ -155,7 +252,11 @@ public class Customer {
     }
 
     public void setName(String name) {
+        if (system != null) {
+            system.reindexCustomerName(this, this.name, name);
+        }
         this.name = name;
+        markChanged(DataSet.CUSTOMERS);
     }
 
     public String getPhone() {
@@ -163,17 +264,21 @@ public class Customer {
     }
 
     public void setPhone(String phone) {
+        if (system != null) {
+            system.reindexCustomerPhone(this.phone, phone);
+        }
         this.phone = phone;
+        markChanged(DataSet.CUSTOMERS);
     }
 
     /**
-     * Returns the customer's bookings list.
-     * Commands should prefer addBooking and cancelBookingForFlight.
+     * Returns a read-only view of the customer's bookings, in booking order.
+     * Commands change bookings through addBooking and cancelBookingForFlight.
      *
      * @return list of bookings
      */
     public List<Booking> getBookings() {
-        return bookings;
+        return bookingHistory;
     }
 
     /**
@@ -188,6 +293,7 @@ public class Customer {
      */
     public void deactivate() {
         this.deleted = true;
+        markChanged(DataSet.CUSTOMERS);
     }
 
     /**
@@ -195,5 +301,86 @@ public class Customer {
      */
     public void reactivate() {
         this.deleted = false;
+        markChanged(DataSet.CUSTOMERS);
+    }
+
+    /**
+     * Attaches this customer to the system it was added to, which keeps its
+     * indexes and change tracking up to date when the customer is modified.
+     *
+     * @param system the owning system
+     */
+    void attach(FlightBookingSystem system) {
+        this.system = system;
+    }
+
+    /**
+     * Records a modification to this customer's data, including its bookings.
+     *
+     * @param dataSet the modified data set
+     */
+    void markChanged(DataSet dataSet) {
+        if (system != null) {
+            system.getChanges().markChanged(dataSet);
+        }
+    }
+
+    /**
+     * The booking history without its empty slots. Iterating and reading the newest
+     * bookings are cheap; reading by index elsewhere scans while slots are empty.
+     */
+    private final class BookingHistory extends AbstractList<Booking> {
+
+        @Override
+        public int size() {
+            return bookings.size() - removedBookings;
+        }
+
+        @Override
+        public Booking get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            if (removedBookings == 0) {
+                return bookings.get(index);
+            }
+            // Scan from the end, which is where the latest bookings are read from
+            int fromEnd = size() - 1 - index;
+            for (int i = bookings.size() - 1; ; i--) {
+                Booking b = bookings.get(i);
+                if (b != null && fromEnd-- == 0) {
+                    return b;
+                }
+            }
+        }
+
+        @Override
+        public Iterator<Booking> iterator() {
+            return new Iterator<>() {
+                private int next = skipEmpty(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next < bookings.size();
+                }
+
+                @Override
+                public Booking next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Booking b = bookings.get(next);
+                    next = skipEmpty(next + 1);
+                    return b;
+                }
+            };
+        }
+
+        private int skipEmpty(int i) {
+            while (i < bookings.size() && bookings.get(i) == null) {
+                i++;
+            }
+            return i;
+        }
     }
 }
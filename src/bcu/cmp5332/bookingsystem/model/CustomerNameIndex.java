@@ -0,0 +1,141 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index of customer names for partial-name searches.
+ *
+ * Names are case-folded and indexed two ways: every three-character sequence
+ * (trigram) maps to the customers whose name contains it, and every word of the
+ * name is kept in a sorted map for prefix lookups. Queries of three or more
+ * characters match names containing the query; shorter queries match names with
+ * a word starting with the query.
+ */
+class CustomerNameIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<Customer>> trigrams = new HashMap<>();
+    private final NavigableMap<String, Set<Customer>> words = new TreeMap<>();
+
+    /**
+     * Adds a customer under the given name.
+     *
+     * @param customer the customer
+     * @param name the name to index
+     */
+    void add(Customer customer, String name) {
+        String folded = fold(name);
+        if (folded.isEmpty()) {
+            return;
+        }
+        for (String gram : trigramsOf(folded)) {
+            trigrams.computeIfAbsent(gram, k -> new HashSet<>()).add(customer);
+        }
+        for (String word : wordsOf(folded)) {
+            words.computeIfAbsent(word, k -> new HashSet<>()).add(customer);
+        }
+    }
+
+    /**
+     * Removes a customer that was indexed under the given name.
+     *
+     * @param customer the customer
+     * @param name the name it was indexed under
+     */
+    void remove(Customer customer, String name) {
+        String folded = fold(name);
+        if (folded.isEmpty()) {
+            return;
+        }
+        for (String gram : trigramsOf(folded)) {
+            removeFrom(trigrams, gram, customer);
+        }
+        for (String word : wordsOf(folded)) {
+            removeFrom(words, word, customer);
+        }
+    }
+
+    /**
+     * Returns the customers matching a partial name, ordered by id.
+     *
+     * @param query the partial name
+     * @return matching customers
+     */
+    List<Customer> search(String query) {
+        String folded = fold(query);
+        if (folded.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Customer> found = new HashSet<>();
+        if (folded.length() < GRAM) {
+            for (Set<Customer> matches : words.subMap(folded, true, folded + Character.MAX_VALUE, false).values()) {
+                found.addAll(matches);
+            }
+        } else {
+            // Check the rarest trigram's customers against the whole query
+            Set<Customer> smallest = null;
+            for (String gram : trigramsOf(folded)) {
+                Set<Customer> matches = trigrams.get(gram);
+                if (matches == null) {
+                    return Collections.emptyList();
+                }
+                if (smallest == null || matches.size() < smallest.size()) {
+                    smallest = matches;
+                }
+            }
+            for (Customer c : smallest) {
+                if (fold(c.getName()).contains(folded)) {
+                    found.add(c);
+                }
+            }
+        }
+
+        List<Customer> result = new ArrayList<>(found);
+        result.sort(Comparator.comparingInt(Customer::getId));
+        return result;
+    }
+
+    private static String fold(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigramsOf(String folded) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            grams.add(folded.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static Set<String> wordsOf(String folded) {
+        Set<String> out = new HashSet<>();
+        for (String word : folded.split("[\\s-]+")) {
+            if (!word.isEmpty()) {
+                out.add(word);
+            }
+        }
+        return out;
+    }
+
+    private static void removeFrom(Map<String, Set<Customer>> index, String key, Customer customer) {
+        Set<Customer> set = index.get(key);
+        if (set != null) {
+            set.remove(customer);
+            if (set.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package bcu.cmp5332.bookingsystem.model;
+
+/**
+ * The groups of data that are tracked for changes between saves.
+ */
+public enum DataSet {
+    FLIGHTS,
+    CUSTOMERS,
+    BOOKINGS,
+    SYSTEM_DATE
+}
@@ -0,0 +1,60 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Flights sorted by departure date, then id, for date range lookups.
+ *
+ * Each flight is stored under one long key packing its departure day into the high
+ * 32 bits and its id, as an unsigned value, into the low 32 bits, so flights on the
+ * same day stay distinct and a date range maps to one contiguous key range. The map is a
+ * concurrent one, so the range views handed out can be iterated while flights change.
+ */
+class DepartureIndex {
+
+    private final NavigableMap<Long, Flight> flights = new ConcurrentSkipListMap<>();
+
+    /**
+     * Adds a flight under the given departure date.
+     *
+     * @param flight the flight
+     * @param departureDate the departure date to index
+     */
+    void add(Flight flight, LocalDate departureDate) {
+        flights.put(key(departureDate.toEpochDay(), flight.getId()), flight);
+    }
+
+    /**
+     * Removes a flight that was indexed under the given departure date.
+     *
+     * @param flight the flight
+     * @param departureDate the departure date it was indexed under
+     */
+    void remove(Flight flight, LocalDate departureDate) {
+        flights.remove(key(departureDate.toEpochDay(), flight.getId()));
+    }
+
+    /**
+     * Returns the flights departing within a date range.
+     *
+     * @param from the first departure date, inclusive, or null for no lower bound
+     * @param to the last departure date, inclusive, or null for no upper bound
+     * @return a read-only view of the matching flights ordered by departure date, then id
+     */
+    Collection<Flight> between(LocalDate from, LocalDate to) {
+        long low = from == null ? Long.MIN_VALUE : key(from.toEpochDay(), 0);
+        long high = to == null ? Long.MAX_VALUE : key(to.toEpochDay(), -1);
+        if (low > high) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableCollection(flights.subMap(low, true, high, true).values());
+    }
+
+    private static long key(long epochDay, int id) {
+        return (epochDay << 32) | (id & 0xFFFFFFFFL);
+    }
+}
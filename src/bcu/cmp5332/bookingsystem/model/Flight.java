@@ -5,8 +5,10 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a flight in the flight booking system.
@@ -20,11 +22,18 @@ public class Flight {
     private LocalDate departureDate;
 
     // New fields
-    private int capacity;
+    private volatile int capacity;
     private double basePrice;
     private boolean deleted = false;
 
-    private Set<Customer> passengers = new HashSet<>();
+    private final Set<Customer> passengers = ConcurrentHashMap.newKeySet();
+    private final Set<Customer> passengerView = Collections.unmodifiableSet(passengers);
+
+    // Passengers plus seats claimed by bookings that have not added their passenger yet
+    private final AtomicInteger seatsTaken = new AtomicInteger();
+
+    // The system this flight was added to; null until then
+    private FlightBookingSystem system;
 
     /**
      * Constructor with capacity and base price.
@@ -40,6 +49,31 @@ public class Flight {
     public Flight(int id, String flightNumber, String origin, String destination,
                   LocalDate departureDate, int capacity, double basePrice) {
 
+        validate(flightNumber, origin, destination, departureDate, capacity, basePrice);
+
+        this.id = id;
+        this.flightNumber = flightNumber;
+        this.origin = origin;
+        this.destination = destination;
+        this.departureDate = departureDate;
+        this.capacity = capacity;
+        this.basePrice = basePrice;
+    }
+
+    /**
+     * Checks flight details against the rules the constructor enforces, so they
+     * can be validated before an id is assigned.
+     *
+     * @param flightNumber flight number
+     * @param origin origin
+     * @param destination destination
+     * @param departureDate departure date
+     * @param capacity total seats available
+     * @param basePrice base price for booking
+     * @throws IllegalArgumentException if any detail is invalid
+     */
+    public static void validate(String flightNumber, String origin, String destination,
+                                LocalDate departureDate, int capacity, double basePrice) {
         if (flightNumber == null || flightNumber.isBlank()) {
             throw new IllegalArgumentException("Flight number cannot be empty.");
         }
@@ -58,14 +92,6 @@ public class Flight {
         if (basePrice < 0) {
             throw new IllegalArgumentException("Base price cannot be negative.");
         }
-
-        this.id = id;
-        this.flightNumber = flightNumber;
-        this.origin = origin;
-        this.destination = destination;
-        this.departureDate = departureDate;
-        this.capacity = capacity;
-        this.basePrice = basePrice;
     }
 
     /**
@@ -88,7 +114,11 @@ public class Flight {
         if (flightNumber == null || flightNumber.isBlank()) {
             throw new IllegalArgumentException("Flight number cannot be empty.");
         }
+        if (system != null) {
+            system.reindexFlight(this, flightNumber, departureDate);
+        }
         this.flightNumber = flightNumber;
+        markChanged(DataSet.FLIGHTS);
     }
 
     public String getOrigin() {
@@ -99,7 +129,11 @@ public class Flight {
         if (origin == null || origin.isBlank()) {
             throw new IllegalArgumentException("Origin cannot be empty.");
         }
+        if (system != null) {
+            system.reindexRoute(this, origin, destination, departureDate);
+        }
         this.origin = origin;
+        markChanged(DataSet.FLIGHTS);
     }
 
     public String getDestination() {
@@ -110,7 +144,11 @@ public class Flight {
         if (destination == null || destination.isBlank()) {
             throw new IllegalArgumentException("Destination cannot be empty.");
         }
+        if (system != null) {
+            system.reindexRoute(this, origin, destination, departureDate);
+        }
         this.destination = destination;
+        markChanged(DataSet.FLIGHTS);
     }
 
     public LocalDate getDepartureDate() {
@@ -121,7 +159,12 @@ public class Flight {
         if (departureDate == null) {
             throw new IllegalArgumentException("Departure date cannot be null.");
         }
+        if (system != null) {
+            system.reindexFlight(this, flightNumber, departureDate);
+            system.reindexRoute(this, origin, destination, departureDate);
+        }
         this.departureDate = departureDate;
+        markChanged(DataSet.FLIGHTS);
     }
 
     /**
@@ -141,6 +184,7 @@ public class Flight {
             throw new IllegalArgumentException("Capacity cannot be negative.");
         }
         this.capacity = capacity;
+        markChanged(DataSet.FLIGHTS);
     }
 
     /**
@@ -162,6 +206,10 @@ public class Flight {
      */
     public void deactivate() {
         this.deleted = true;
+        if (system != null) {
+            system.flightActivityChanged(this, false);
+        }
+        markChanged(DataSet.FLIGHTS);
     }
 
     /**
@@ -169,6 +217,10 @@ public class Flight {
      */
     public void reactivate() {
         this.deleted = false;
+        if (system != null) {
+            system.flightActivityChanged(this, true);
+        }
+        markChanged(DataSet.FLIGHTS);
     }
 
     /**
@@ -181,15 +233,70 @@ public class Flight {
             throw new IllegalArgumentException("Base price cannot be negative.");
         }
         this.basePrice = basePrice;
+        markChanged(DataSet.FLIGHTS);
     }
 
     /**
      * Returns current passengers as a list copy.
+     * Use {@link #getPassengerView()} or {@link #seatsTaken()} when a copy is not needed.
      */
     public ArrayList<Customer> getPassengers() {
         return new ArrayList<>(passengers);
     }
 
+    /**
+     * Returns a read-only view of the current passengers, which reflects later
+     * bookings and cancellations without copying.
+     *
+     * @return unmodifiable view of the passengers
+     */
+    public Set<Customer> getPassengerView() {
+        return passengerView;
+    }
+
+    /**
+     * Returns the number of booked seats.
+     *
+     * @return seats taken by current passengers
+     */
+    public int seatsTaken() {
+        return seatsTaken.get();
+    }
+
+    /**
+     * Returns the number of seats still available.
+     * A capacity of 0 means the flight has no seat limit.
+     *
+     * @return free seats, or Integer.MAX_VALUE if there is no seat limit
+     */
+    public int seatsRemaining() {
+        if (capacity <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        return Math.max(0, capacity - seatsTaken.get());
+    }
+
+    /**
+     * Indicates whether every seat is booked.
+     *
+     * @return true if the flight has a seat limit and no seats remain
+     */
+    public boolean isFull() {
+        return capacity > 0 && seatsTaken.get() >= capacity;
+    }
+
+    /**
+     * Returns the share of seats that are booked, used for seat-based pricing.
+     *
+     * @return seats taken divided by capacity, or 0 if there is no seat limit
+     */
+    public double occupancyRate() {
+        if (capacity <= 0) {
+            return 0.0;
+        }
+        return (double) seatsTaken.get() / capacity;
+    }
+
     public String getDetailsShort() {
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
         return "Flight #" + id + " - " + flightNumber + " - " + origin + " to "
@@ -227,7 +334,54 @@ public class Flight {
     }
 
     /**
-     * Adds a passenger to this flight.
+     * Claims a seat without locking. Fails once every seat is taken, however many
+     * threads race for the last one. The caller must then either add its passenger
+     * with {@link #addReservedPassenger(Customer)} or give the seat back with
+     * {@link #releaseSeat()}.
+     *
+     * @return true if a seat was claimed, false if the flight is full
+     */
+    public boolean tryReserveSeat() {
+        while (true) {
+            int taken = seatsTaken.get();
+            if (capacity > 0 && taken >= capacity) {
+                return false;
+            }
+            if (seatsTaken.compareAndSet(taken, taken + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back a seat claimed with {@link #tryReserveSeat()} that will not be used.
+     */
+    public void releaseSeat() {
+        seatsTaken.decrementAndGet();
+    }
+
+    /**
+     * Adds the passenger for a seat claimed with {@link #tryReserveSeat()}.
+     * If the passenger is already on this flight the claimed seat is released.
+     *
+     * @param passenger the customer to add
+     * @throws FlightBookingSystemException if passenger already exists on this flight
+     */
+    public void addReservedPassenger(Customer passenger) throws FlightBookingSystemException {
+        if (passenger == null) {
+            releaseSeat();
+            throw new IllegalArgumentException("Passenger cannot be null.");
+        }
+        if (!passengers.add(passenger)) {
+            releaseSeat();
+            throw new FlightBookingSystemException("Passenger is already booked on this flight.");
+        }
+        markChanged(DataSet.BOOKINGS);
+    }
+
+    /**
+     * Adds a passenger to this flight without checking capacity,
+     * for example when rebuilding bookings from saved data.
      *
      * @param passenger the customer to add
      * @throws FlightBookingSystemException if passenger already exists on this flight
@@ -236,10 +390,11 @@ public class Flight {
         if (passenger == null) {
             throw new IllegalArgumentException("Passenger cannot be null.");
         }
-        if (passengers.contains(passenger)) {
+        if (!passengers.add(passenger)) {
             throw new FlightBookingSystemException("Passenger is already booked on this flight.");
         }
-        passengers.add(passenger);
+        seatsTaken.incrementAndGet();
+        markChanged(DataSet.BOOKINGS);
     }
 
     /**
@@ -252,9 +407,26 @@ public class Flight {
         if (passenger == null) {
             throw new IllegalArgumentException("Passenger cannot be null.");
         }
-        if (!passengers.contains(passenger)) {
+        if (!passengers.remove(passenger)) {
             throw new FlightBookingSystemException("Passenger is not booked on this flight.");
         }
-        passengers.remove(passenger);
+        seatsTaken.decrementAndGet();
+        markChanged(DataSet.BOOKINGS);
+    }
+
+    /**
+     * Attaches this flight to the system it was added to, which keeps its
+     * indexes and change tracking up to date when the flight is modified.
+     *
+     * @param system the owning system
+     */
+    void attach(FlightBookingSystem system) {
+        this.system = system;
+    }
+
+    private void markChanged(DataSet dataSet) {
+        if (system != null) {
+            system.getChanges().markChanged(dataSet);
+        }
     }
 }
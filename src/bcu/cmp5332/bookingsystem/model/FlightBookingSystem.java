@@ -1,24 +1,63 @@
 package bcu.cmp5332.bookingsystem.model;
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.pricing.FareTable;
+import bcu.cmp5332.bookingsystem.pricing.FeeEngine;
+import bcu.cmp5332.bookingsystem.pricing.PriceCache;
+import bcu.cmp5332.bookingsystem.pricing.PricingEngine;
+import bcu.cmp5332.bookingsystem.pricing.RuleTablePricing;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Represents the whole Flight Booking System.
  * Stores all flights and customers in memory.
+ *
+ * Flights and customers can be looked up while bookings run on other threads; the
+ * bookings themselves are serialized per customer and per flight through
+ * {@link #getBookingLocks()}. The lookup indexes (flight number and date, route,
+ * departure date, phone and name) are plain maps guarded by one read/write lock,
+ * so searches run in parallel and never see an index half way through a change.
  */
 public class FlightBookingSystem {
 
-    private LocalDate systemDate = LocalDate.parse("2024-11-11");
+    private volatile LocalDate systemDate = LocalDate.parse("2024-11-11");
 
-    private final Map<Integer, Customer> customers = new TreeMap<>();
-    private final Map<Integer, Flight> flights = new TreeMap<>();
+    private final Map<Integer, Customer> customers = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Flight> flights = new ConcurrentSkipListMap<>();
+    private final Map<FlightKey, Flight> flightsByNumberAndDate = new HashMap<>();
+
+    // Guards flightsByNumberAndDate, routes, activeFlights, customersPerPhone and customerNames
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    // Read-only live views handed out by getFlights/getCustomers
+    private final List<Flight> flightsView = new ValuesView<>(flights);
+    private final List<Customer> customersView = new ValuesView<>(customers);
+    private final RouteIndex routes = new RouteIndex();
+    // Only active flights, so listings of bookable flights skip deactivated ones without a scan
+    private final DepartureIndex activeFlights = new DepartureIndex();
+
+    // Phones are not unique in existing data, so the index counts customers per phone
+    private final Map<String, Integer> customersPerPhone = new HashMap<>();
+    private final CustomerNameIndex customerNames = new CustomerNameIndex();
+
+    private final IdSequence flightIds = new IdSequence();
+    private final IdSequence customerIds = new IdSequence();
+
+    private final ChangeTracker changes = new ChangeTracker();
+    private final BookingLocks bookingLocks = new BookingLocks();
+    private volatile PriceCache pricing = new PriceCache(RuleTablePricing.standard());
+    private volatile FeeEngine fees = FeeEngine.standard();
 
     /**
      * Returns the current system date.
@@ -39,35 +78,145 @@ public class FlightBookingSystem {
             throw new IllegalArgumentException("System date cannot be null.");
         }
         this.systemDate = systemDate;
+        pricing.invalidateAll();
+        changes.markChanged(DataSet.SYSTEM_DATE);
+    }
+
+    /**
+     * Returns the tracker recording which data sets changed since the last save.
+     *
+     * @return the change tracker
+     */
+    public ChangeTracker getChanges() {
+        return changes;
+    }
+
+    /**
+     * Returns the current price of the next seat on a flight, as a booking made now would pay.
+     *
+     * @param flight the flight
+     * @return the seat price on the current system date
+     */
+    public double quote(Flight flight) {
+        return pricing.price(flight, systemDate);
+    }
+
+    /**
+     * Returns the current seat price of every bookable flight, that is every active
+     * flight departing after the system date, computed in one pass.
+     *
+     * @return the prices of the future flights, in departure date order
+     */
+    public FareTable quoteFutureFlights() {
+        LocalDate today = systemDate;
+        return FareTable.quote(getFutureFlights(today), today, pricing.getEngine());
+    }
+
+    /**
+     * Returns the current seat price of each flight in a list, computed in one pass.
+     *
+     * @param flights the flights to price
+     * @return the prices, in the order of the list
+     */
+    public FareTable quoteFlights(List<Flight> flights) {
+        return FareTable.quote(flights, systemDate, pricing.getEngine());
+    }
+
+    /**
+     * Returns the cached pricing used for quotes and bookings.
+     *
+     * @return the price cache
+     */
+    public PriceCache getPricing() {
+        return pricing;
+    }
+
+    /**
+     * Replaces the pricing engine used for quotes and bookings.
+     *
+     * @param engine the new pricing engine
+     */
+    public void setPricingEngine(PricingEngine engine) {
+        this.pricing = new PriceCache(engine);
+    }
+
+    /**
+     * Returns the fee engine used for cancellations and rebookings.
+     *
+     * @return the fee engine
+     */
+    public FeeEngine getFees() {
+        return fees;
+    }
+
+    /**
+     * Replaces the fee engine used for cancellations and rebookings.
+     *
+     * @param fees the new fee engine
+     */
+    public void setFees(FeeEngine fees) {
+        if (fees == null) {
+            throw new IllegalArgumentException("Fee engine cannot be null.");
+        }
+        this.fees = fees;
     }
 
     /**
-     * Returns an unmodifiable list of all flights in the system.
+     * Returns the sequence new flight ids are taken from.
      *
-     * @return list of flights
+     * @return the flight id sequence
+     */
+    public IdSequence getFlightIds() {
+        return flightIds;
+    }
+
+    /**
+     * Returns the sequence new customer ids are taken from.
+     *
+     * @return the customer id sequence
+     */
+    public IdSequence getCustomerIds() {
+        return customerIds;
+    }
+
+    /**
+     * Returns the locks that booking commands hold while they change bookings.
+     *
+     * @return the booking locks
+     */
+    public BookingLocks getBookingLocks() {
+        return bookingLocks;
+    }
+
+    /**
+     * Returns a read-only live list view of all flights in the system, in id order.
+     * The view is shared and costs nothing to obtain. It may be iterated while other
+     * threads add flights; the iteration then may or may not include them, so callers
+     * that need a fixed set (for example to write a count and then the flights) copy it once.
+     * Indexed access walks the flights, so callers that read many positions copy it first.
+     *
+     * @return view of the flights
      */
     public List<Flight> getFlights() {
-        List<Flight> out = new ArrayList<>(flights.values());
-        return Collections.unmodifiableList(out);
+        return flightsView;
     }
 
     /**
      * Returns only future flights (departing after systemDate) that are active.
-     * Used by customers to see bookable flights only.
+     * Used by customers to see bookable flights only. The flights are read from
+     * a departure date index and returned as a read-only view of it, so nothing is copied.
+     * Like {@link #getFlights()}, the view may reflect changes made while it is iterated.
      *
      * @param systemDate the current system date
-     * @return list of future flights
-     */
-    public List<Flight> getFutureFlights(LocalDate systemDate) {
-        List<Flight> future = new ArrayList<>();
-        
-        for (Flight flight : flights.values()) {
-            if (flight.isActive() && flight.getDepartureDate().isAfter(systemDate)) {
-                future.add(flight);
-            }
+     * @return view of the future flights, ordered by departure date, then id
+     */
+    public Collection<Flight> getFutureFlights(LocalDate systemDate) {
+        indexLock.readLock().lock();
+        try {
+            return activeFlights.between(systemDate.plusDays(1), null);
+        } finally {
+            indexLock.readLock().unlock();
         }
-        
-        return Collections.unmodifiableList(future);
     }
 
     /**
@@ -78,20 +227,21 @@ public class FlightBookingSystem {
      * @throws FlightBookingSystemException if not found
      */
     public Flight getFlightByID(int id) throws FlightBookingSystemException {
-        if (!flights.containsKey(id)) {
+        Flight flight = flights.get(id);
+        if (flight == null) {
             throw new FlightBookingSystemException("There is no flight with that ID.");
         }
-        return flights.get(id);
+        return flight;
     }
 
     /**
-     * Returns an unmodifiable list of all customers.
+     * Returns a read-only live list view of all customers, in id order.
+     * Like {@link #getFlights()}, the view is shared and costs nothing to obtain.
      *
-     * @return customers list
+     * @return view of the customers
      */
     public List<Customer> getCustomers() {
-        List<Customer> out = new ArrayList<>(customers.values());
-        return Collections.unmodifiableList(out);
+        return customersView;
     }
 
     /**
@@ -102,10 +252,11 @@ public class FlightBookingSystem {
      * @throws FlightBookingSystemException if not found
      */
     public Customer getCustomerByID(int id) throws FlightBookingSystemException {
-        if (!customers.containsKey(id)) {
+        Customer customer = customers.get(id);
+        if (customer == null) {
             throw new FlightBookingSystemException("There is no customer with that ID.");
         }
-        return customers.get(id);
+        return customer;
     }
 
     /**
@@ -120,19 +271,182 @@ public class FlightBookingSystem {
             throw new IllegalArgumentException("Flight cannot be null.");
         }
 
-        if (flights.containsKey(flight.getId())) {
-            throw new IllegalArgumentException("Duplicate flight ID.");
-        }
+        indexLock.writeLock().lock();
+        try {
+            if (flights.containsKey(flight.getId())) {
+                throw new IllegalArgumentException("Duplicate flight ID.");
+            }
 
-        for (Flight existing : flights.values()) {
-            if (existing.getFlightNumber().equals(flight.getFlightNumber())
-                    && existing.getDepartureDate().isEqual(flight.getDepartureDate())) {
+            FlightKey key = new FlightKey(flight.getFlightNumber(), flight.getDepartureDate());
+            if (flightsByNumberAndDate.containsKey(key)) {
                 throw new FlightBookingSystemException(
                         "There is a flight with same number and departure date in the system");
             }
+
+            flights.put(flight.getId(), flight);
+            flightIds.observe(flight.getId());
+            flightsByNumberAndDate.put(key, flight);
+            routes.add(flight, flight.getOrigin(), flight.getDestination(), flight.getDepartureDate());
+            if (flight.isActive()) {
+                activeFlights.add(flight, flight.getDepartureDate());
+            }
+            flight.attach(this);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        changes.markChanged(DataSet.FLIGHTS);
+    }
+
+    /**
+     * Removes a flight again, to undo adding it when the change it was part of fails.
+     * Flights that were saved are never removed, only deactivated.
+     *
+     * @param flight the flight to remove
+     */
+    public void removeFlight(Flight flight) {
+        indexLock.writeLock().lock();
+        try {
+            if (flights.get(flight.getId()) != flight) {
+                return;
+            }
+            flights.remove(flight.getId());
+            flightsByNumberAndDate.remove(new FlightKey(flight.getFlightNumber(), flight.getDepartureDate()));
+            routes.remove(flight, flight.getOrigin(), flight.getDestination(), flight.getDepartureDate());
+            if (flight.isActive()) {
+                activeFlights.remove(flight, flight.getDepartureDate());
+            }
+            flight.attach(null);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        changes.markChanged(DataSet.FLIGHTS);
+    }
+
+    /**
+     * Finds the flight with the given number departing on the given date.
+     *
+     * @param flightNumber the flight number
+     * @param departureDate the departure date
+     * @return the matching flight, or null if there is none
+     */
+    public Flight findFlight(String flightNumber, LocalDate departureDate) {
+        if (flightNumber == null || departureDate == null) {
+            return null;
+        }
+        indexLock.readLock().lock();
+        try {
+            return flightsByNumberAndDate.get(new FlightKey(flightNumber, departureDate));
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a flight in the number/date index before its number or date changes.
+     *
+     * @param flight the flight being changed
+     * @param flightNumber the new flight number
+     * @param departureDate the new departure date
+     * @throws IllegalArgumentException if another flight already has that number and date
+     */
+    void reindexFlight(Flight flight, String flightNumber, LocalDate departureDate) {
+        FlightKey newKey = new FlightKey(flightNumber, departureDate);
+        indexLock.writeLock().lock();
+        try {
+            Flight existing = flightsByNumberAndDate.get(newKey);
+            if (existing == flight) {
+                return;
+            }
+            if (existing != null) {
+                throw new IllegalArgumentException(
+                        "There is a flight with same number and departure date in the system");
+            }
+
+            flightsByNumberAndDate.remove(new FlightKey(flight.getFlightNumber(), flight.getDepartureDate()));
+            flightsByNumberAndDate.put(newKey, flight);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the flights from an origin to a destination departing within a date range.
+     * Origin and destination are matched ignoring case; inactive flights are included.
+     *
+     * @param origin the origin
+     * @param destination the destination
+     * @param from the first departure date, inclusive, or null for no lower bound
+     * @param to the last departure date, inclusive, or null for no upper bound
+     * @return read-only view of the matching flights ordered by departure date, then id
+     */
+    public Collection<Flight> findFlightsByRoute(String origin, String destination, LocalDate from, LocalDate to) {
+        indexLock.readLock().lock();
+        try {
+            return routes.search(origin, destination, from, to);
+        } finally {
+            indexLock.readLock().unlock();
         }
+    }
+
+    /**
+     * Returns the flights leaving an origin within a date range, whatever their destination.
+     * The origin is matched ignoring case; inactive flights are included.
+     *
+     * @param origin the origin
+     * @param from the first departure date, inclusive, or null for no lower bound
+     * @param to the last departure date, inclusive, or null for no upper bound
+     * @return read-only view of the matching flights ordered by departure date, then id
+     */
+    public Collection<Flight> findFlightsFrom(String origin, LocalDate from, LocalDate to) {
+        indexLock.readLock().lock();
+        try {
+            return routes.departures(origin, from, to);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a flight in the route and departure date indexes before its origin, destination
+     * or departure date changes.
+     *
+     * @param flight the flight being changed
+     * @param origin the new origin
+     * @param destination the new destination
+     * @param departureDate the new departure date
+     */
+    void reindexRoute(Flight flight, String origin, String destination, LocalDate departureDate) {
+        indexLock.writeLock().lock();
+        try {
+            routes.remove(flight, flight.getOrigin(), flight.getDestination(), flight.getDepartureDate());
+            routes.add(flight, origin, destination, departureDate);
+            if (flight.isActive()) {
+                activeFlights.remove(flight, flight.getDepartureDate());
+                activeFlights.add(flight, departureDate);
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
 
-        flights.put(flight.getId(), flight);
+    /**
+     * Adds a flight to or removes it from the active flight index when it is
+     * reactivated or deactivated.
+     *
+     * @param flight the flight
+     * @param active whether the flight is now active
+     */
+    void flightActivityChanged(Flight flight, boolean active) {
+        indexLock.writeLock().lock();
+        try {
+            if (active) {
+                activeFlights.add(flight, flight.getDepartureDate());
+            } else {
+                activeFlights.remove(flight, flight.getDepartureDate());
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
     }
 
     /**
@@ -146,11 +460,43 @@ public class FlightBookingSystem {
             throw new IllegalArgumentException("Customer cannot be null.");
         }
 
-        if (customers.containsKey(customer.getId())) {
-            throw new IllegalArgumentException("Duplicate customer ID.");
+        indexLock.writeLock().lock();
+        try {
+            if (customers.containsKey(customer.getId())) {
+                throw new IllegalArgumentException("Duplicate customer ID.");
+            }
+
+            customers.put(customer.getId(), customer);
+            customerIds.observe(customer.getId());
+            addPhone(customer.getPhone());
+            customerNames.add(customer, customer.getName());
+            customer.attach(this);
+        } finally {
+            indexLock.writeLock().unlock();
         }
+        changes.markChanged(DataSet.CUSTOMERS);
+    }
 
-        customers.put(customer.getId(), customer);
+    /**
+     * Removes a customer again, to undo adding it when the change it was part of fails.
+     * Customers that were saved are never removed, only deactivated.
+     *
+     * @param customer the customer to remove
+     */
+    public void removeCustomer(Customer customer) {
+        indexLock.writeLock().lock();
+        try {
+            if (customers.get(customer.getId()) != customer) {
+                return;
+            }
+            customers.remove(customer.getId());
+            removePhone(customer.getPhone());
+            customerNames.remove(customer, customer.getName());
+            customer.attach(null);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        changes.markChanged(DataSet.CUSTOMERS);
     }
 
     /**
@@ -160,15 +506,163 @@ public class FlightBookingSystem {
      * @return true if phone exists, false otherwise
      */
     public boolean phoneExists(String phone) {
-        if (phone == null || phone.trim().isEmpty()) {
+        String key = normalizePhone(phone);
+        if (key.isEmpty()) {
             return false;
         }
+        indexLock.readLock().lock();
+        try {
+            return customersPerPhone.containsKey(key);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
 
-        for (Customer customer : customers.values()) {
-            if (customer.getPhone().equals(phone.trim())) {
-                return true;
+    /**
+     * Returns the customers whose name matches a partial name, ignoring case.
+     * Three or more characters match anywhere in the name; shorter input
+     * matches the start of any word in the name.
+     *
+     * @param partialName part of a customer name
+     * @return matching customers ordered by id
+     */
+    public List<Customer> findCustomersByName(String partialName) {
+        indexLock.readLock().lock();
+        try {
+            return Collections.unmodifiableList(customerNames.search(partialName));
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the name index before a customer's name changes.
+     *
+     * @param customer the customer being renamed
+     * @param oldName the current name
+     * @param newName the new name
+     */
+    void reindexCustomerName(Customer customer, String oldName, String newName) {
+        indexLock.writeLock().lock();
+        try {
+            customerNames.remove(customer, oldName);
+            customerNames.add(customer, newName);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the phone index before a customer's phone number changes.
+     *
+     * @param oldPhone the current phone number
+     * @param newPhone the new phone number
+     */
+    void reindexCustomerPhone(String oldPhone, String newPhone) {
+        indexLock.writeLock().lock();
+        try {
+            removePhone(oldPhone);
+            addPhone(newPhone);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private void addPhone(String phone) {
+        String key = normalizePhone(phone);
+        if (!key.isEmpty()) {
+            customersPerPhone.merge(key, 1, Integer::sum);
+        }
+    }
+
+    private void removePhone(String phone) {
+        String key = normalizePhone(phone);
+        if (!key.isEmpty()) {
+            customersPerPhone.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    /**
+     * Reduces a phone number to its digits, so formatting does not matter.
+     */
+    private static String normalizePhone(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char ch = phone.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                digits.append(ch);
             }
         }
-        return false;
+        return digits.toString();
+    }
+
+    /**
+     * Read-only list view of the values of an id-ordered map. Iteration and size go
+     * straight to the map; get(index) walks to the position.
+     */
+    private static final class ValuesView<T> extends AbstractList<T> {
+        private final Collection<T> values;
+
+        ValuesView(Map<Integer, T> map) {
+            this.values = Collections.unmodifiableCollection(map.values());
+        }
+
+        @Override
+        public T get(int index) {
+            if (index >= 0) {
+                int i = 0;
+                for (T value : values) {
+                    if (i++ == index) {
+                        return value;
+                    }
+                }
+            }
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return values.iterator();
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return values.contains(o);
+        }
+    }
+
+    /**
+     * Key of the flight number/departure date index.
+     */
+    private static final class FlightKey {
+        private final String flightNumber;
+        private final long epochDay;
+
+        FlightKey(String flightNumber, LocalDate departureDate) {
+            this.flightNumber = flightNumber;
+            this.epochDay = departureDate.toEpochDay();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FlightKey)) {
+                return false;
+            }
+            FlightKey other = (FlightKey) o;
+            return epochDay == other.epochDay && flightNumber.equals(other.flightNumber);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * flightNumber.hashCode() + Long.hashCode(epochDay);
+        }
     }
 }
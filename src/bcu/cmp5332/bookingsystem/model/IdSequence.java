@@ -0,0 +1,56 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out increasing ids for one kind of entity.
+ *
+ * The sequence remembers the highest id it has handed out or seen. Loading existing
+ * data reports every id through {@link #observe(int)}, so a new id is never one that
+ * is already in use, even if earlier ids were skipped or duplicated. Safe for
+ * concurrent callers.
+ */
+public final class IdSequence {
+
+    private final AtomicInteger last = new AtomicInteger();
+
+    /**
+     * Returns a new id, one more than the highest id handed out or seen so far.
+     *
+     * @return the new id
+     */
+    public int next() {
+        return last.incrementAndGet();
+    }
+
+    /**
+     * Reserves a block of consecutive new ids in one step.
+     *
+     * @param count the number of ids to reserve (0 or more)
+     * @return the first id of the block; the block ends at {@code first + count - 1}
+     */
+    public int nextBlock(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Block size cannot be negative.");
+        }
+        return last.getAndAdd(count) + 1;
+    }
+
+    /**
+     * Records an id that is already in use, so it is never handed out.
+     *
+     * @param id the id in use
+     */
+    public void observe(int id) {
+        last.accumulateAndGet(id, Math::max);
+    }
+
+    /**
+     * Returns the highest id handed out or seen so far.
+     *
+     * @return the last id, or 0 if there is none
+     */
+    public int last() {
+        return last.get();
+    }
+}
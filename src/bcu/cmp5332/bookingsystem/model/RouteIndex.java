@@ -0,0 +1,112 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Index of flights by route for origin/destination searches.
+ *
+ * Each route (origin and destination, ignoring case) maps to its flights sorted by
+ * departure date and then id, so the flights of a route within a date range are found
+ * with one lookup and one sorted-map range. Flights are also indexed by origin alone,
+ * which gives the departures from an airport for connection searches.
+ *
+ * Searches return live views of a route's index, so an index is kept once created,
+ * even when its last flight leaves: a view taken earlier then still sees flights that
+ * come back to the route. A route that has never had a flight has no index yet, and a
+ * search on it returns an empty list that does not follow later additions.
+ */
+class RouteIndex {
+
+    private final Map<String, DepartureIndex> routes = new HashMap<>();
+    private final Map<String, DepartureIndex> origins = new HashMap<>();
+
+    /**
+     * Adds a flight under the given route and departure date.
+     *
+     * @param flight the flight
+     * @param origin the origin to index
+     * @param destination the destination to index
+     * @param departureDate the departure date to index
+     */
+    void add(Flight flight, String origin, String destination, LocalDate departureDate) {
+        routes.computeIfAbsent(routeKey(origin, destination), k -> new DepartureIndex())
+                .add(flight, departureDate);
+        origins.computeIfAbsent(airportKey(origin), k -> new DepartureIndex())
+                .add(flight, departureDate);
+    }
+
+    /**
+     * Removes a flight that was indexed under the given route and departure date.
+     *
+     * @param flight the flight
+     * @param origin the origin it was indexed under
+     * @param destination the destination it was indexed under
+     * @param departureDate the departure date it was indexed under
+     */
+    void remove(Flight flight, String origin, String destination, LocalDate departureDate) {
+        removeFrom(routes, routeKey(origin, destination), flight, departureDate);
+        removeFrom(origins, airportKey(origin), flight, departureDate);
+    }
+
+    /**
+     * Returns the flights of a route departing within a date range.
+     *
+     * @param origin the origin
+     * @param destination the destination
+     * @param from the first departure date, inclusive, or null for no lower bound
+     * @param to the last departure date, inclusive, or null for no upper bound
+     * @return a read-only view of the matching flights ordered by departure date, then id
+     */
+    Collection<Flight> search(String origin, String destination, LocalDate from, LocalDate to) {
+        if (origin == null || destination == null) {
+            return Collections.emptyList();
+        }
+        DepartureIndex byDate = routes.get(routeKey(origin, destination));
+        if (byDate == null) {
+            return Collections.emptyList();
+        }
+        return byDate.between(from, to);
+    }
+
+    /**
+     * Returns the flights leaving an airport within a date range.
+     *
+     * @param origin the origin
+     * @param from the first departure date, inclusive, or null for no lower bound
+     * @param to the last departure date, inclusive, or null for no upper bound
+     * @return a read-only view of the matching flights ordered by departure date, then id
+     */
+    Collection<Flight> departures(String origin, LocalDate from, LocalDate to) {
+        if (origin == null) {
+            return Collections.emptyList();
+        }
+        DepartureIndex byDate = origins.get(airportKey(origin));
+        if (byDate == null) {
+            return Collections.emptyList();
+        }
+        return byDate.between(from, to);
+    }
+
+    private static void removeFrom(Map<String, DepartureIndex> index, String key, Flight flight,
+                                   LocalDate departureDate) {
+        DepartureIndex byDate = index.get(key);
+        if (byDate == null) {
+            return;
+        }
+        // Kept even when emptied, so earlier views of it stay live
+        byDate.remove(flight, departureDate);
+    }
+
+    private static String routeKey(String origin, String destination) {
+        return airportKey(origin) + '\n' + airportKey(destination);
+    }
+
+    private static String airportKey(String airport) {
+        return airport.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,145 @@
+package bcu.cmp5332.bookingsystem.pricing;
+
+import bcu.cmp5332.bookingsystem.model.Flight;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Current seat prices of a list of flights, computed together in one pass.
+ *
+ * The figures the price depends on are first copied into primitive arrays, then the
+ * prices are computed over those arrays; large tables are split across the common
+ * fork/join pool. With a {@link RuleTablePricing} engine the pricing pass reads only
+ * the arrays, otherwise each flight is priced through the engine.
+ */
+public final class FareTable {
+
+    // Below this many flights, splitting the work costs more than it saves
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    private final Flight[] flights;
+    private final double[] prices;
+    private final LocalDate systemDate;
+
+    private FareTable(Flight[] flights, double[] prices, LocalDate systemDate) {
+        this.flights = flights;
+        this.prices = prices;
+        this.systemDate = systemDate;
+    }
+
+    /**
+     * Prices every flight in a collection.
+     *
+     * @param flights the flights to price; a live view is copied once
+     * @param systemDate the current system date
+     * @param engine the pricing engine
+     * @return the prices, in the iteration order of the collection
+     */
+    public static FareTable quote(Collection<Flight> flights, LocalDate systemDate, PricingEngine engine) {
+        Flight[] table = flights.toArray(new Flight[0]);
+        int n = table.length;
+        double[] prices = new double[n];
+
+        Pass pass;
+        if (engine instanceof RuleTablePricing) {
+            double[] basePrices = new double[n];
+            double[] occupancy = new double[n];
+            long[] days = new long[n];
+            long today = systemDate.toEpochDay();
+            for (int i = 0; i < n; i++) {
+                Flight f = table[i];
+                basePrices[i] = f.getBasePrice();
+                occupancy[i] = f.occupancyRate();
+                days[i] = f.getDepartureDate().toEpochDay() - today;
+            }
+            RuleTablePricing rules = (RuleTablePricing) engine;
+            pass = (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    prices[i] = rules.price(basePrices[i], occupancy[i], days[i]);
+                }
+            };
+        } else {
+            pass = (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    prices[i] = engine.price(table[i], systemDate);
+                }
+            };
+        }
+
+        if (n < PARALLEL_THRESHOLD) {
+            pass.run(0, n);
+        } else {
+            ForkJoinPool.commonPool().invoke(new Split(pass, 0, n));
+        }
+        return new FareTable(table, prices, systemDate);
+    }
+
+    /**
+     * Returns the number of flights in the table.
+     *
+     * @return the flight count
+     */
+    public int size() {
+        return flights.length;
+    }
+
+    /**
+     * Returns a flight of the table.
+     *
+     * @param index the row, from 0
+     * @return the flight
+     */
+    public Flight getFlight(int index) {
+        return flights[index];
+    }
+
+    /**
+     * Returns the price of a flight of the table.
+     *
+     * @param index the row, from 0
+     * @return the seat price
+     */
+    public double getPrice(int index) {
+        return prices[index];
+    }
+
+    /**
+     * Returns the system date the prices were computed for.
+     *
+     * @return the system date
+     */
+    public LocalDate getSystemDate() {
+        return systemDate;
+    }
+
+    private interface Pass {
+        void run(int from, int to);
+    }
+
+    private static final class Split extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Pass pass;
+        private final int from;
+        private final int to;
+
+        Split(Pass pass, int from, int to) {
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                pass.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Split(pass, from, mid), new Split(pass, mid, to));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package bcu.cmp5332.bookingsystem.pricing;
+
+/**
+ * Calculates cancellation and rebooking fees and the refunds that follow from them.
+ * Each fee is a percentage of the booking price with a minimum amount.
+ */
+public class FeeEngine {
+
+    private final double cancelRate;
+    private final double cancelMinimum;
+    private final double rebookRate;
+    private final double rebookMinimum;
+
+    /**
+     * Creates a fee engine.
+     *
+     * @param cancelRate share of the booking price charged on cancellation
+     * @param cancelMinimum smallest cancellation fee
+     * @param rebookRate share of the old booking price charged on rebooking
+     * @param rebookMinimum smallest rebooking fee
+     */
+    public FeeEngine(double cancelRate, double cancelMinimum, double rebookRate, double rebookMinimum) {
+        if (cancelRate < 0 || cancelMinimum < 0 || rebookRate < 0 || rebookMinimum < 0) {
+            throw new IllegalArgumentException("Fees cannot be negative.");
+        }
+        this.cancelRate = cancelRate;
+        this.cancelMinimum = cancelMinimum;
+        this.rebookRate = rebookRate;
+        this.rebookMinimum = rebookMinimum;
+    }
+
+    /**
+     * Returns the standard fees: 10% (minimum $5) to cancel and 5% (minimum $2) to rebook.
+     *
+     * @return the standard fee engine
+     */
+    public static FeeEngine standard() {
+        return new FeeEngine(0.10, 5.0, 0.05, 2.0);
+    }
+
+    /**
+     * Returns the fee for cancelling a booking.
+     *
+     * @param bookingPrice the price paid for the booking
+     * @return the cancellation fee
+     */
+    public double cancellationFee(double bookingPrice) {
+        return Math.max(bookingPrice * cancelRate, cancelMinimum);
+    }
+
+    /**
+     * Returns the fee for moving a booking to another flight.
+     *
+     * @param bookingPrice the price paid for the old booking
+     * @return the rebooking fee
+     */
+    public double rebookingFee(double bookingPrice) {
+        return Math.max(bookingPrice * rebookRate, rebookMinimum);
+    }
+
+    /**
+     * Returns what is left of a booking price after a fee, never less than zero.
+     *
+     * @param bookingPrice the price paid for the booking
+     * @param fee the fee kept
+     * @return the amount given back
+     */
+    public double refundAfter(double bookingPrice, double fee) {
+        return Math.max(bookingPrice - fee, 0.0);
+    }
+
+    /**
+     * Returns the rebooking rate as a percentage, for messages.
+     *
+     * @return the rebooking percentage
+     */
+    public double getRebookPercent() {
+        return rebookRate * 100;
+    }
+
+    /**
+     * Returns the smallest rebooking fee, for messages.
+     *
+     * @return the minimum rebooking fee
+     */
+    public double getRebookMinimum() {
+        return rebookMinimum;
+    }
+}
@@ -0,0 +1,102 @@
+package bcu.cmp5332.bookingsystem.pricing;
+
+import bcu.cmp5332.bookingsystem.model.Flight;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the last computed price of each flight so repeated quotes, for example a
+ * screen of live fares, do not recompute unchanged prices.
+ *
+ * Each cached price remembers the seat count, capacity, base price, departure date and
+ * system date it was computed for, and is recomputed as soon as any of them changes. Changing the
+ * system date also clears the whole cache through {@link #invalidateAll()}.
+ */
+public class PriceCache implements PricingEngine {
+
+    private static final class Entry {
+        final int seatsTaken;
+        final int capacity;
+        final double basePrice;
+        final LocalDate departureDate;
+        final long epochDay;
+        final double price;
+
+        Entry(int seatsTaken, int capacity, double basePrice, LocalDate departureDate, long epochDay, double price) {
+            this.seatsTaken = seatsTaken;
+            this.capacity = capacity;
+            this.basePrice = basePrice;
+            this.departureDate = departureDate;
+            this.epochDay = epochDay;
+            this.price = price;
+        }
+
+        boolean isFor(Flight flight, long day) {
+            return seatsTaken == flight.seatsTaken()
+                    && capacity == flight.getCapacity()
+                    && basePrice == flight.getBasePrice()
+                    && departureDate.equals(flight.getDepartureDate())
+                    && epochDay == day;
+        }
+    }
+
+    private final PricingEngine engine;
+    private final Map<Integer, Entry> prices = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a cache in front of a pricing engine.
+     *
+     * @param engine the engine that computes prices
+     */
+    public PriceCache(PricingEngine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Pricing engine cannot be null.");
+        }
+        this.engine = engine;
+    }
+
+    /**
+     * Returns the engine behind this cache.
+     *
+     * @return the pricing engine
+     */
+    public PricingEngine getEngine() {
+        return engine;
+    }
+
+    @Override
+    public double price(Flight flight, LocalDate systemDate) {
+        long day = systemDate.toEpochDay();
+        Entry entry = prices.get(flight.getId());
+        if (entry != null && entry.isFor(flight, day)) {
+            return entry.price;
+        }
+
+        // Read the figures before pricing: if a seat is taken meanwhile, the entry fails its next check
+        int seatsTaken = flight.seatsTaken();
+        int capacity = flight.getCapacity();
+        double basePrice = flight.getBasePrice();
+        LocalDate departureDate = flight.getDepartureDate();
+        double price = engine.price(flight, systemDate);
+        prices.put(flight.getId(), new Entry(seatsTaken, capacity, basePrice, departureDate, day, price));
+        return price;
+    }
+
+    /**
+     * Drops the cached price of one flight.
+     *
+     * @param flight the flight
+     */
+    public void invalidate(Flight flight) {
+        prices.remove(flight.getId());
+    }
+
+    /**
+     * Drops every cached price.
+     */
+    public void invalidateAll() {
+        prices.clear();
+    }
+}
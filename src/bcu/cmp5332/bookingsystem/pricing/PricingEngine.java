@@ -0,0 +1,21 @@
+package bcu.cmp5332.bookingsystem.pricing;
+
+import bcu.cmp5332.bookingsystem.model.Flight;
+
+import java.time.LocalDate;
+
+/**
+ * Calculates the current price of a seat on a flight.
+ * Implementations must be safe to call from several threads at once.
+ */
+public interface PricingEngine {
+
+    /**
+     * Returns the price of the next seat on a flight.
+     *
+     * @param flight the flight
+     * @param systemDate the current system date
+     * @return the seat price
+     */
+    double price(Flight flight, LocalDate systemDate);
+}
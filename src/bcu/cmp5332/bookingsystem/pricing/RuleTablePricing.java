@@ -0,0 +1,80 @@
+package bcu.cmp5332.bookingsystem.pricing;
+
+import bcu.cmp5332.bookingsystem.model.Flight;
+
+import java.time.LocalDate;
+
+/**
+ * Prices seats from two tables of surcharges: one by seat occupancy and one by days to
+ * departure. In each table the first matching tier applies, and the two surcharges are
+ * multiplied onto the flight's base price.
+ */
+public class RuleTablePricing implements PricingEngine {
+
+    private final double[] occupancyFrom;
+    private final double[] occupancyFactor;
+    private final long[] daysUpTo;
+    private final double[] daysFactor;
+
+    /**
+     * Creates an engine from surcharge tables. Tiers are checked in the given order.
+     *
+     * @param occupancyFrom minimum occupancy rate (0 to 1) of each occupancy tier
+     * @param occupancyFactor price factor of each occupancy tier
+     * @param daysUpTo maximum days to departure of each date tier
+     * @param daysFactor price factor of each date tier
+     */
+    public RuleTablePricing(double[] occupancyFrom, double[] occupancyFactor,
+                            long[] daysUpTo, double[] daysFactor) {
+        if (occupancyFrom.length != occupancyFactor.length || daysUpTo.length != daysFactor.length) {
+            throw new IllegalArgumentException("Every pricing tier needs a factor.");
+        }
+        this.occupancyFrom = occupancyFrom.clone();
+        this.occupancyFactor = occupancyFactor.clone();
+        this.daysUpTo = daysUpTo.clone();
+        this.daysFactor = daysFactor.clone();
+    }
+
+    /**
+     * Returns the standard pricing: +20% from 80% occupancy, +10% from 50% occupancy,
+     * +30% within 7 days of departure and +15% within 30 days.
+     *
+     * @return the standard rule table
+     */
+    public static RuleTablePricing standard() {
+        return new RuleTablePricing(
+                new double[]{0.8, 0.5}, new double[]{1.20, 1.10},
+                new long[]{7, 30}, new double[]{1.30, 1.15});
+    }
+
+    @Override
+    public double price(Flight flight, LocalDate systemDate) {
+        long daysToDeparture = flight.getDepartureDate().toEpochDay() - systemDate.toEpochDay();
+        return price(flight.getBasePrice(), flight.occupancyRate(), daysToDeparture);
+    }
+
+    /**
+     * Applies the rule tables to raw flight figures.
+     *
+     * @param basePrice the flight's base price
+     * @param occupancyRate booked seats divided by capacity
+     * @param daysToDeparture days from the system date to departure
+     * @return the seat price
+     */
+    public double price(double basePrice, double occupancyRate, long daysToDeparture) {
+        double price = basePrice;
+        for (int i = 0; i < occupancyFrom.length; i++) {
+            if (occupancyRate >= occupancyFrom[i]) {
+                price = price * occupancyFactor[i];
+                break;
+            }
+        }
+        for (int i = 0; i < daysUpTo.length; i++) {
+            if (daysToDeparture <= daysUpTo[i]) {
+                price = price * daysFactor[i];
+                break;
+            }
+        }
+        return price;
+    }
+}
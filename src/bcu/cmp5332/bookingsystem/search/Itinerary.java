@@ -0,0 +1,109 @@
+package bcu.cmp5332.bookingsystem.search;
+
+import bcu.cmp5332.bookingsystem.model.Flight;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * A journey of one or more connecting flights, with the price of each leg at the
+ * time it was found.
+ */
+public class Itinerary {
+
+    private final List<Flight> legs;
+    private final double[] prices;
+    private final double totalPrice;
+
+    /**
+     * Creates an itinerary.
+     *
+     * @param legs the flights in travel order
+     * @param prices the price of each leg, in the same order
+     */
+    Itinerary(List<Flight> legs, double[] prices) {
+        this.legs = List.copyOf(legs);
+        this.prices = prices;
+        double total = 0;
+        for (double price : prices) {
+            total += price;
+        }
+        this.totalPrice = total;
+    }
+
+    /**
+     * Returns the flights of the itinerary in travel order.
+     *
+     * @return an unmodifiable list of legs
+     */
+    public List<Flight> getLegs() {
+        return legs;
+    }
+
+    /**
+     * Returns the price of one leg.
+     *
+     * @param index the leg, from 0
+     * @return the leg's seat price
+     */
+    public double getPrice(int index) {
+        return prices[index];
+    }
+
+    /**
+     * Returns the sum of the leg prices.
+     *
+     * @return the total price
+     */
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public LocalDate getDepartureDate() {
+        return legs.get(0).getDepartureDate();
+    }
+
+    public LocalDate getArrivalDate() {
+        return legs.get(legs.size() - 1).getDepartureDate();
+    }
+
+    /**
+     * Returns the days from the first departure to the last.
+     *
+     * @return the journey length in days
+     */
+    public long getDurationDays() {
+        return ChronoUnit.DAYS.between(getDepartureDate(), getArrivalDate());
+    }
+
+    /**
+     * Returns a one-line summary: the airports visited, dates, leg count and total price.
+     *
+     * @return the summary
+     */
+    public String getDetailsShort() {
+        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        StringBuilder route = new StringBuilder(legs.get(0).getOrigin());
+        for (Flight leg : legs) {
+            route.append(" -> ").append(leg.getDestination());
+        }
+        return route + " | " + getDepartureDate().format(dtf) + " - " + getArrivalDate().format(dtf)
+                + " | " + legs.size() + " leg(s) | Price: " + String.format("%.2f", totalPrice);
+    }
+
+    /**
+     * Returns the summary followed by one line per leg with its price.
+     *
+     * @return the long details
+     */
+    public String getDetailsLong() {
+        StringBuilder sb = new StringBuilder(getDetailsShort());
+        for (int i = 0; i < legs.size(); i++) {
+            sb.append("\n  ").append(legs.get(i).getDetailsShort())
+                    .append(" | Price: ").append(String.format("%.2f", prices[i]));
+        }
+        return sb.toString();
+    }
+}
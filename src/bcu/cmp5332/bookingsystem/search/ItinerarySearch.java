@@ -0,0 +1,248 @@
+package bcu.cmp5332.bookingsystem.search;
+
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Finds journeys between two airports, including ones with connections.
+ *
+ * The search is best-first over partial journeys, ordered by total price or by
+ * length in days. Leg prices only add up and dates only move forward, so complete
+ * journeys reach the destination in order and the first K found are the K best.
+ * Only active, bookable flights with a free seat are used, each priced with the
+ * system's current pricing rules.
+ *
+ * Memory is bounded two ways: journeys with the same number of legs are extended from
+ * each airport on each day at most K times, since any further such arrival there has
+ * the same legs left and can only lead to worse journeys, and the queue of partial
+ * journeys is capped at {@link #getMaxFrontier()} entries. A cheaper arrival with more
+ * legs does not use up the allowance of one with fewer, which may still reach further.
+ */
+public class ItinerarySearch {
+
+    /**
+     * How journeys are ranked.
+     */
+    public enum Order {
+        /** Lowest total price first, then fewest days, then fewest legs. */
+        CHEAPEST,
+        /** Fewest days first, then fewest legs, then lowest total price. */
+        SHORTEST
+    }
+
+    private final FlightBookingSystem fbs;
+    private int maxLegs = 3;
+    private int minLayoverDays = 0;
+    private int maxLayoverDays = 2;
+    private int maxFrontier = 100_000;
+
+    /**
+     * Creates a search over the flights of a system.
+     *
+     * @param fbs the flight booking system
+     */
+    public ItinerarySearch(FlightBookingSystem fbs) {
+        if (fbs == null) {
+            throw new IllegalArgumentException("Flight booking system cannot be null.");
+        }
+        this.fbs = fbs;
+    }
+
+    public int getMaxLegs() {
+        return maxLegs;
+    }
+
+    /**
+     * Sets the largest number of flights in one journey.
+     *
+     * @param maxLegs the leg limit (must be 1 or more)
+     */
+    public void setMaxLegs(int maxLegs) {
+        if (maxLegs < 1) {
+            throw new IllegalArgumentException("A journey needs at least one leg.");
+        }
+        this.maxLegs = maxLegs;
+    }
+
+    public int getMinLayoverDays() {
+        return minLayoverDays;
+    }
+
+    public int getMaxLayoverDays() {
+        return maxLayoverDays;
+    }
+
+    /**
+     * Sets how many days a connection may wait between flights. With 0 as the minimum,
+     * a connecting flight may leave on the day the previous one arrives.
+     *
+     * @param minLayoverDays the shortest wait in days (0 or more)
+     * @param maxLayoverDays the longest wait in days (at least the minimum)
+     */
+    public void setLayoverDays(int minLayoverDays, int maxLayoverDays) {
+        if (minLayoverDays < 0 || maxLayoverDays < minLayoverDays) {
+            throw new IllegalArgumentException("Invalid layover range.");
+        }
+        this.minLayoverDays = minLayoverDays;
+        this.maxLayoverDays = maxLayoverDays;
+    }
+
+    public int getMaxFrontier() {
+        return maxFrontier;
+    }
+
+    /**
+     * Sets how many partial journeys may wait in the queue. Once the queue is full,
+     * further extensions are dropped, so a very broad search may miss some results.
+     *
+     * @param maxFrontier the queue limit (must be 1 or more)
+     */
+    public void setMaxFrontier(int maxFrontier) {
+        if (maxFrontier < 1) {
+            throw new IllegalArgumentException("Frontier size must be at least 1.");
+        }
+        this.maxFrontier = maxFrontier;
+    }
+
+    /**
+     * Returns up to {@code limit} journeys from an origin to a destination whose first
+     * flight departs within a date range.
+     *
+     * @param origin the origin
+     * @param destination the destination
+     * @param from the first date the journey may start, inclusive
+     * @param to the last date the journey may start, inclusive
+     * @param limit the largest number of journeys to return
+     * @param order how journeys are ranked
+     * @return the best journeys, best first
+     */
+    public List<Itinerary> search(String origin, String destination, LocalDate from, LocalDate to,
+                                  int limit, Order order) {
+        if (origin == null || destination == null || from == null || to == null || order == null) {
+            throw new IllegalArgumentException("Search parameters cannot be null.");
+        }
+        if (limit < 1 || to.isBefore(from) || origin.trim().equalsIgnoreCase(destination.trim())) {
+            return Collections.emptyList();
+        }
+
+        // Flights on or before the system date can no longer be booked
+        LocalDate first = from;
+        LocalDate firstBookable = fbs.getSystemDate().plusDays(1);
+        if (first.isBefore(firstBookable)) {
+            first = firstBookable;
+        }
+
+        Comparator<Label> ranking = order == Order.CHEAPEST ? BY_PRICE : BY_DURATION;
+        PriorityQueue<Label> queue = new PriorityQueue<>(ranking);
+        for (Flight flight : fbs.findFlightsFrom(origin, first, to)) {
+            if (isBookable(flight)) {
+                queue.add(new Label(null, flight, fbs.quote(flight), flight.getDepartureDate().toEpochDay()));
+            }
+        }
+
+        List<Itinerary> results = new ArrayList<>();
+        Map<String, Integer> expanded = new HashMap<>();
+        while (!queue.isEmpty() && results.size() < limit) {
+            Label label = queue.poll();
+            String airport = label.flight.getDestination();
+            if (airport.trim().equalsIgnoreCase(destination.trim())) {
+                results.add(label.toItinerary());
+                continue;
+            }
+            if (label.legs >= maxLegs) {
+                continue;
+            }
+            String stop = airport.trim().toUpperCase(Locale.ROOT) + '@' + label.lastDay + '/' + label.legs;
+            if (expanded.merge(stop, 1, Integer::sum) > limit) {
+                continue;
+            }
+
+            LocalDate arrival = label.flight.getDepartureDate();
+            for (Flight next : fbs.findFlightsFrom(airport, arrival.plusDays(minLayoverDays),
+                    arrival.plusDays(maxLayoverDays))) {
+                if (queue.size() >= maxFrontier) {
+                    break;
+                }
+                if (isBookable(next) && !label.visits(next.getDestination())) {
+                    queue.add(new Label(label, next, fbs.quote(next), label.firstDay));
+                }
+            }
+        }
+        return results;
+    }
+
+    private boolean isBookable(Flight flight) {
+        return flight.isActive() && !flight.isFull()
+                && flight.getDepartureDate().isAfter(fbs.getSystemDate());
+    }
+
+    private static final Comparator<Label> BY_PRICE = Comparator
+            .comparingDouble((Label l) -> l.price)
+            .thenComparingLong(l -> l.lastDay - l.firstDay)
+            .thenComparingInt(l -> l.legs);
+
+    private static final Comparator<Label> BY_DURATION = Comparator
+            .comparingLong((Label l) -> l.lastDay - l.firstDay)
+            .thenComparingInt(l -> l.legs)
+            .thenComparingDouble(l -> l.price);
+
+    /**
+     * A partial journey: its last flight, plus a link to the journey before it.
+     */
+    private static final class Label {
+        final Label parent;
+        final Flight flight;
+        final double legPrice;
+        final double price;
+        final int legs;
+        final long firstDay;
+        final long lastDay;
+
+        Label(Label parent, Flight flight, double legPrice, long firstDay) {
+            this.parent = parent;
+            this.flight = flight;
+            this.legPrice = legPrice;
+            this.price = parent == null ? legPrice : parent.price + legPrice;
+            this.legs = parent == null ? 1 : parent.legs + 1;
+            this.firstDay = firstDay;
+            this.lastDay = flight.getDepartureDate().toEpochDay();
+        }
+
+        /**
+         * Indicates whether the journey already passes through an airport, so
+         * connections never loop back.
+         */
+        boolean visits(String airport) {
+            String key = airport.trim();
+            for (Label l = this; l != null; l = l.parent) {
+                if (l.flight.getDestination().trim().equalsIgnoreCase(key)
+                        || l.flight.getOrigin().trim().equalsIgnoreCase(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Itinerary toItinerary() {
+            Flight[] flights = new Flight[legs];
+            double[] prices = new double[legs];
+            Label l = this;
+            for (int i = legs - 1; i >= 0; i--) {
+                flights[i] = l.flight;
+                prices[i] = l.legPrice;
+                l = l.parent;
+            }
+            return new Itinerary(List.of(flights), prices);
+        }
+    }
+}
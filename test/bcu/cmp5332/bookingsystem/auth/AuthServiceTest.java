@@ -120,4 +120,32 @@ public class AuthServiceTest {
         assertTrue(fullName.contains("David"));
         assertTrue(fullName.contains("Doe"));
     }
+
+    @Test
+    public void testServicesShareEmailIndex() throws FlightBookingSystemException {
+        UserDataManager udm = new UserDataManager();
+        AuthService first = new AuthService(udm);
+        AuthService second = new AuthService(udm);
+
+        first.registerCustomer("John", "", "Doe", " John@Gmail.com ", "password123");
+
+        assertTrue(second.emailExists("john@gmail.com"));
+        assertEquals("Doe", second.login("JOHN@GMAIL.COM", "password123").getLastName());
+        assertThrows(FlightBookingSystemException.class, () ->
+                second.registerAdmin("Jane", "", "Doe", "john@gmail.com", "password456"));
+        assertEquals(1, udm.getUsers().size());
+    }
+
+    @Test
+    public void testNewUserIdsSkipPastExistingIds() throws FlightBookingSystemException {
+        users.add(new User(5, "Old", "", "User", "old@gmail.com", "pass", Role.CUSTOMER, null));
+        users.add(new User(2, "Other", "", "User", "other@gmail.com", "pass", Role.CUSTOMER, null));
+        authService = new AuthService(users);
+
+        User first = authService.registerCustomer("John", "", "Doe", "john@gmail.com", "password123");
+        User second = authService.registerAdmin("Admin", "", "User", "admin@gmail.com", "admin123");
+
+        assertEquals(6, first.getId());
+        assertEquals(7, second.getId());
+    }
 }
@@ -96,4 +96,16 @@ public class UserTest {
         assertEquals("User", adminUser.getLastName());
         assertEquals("Doe", customerUser.getLastName());
     }
+
+    @Test
+    public void testSetCustomerIdMarksUsersChanged() throws Exception {
+        UserDataManager manager = new UserDataManager();
+        manager.addUser(customerUser);
+        manager.markSaved();
+        assertFalse(manager.hasChanges());
+
+        customerUser.setCustomerId(6);
+
+        assertTrue(manager.hasChanges());
+    }
 }
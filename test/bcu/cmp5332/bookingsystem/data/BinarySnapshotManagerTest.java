@@ -0,0 +1,144 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingStatus;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BinarySnapshotManager.
+ * Tests round-tripping a system and rejecting damaged snapshots.
+ */
+public class BinarySnapshotManagerTest {
+
+    private Path file;
+    private BinarySnapshotManager manager;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        file = Files.createTempFile("snapshot", ".bin");
+        manager = new BinarySnapshotManager(file.toString());
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private FlightBookingSystem sampleSystem() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.setSystemDate(LocalDate.of(2026, 1, 20));
+
+        Flight f1 = new Flight(1, "LH2560", "Birmingham", "M\u00fcnchen", LocalDate.of(2026, 2, 25), 100, 299.99);
+        Flight f2 = new Flight(7, "AA101", "New York", "Boston", LocalDate.of(1969, 7, 20), 2, 150.0);
+        f2.deactivate();
+        fbs.addFlight(f1);
+        fbs.addFlight(f2);
+
+        Customer c1 = new Customer(1, "Abdel-Rahman Tawil", "07555555555");
+        Customer c2 = new Customer(300, "Kostas Vlachos", "07596454545");
+        c2.deactivate();
+        fbs.addCustomer(c1);
+        fbs.addCustomer(c2);
+
+        Booking active = new Booking(c1, f1, LocalDate.of(2026, 1, 15), 344.99);
+        c1.addBooking(active);
+        f1.addPassenger(c1);
+
+        Booking canceled = new Booking(c2, f2, LocalDate.of(2026, 1, 16), 172.5);
+        canceled.setStatus(BookingStatus.CANCELED);
+        canceled.setFeeLast(17.25);
+        canceled.setFeeType("CANCEL");
+        c2.addBooking(canceled);
+
+        return fbs;
+    }
+
+    @Test
+    public void testRoundTripPreservesSystem() throws Exception {
+        manager.storeData(sampleSystem());
+
+        FlightBookingSystem loaded = new FlightBookingSystem();
+        manager.loadData(loaded);
+
+        assertEquals(LocalDate.of(2026, 1, 20), loaded.getSystemDate());
+        assertEquals(2, loaded.getFlights().size());
+        assertEquals(2, loaded.getCustomers().size());
+
+        Flight f1 = loaded.getFlightByID(1);
+        assertEquals("M\u00fcnchen", f1.getDestination());
+        assertEquals(299.99, f1.getBasePrice(), 0.0001);
+        assertEquals(1, f1.getPassengers().size());
+
+        Flight f2 = loaded.getFlightByID(7);
+        assertEquals(LocalDate.of(1969, 7, 20), f2.getDepartureDate());
+        assertFalse(f2.isActive());
+        assertEquals(0, f2.getPassengers().size());
+
+        Customer c2 = loaded.getCustomerByID(300);
+        assertFalse(c2.isActive());
+        Booking b = c2.getBookings().get(0);
+        assertEquals(BookingStatus.CANCELED, b.getStatus());
+        assertEquals(17.25, b.getFeeLast(), 0.0001);
+        assertEquals("CANCEL", b.getFeeType());
+
+        assertNull(loaded.getCustomerByID(1).getBookings().get(0).getFeeType());
+    }
+
+    @Test
+    public void testCorruptedSnapshotIsRejected() throws Exception {
+        manager.storeData(sampleSystem());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 3] ^= 0x55;
+        Files.write(file, bytes);
+
+        assertThrows(FlightBookingSystemException.class, () -> manager.loadData(new FlightBookingSystem()));
+    }
+
+    @Test
+    public void testNonSnapshotFileIsRejected() throws Exception {
+        Files.write(file, "1::LH2560::Birmingham::Munich::2022-11-25::".getBytes());
+
+        assertThrows(FlightBookingSystemException.class, () -> manager.loadData(new FlightBookingSystem()));
+    }
+
+    @Test
+    public void testRoundTripKeepsIdSequences() throws Exception {
+        FlightBookingSystem fbs = sampleSystem();
+        assertEquals(8, fbs.getFlightIds().next());
+        assertEquals(301, fbs.getCustomerIds().next());
+        manager.storeData(fbs);
+
+        FlightBookingSystem loaded = new FlightBookingSystem();
+        manager.loadData(loaded);
+
+        assertEquals(9, loaded.getFlightIds().next());
+        assertEquals(302, loaded.getCustomerIds().next());
+    }
+
+    @Test
+    public void testCaptureIsNotAffectedByLaterChanges() throws Exception {
+        FlightBookingSystem fbs = sampleSystem();
+        byte[] expected = manager.encode(fbs);
+
+        BinarySnapshotManager.Capture capture = manager.capture(fbs);
+        fbs.getFlightByID(1).deactivate();
+        fbs.addCustomer(new Customer(301, "Late Customer", "07000000000"));
+        fbs.setSystemDate(LocalDate.of(2026, 3, 1));
+
+        assertArrayEquals(expected, manager.encode(capture));
+    }
+}
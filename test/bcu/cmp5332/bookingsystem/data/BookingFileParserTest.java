@@ -0,0 +1,108 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingStatus;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BookingFileParser.
+ * Tests the old and new bookings.txt formats and line-numbered errors.
+ */
+public class BookingFileParserTest {
+
+    private FlightBookingSystem fbs;
+
+    @BeforeEach
+    public void setup() throws FlightBookingSystemException {
+        fbs = new FlightBookingSystem();
+        fbs.addCustomer(new Customer(1, "John", "0700000001"));
+        fbs.addCustomer(new Customer(2, "Jane", "0700000002"));
+        fbs.addFlight(new Flight(1, "AA1", "KTM", "CTW", LocalDate.of(2026, 3, 1), 10, 100.0));
+        fbs.addFlight(new Flight(2, "AA2", "KTM", "PKR", LocalDate.of(2026, 3, 2), 10, 200.0));
+    }
+
+    private void load(String content) throws FlightBookingSystemException {
+        ByteBuffer buf = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+        BookingFileParser.link(fbs, BookingFileParser.parse(buf, 0, buf.limit(), 1));
+    }
+
+    @Test
+    public void testParsesAllColumns() throws FlightBookingSystemException {
+        load("1::1::2026-01-15::660.0::ACTIVE::0.0::::\n"
+                + "1::2::2026-01-20::172.5::CANCELED::8.625::REBOOK\n");
+
+        Customer c = fbs.getCustomerByID(1);
+        assertEquals(2, c.getBookings().size());
+
+        Booking active = c.getBookings().get(0);
+        assertEquals(LocalDate.of(2026, 1, 15), active.getBookingDate());
+        assertEquals(660.0, active.getBookingPrice(), 0.0);
+        assertEquals(BookingStatus.ACTIVE, active.getStatus());
+        assertNull(active.getFeeType());
+
+        Booking canceled = c.getBookings().get(1);
+        assertEquals(BookingStatus.CANCELED, canceled.getStatus());
+        assertEquals(8.625, canceled.getFeeLast(), 0.0);
+        assertEquals("REBOOK", canceled.getFeeType());
+
+        assertEquals(1, fbs.getFlightByID(1).getPassengers().size());
+        assertEquals(0, fbs.getFlightByID(2).getPassengers().size());
+    }
+
+    @Test
+    public void testOldFormatUsesDefaults() throws FlightBookingSystemException {
+        load("1::2::2024-11-11\r\n\r\n   \n2::2::2024-11-11:: ::BOGUS::x::\n");
+
+        Booking old = fbs.getCustomerByID(1).getBookings().get(0);
+        assertEquals(200.0, old.getBookingPrice(), 0.0);
+        assertEquals(BookingStatus.ACTIVE, old.getStatus());
+
+        Booking bogus = fbs.getCustomerByID(2).getBookings().get(0);
+        assertEquals(200.0, bogus.getBookingPrice(), 0.0);
+        assertEquals(BookingStatus.ACTIVE, bogus.getStatus());
+        assertEquals(0.0, bogus.getFeeLast(), 0.0);
+    }
+
+    @Test
+    public void testErrorsReportLineNumber() {
+        FlightBookingSystemException parseEx = assertThrows(FlightBookingSystemException.class,
+                () -> load("1::1::2026-01-15::\n\n1::x::2026-01-15::\n"));
+        assertTrue(parseEx.getMessage().startsWith("Invalid booking data on line 3"));
+
+        FlightBookingSystemException linkEx = assertThrows(FlightBookingSystemException.class,
+                () -> load("1::1::2026-01-15::\n9::1::2026-01-15::\n"));
+        assertTrue(linkEx.getMessage().startsWith("Invalid booking data on line 2"));
+    }
+
+    @Test
+    public void testPricesMatchDoubleParse() throws FlightBookingSystemException {
+        Random rnd = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        double[] expected = new double[500];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i % 50 == 0 ? 110.00000000000001 : Math.round(rnd.nextDouble() * 1e6) / 100.0;
+            if (i % 77 == 0) {
+                expected[i] = 1.0E7 + i;
+            }
+            sb.append("1::1::2026-01-15::").append(expected[i]).append("::CANCELED::0.0::CANCEL::\n");
+        }
+
+        load(sb.toString());
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], fbs.getCustomerByID(1).getBookings().get(i).getBookingPrice(), 0.0);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingStatus;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BookingJournal.
+ * Records mutations, then replays them on a freshly built system.
+ */
+public class BookingJournalTest {
+
+    private Path file;
+    private BookingJournal journal;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        file = Files.createTempFile("journal", ".txt");
+        Files.delete(file);
+        journal = new BookingJournal(file.toString());
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private FlightBookingSystem baseSystem() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addCustomer(new Customer(1, "John", "0700000001"));
+        fbs.addFlight(new Flight(1, "AA1", "KTM", "CTW", LocalDate.of(2026, 3, 1), 10, 100.0));
+        fbs.addFlight(new Flight(2, "AA2", "KTM", "PKR", LocalDate.of(2026, 3, 2), 10, 200.0));
+        return fbs;
+    }
+
+    @Test
+    public void testRecordsAreIgnoredUntilOpened() throws Exception {
+        journal.recordSystemDate(LocalDate.of(2025, 1, 1));
+        journal.commit();
+
+        assertFalse(Files.exists(file));
+        assertFalse(journal.hasUncommittedRecords());
+    }
+
+    @Test
+    public void testReplayRebuildsBookingChanges() throws Exception {
+        FlightBookingSystem fbs = baseSystem();
+        Customer c = fbs.getCustomerByID(1);
+        journal.open();
+
+        journal.recordBooking(new Booking(c, fbs.getFlightByID(1), LocalDate.of(2025, 1, 1), 120.0));
+        journal.recordRebook(1, new Booking(c, fbs.getFlightByID(2), LocalDate.of(2025, 1, 2), 210.0), 6.0);
+        journal.recordCancel(1, 2, 21.0);
+        journal.recordFlightActive(1, false);
+        journal.recordCustomerActive(1, false);
+        journal.recordSystemDate(LocalDate.of(2025, 1, 3));
+        assertTrue(journal.hasUncommittedRecords());
+        journal.commit();
+
+        FlightBookingSystem replayed = baseSystem();
+        assertEquals(6, journal.replay(replayed));
+
+        Customer rc = replayed.getCustomerByID(1);
+        assertEquals(2, rc.getBookings().size());
+        assertEquals(BookingStatus.CANCELED, rc.getBookings().get(0).getStatus());
+        assertEquals("REBOOK", rc.getBookings().get(0).getFeeType());
+        assertEquals("CANCEL", rc.getBookings().get(1).getFeeType());
+        assertEquals(210.0, rc.getBookings().get(1).getBookingPrice(), 0.0001);
+        assertEquals(0, replayed.getFlightByID(1).getPassengers().size());
+        assertEquals(0, replayed.getFlightByID(2).getPassengers().size());
+        assertFalse(replayed.getFlightByID(1).isActive());
+        assertFalse(rc.isActive());
+        assertEquals(LocalDate.of(2025, 1, 3), replayed.getSystemDate());
+    }
+
+    @Test
+    public void testTornTrailingRecordIsIgnored() throws Exception {
+        journal.open();
+        journal.recordSystemDate(LocalDate.of(2025, 1, 1));
+        journal.commit();
+        Files.write(file, "DATE::2025-02".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        FlightBookingSystem fbs = baseSystem();
+        assertEquals(1, journal.replay(fbs));
+        assertEquals(LocalDate.of(2025, 1, 1), fbs.getSystemDate());
+    }
+
+    @Test
+    public void testResetEmptiesJournal() throws Exception {
+        journal.open();
+        journal.recordSystemDate(LocalDate.of(2025, 1, 1));
+        journal.commit();
+        assertTrue(journal.size() > 0);
+
+        journal.reset();
+
+        assertEquals(0, journal.size());
+        assertEquals(0, journal.replay(baseSystem()));
+    }
+
+    @Test
+    public void testTruncateKeepsRecordsAfterCheckpoint() throws Exception {
+        journal.open();
+        journal.recordSystemDate(LocalDate.of(2025, 1, 1));
+        long position = journal.checkpoint();
+        assertTrue(position > 0);
+
+        journal.recordSystemDate(LocalDate.of(2025, 2, 1));
+        journal.commit();
+        journal.truncate(position);
+
+        FlightBookingSystem replayed = baseSystem();
+        assertEquals(1, journal.replay(replayed));
+        assertEquals(LocalDate.of(2025, 2, 1), replayed.getSystemDate());
+
+        journal.truncate(journal.checkpoint());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testReplayOverSnapshotSkipsRecordsItContains() throws Exception {
+        FlightBookingSystem fbs = baseSystem();
+        Customer c = fbs.getCustomerByID(1);
+        journal.open();
+        journal.recordBooking(new Booking(c, fbs.getFlightByID(1), LocalDate.of(2025, 1, 1), 120.0));
+        journal.recordCancel(1, 1, 12.0);
+        journal.recordBooking(new Booking(c, fbs.getFlightByID(1), LocalDate.of(2025, 1, 2), 125.0));
+        journal.commit();
+        journal.replay(fbs);
+
+        // The snapshot is stored, but the process stops before the journal is truncated
+        Path snapshotFile = Files.createTempFile("snapshot", ".bin");
+        try {
+            BinarySnapshotManager snapshots = new BinarySnapshotManager(snapshotFile.toString());
+            snapshots.write(snapshots.encode(snapshots.capture(fbs, journal.getSequence())));
+            journal.recordSystemDate(LocalDate.of(2025, 1, 3));
+            journal.commit();
+
+            FlightBookingSystem restarted = new FlightBookingSystem();
+            snapshots.loadData(restarted);
+            BookingJournal reopened = new BookingJournal(file.toString());
+            assertEquals(1, reopened.replay(restarted, snapshots.getJournalSequence()));
+
+            Customer rc = restarted.getCustomerByID(1);
+            assertEquals(2, rc.getBookings().size());
+            assertEquals(125.0, rc.getActiveBooking(1).getBookingPrice(), 0.0001);
+            assertEquals(1, restarted.getFlightByID(1).getPassengers().size());
+            assertEquals(LocalDate.of(2025, 1, 3), restarted.getSystemDate());
+            assertEquals(4, reopened.getSequence());
+        } finally {
+            Files.deleteIfExists(snapshotFile);
+            Files.deleteIfExists(Path.of(snapshotFile + ".crc"));
+        }
+    }
+}
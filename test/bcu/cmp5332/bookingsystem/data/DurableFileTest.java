@@ -0,0 +1,98 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DurableFile.
+ * Tests atomic replacement, checksums and falling back to the previous generation.
+ */
+public class DurableFileTest {
+
+    private Path dir;
+    private Path file;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("durable");
+        file = dir.resolve("flights.txt");
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private String read(Path p) throws IOException {
+        return new String(Files.readAllBytes(p), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testWriteReplacesFileAndKeepsPreviousGeneration() throws Exception {
+        DurableFile.writeText(file, out -> out.write("first\n"));
+        DurableFile.writeText(file, out -> {
+            for (int i = 0; i < 10_000; i++) {
+                out.write(i + "::M\u00fcnchen::\n");
+            }
+        });
+
+        Path resolved = DurableFile.resolve(file);
+        assertEquals(file, resolved);
+        assertTrue(read(file).startsWith("0::M\u00fcnchen::\n1::"));
+        assertEquals("first\n", read(dir.resolve("flights.txt.prev")));
+        assertFalse(Files.exists(dir.resolve("flights.txt.tmp")));
+    }
+
+    @Test
+    public void testTornFileFallsBackToPreviousGeneration() throws Exception {
+        DurableFile.write(file, "old contents\n".getBytes(StandardCharsets.UTF_8));
+        DurableFile.write(file, "new contents\n".getBytes(StandardCharsets.UTF_8));
+
+        Files.write(file, "new con".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(dir.resolve("flights.txt.prev"), DurableFile.resolve(file));
+    }
+
+    @Test
+    public void testMissingFileFallsBackToPreviousGeneration() throws Exception {
+        DurableFile.write(file, "old contents\n".getBytes(StandardCharsets.UTF_8));
+        DurableFile.write(file, "new contents\n".getBytes(StandardCharsets.UTF_8));
+
+        // As if the file had been lost outside the program, for example deleted by hand
+        Files.delete(file);
+
+        assertTrue(DurableFile.exists(file));
+        assertEquals("old contents\n", read(DurableFile.resolve(file)));
+    }
+
+    @Test
+    public void testFileWithoutChecksumIsAccepted() throws Exception {
+        Files.write(file, "legacy\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(file, DurableFile.resolve(file));
+        assertNull(DurableFile.resolve(dir.resolve("missing.txt")));
+    }
+
+    @Test
+    public void testAllGenerationsDamagedIsRejected() throws Exception {
+        DurableFile.write(file, "only contents\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(file, "damaged\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(FlightBookingSystemException.class, () -> DurableFile.resolve(file));
+    }
+}
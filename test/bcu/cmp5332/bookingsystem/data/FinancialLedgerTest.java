@@ -0,0 +1,126 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FinancialLedger.
+ * Records entries, then reopens the file and checks the rebuilt totals.
+ */
+public class FinancialLedgerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 1);
+
+    private Path file;
+    private FinancialLedger ledger;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        file = Files.createTempFile("ledger", ".bin");
+        Files.delete(file);
+        ledger = new FinancialLedger(file.toString());
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        ledger.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testClosedLedgerIgnoresEntries() throws FlightBookingSystemException {
+        ledger.record(FinancialLedger.Type.CHARGE, 1, 1, DAY, 100.0);
+        assertEquals(0.0, ledger.getTotals().get(FinancialLedger.Type.CHARGE), 0.001);
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testReopenRebuildsTotals() throws IOException, FlightBookingSystemException {
+        ledger.open();
+        ledger.record(FinancialLedger.Type.CHARGE, 1, 10, DAY, 115.0);
+        ledger.record(FinancialLedger.Type.CHARGE, 2, 20, DAY, 80.0);
+        ledger.record(FinancialLedger.Type.FEE, 1, 10, DAY, 11.5);
+        ledger.record(FinancialLedger.Type.REFUND, 1, 10, DAY, 103.5);
+        ledger.commit();
+        ledger.close();
+        assertEquals(4L * FinancialLedger.RECORD_SIZE, Files.size(file));
+
+        FinancialLedger reopened = new FinancialLedger(file.toString());
+        reopened.open();
+        try {
+            FinancialLedger.Totals totals = reopened.getTotals();
+            assertEquals(195.0, totals.get(FinancialLedger.Type.CHARGE), 0.001);
+            assertEquals(11.5, totals.get(FinancialLedger.Type.FEE), 0.001);
+            assertEquals(91.5, totals.getRevenue(), 0.001);
+            assertEquals(11.5, reopened.getFlightTotals(10).getRevenue(), 0.001);
+            assertEquals(80.0, reopened.getCustomerTotals(2).getRevenue(), 0.001);
+            assertEquals(0.0, reopened.getFlightTotals(99).getRevenue(), 0.001);
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void testTornRecordIsCutOff() throws IOException, FlightBookingSystemException {
+        ledger.open();
+        ledger.record(FinancialLedger.Type.CHARGE, 1, 10, DAY, 50.0);
+        ledger.close();
+        Files.write(file, new byte[]{1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        ledger.open();
+        assertEquals(FinancialLedger.RECORD_SIZE, Files.size(file));
+        ledger.record(FinancialLedger.Type.CHARGE, 1, 11, DAY, 25.0);
+        assertEquals(75.0, ledger.getTotals().get(FinancialLedger.Type.CHARGE), 0.001);
+        assertEquals(2L * FinancialLedger.RECORD_SIZE, Files.size(file));
+    }
+
+    @Test
+    public void testRecordWithUnknownTypeIsKeptAndRefused() throws IOException, FlightBookingSystemException {
+        ledger.open();
+        ledger.record(FinancialLedger.Type.CHARGE, 1, 10, DAY, 50.0);
+        ledger.record(FinancialLedger.Type.CHARGE, 1, 11, DAY, 20.0);
+        ledger.record(FinancialLedger.Type.CHARGE, 1, 12, DAY, 10.0);
+        ledger.close();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[]{(byte) 0x7F}), FinancialLedger.RECORD_SIZE);
+        }
+
+        byte[] damaged = Files.readAllBytes(file);
+
+        assertThrows(FlightBookingSystemException.class, () -> ledger.open());
+
+        // Nothing after the damaged record is lost, and a copy is kept for inspection
+        Path copy = file.resolveSibling(file.getFileName() + ".damaged");
+        try {
+            assertArrayEquals(damaged, Files.readAllBytes(file));
+            assertArrayEquals(damaged, Files.readAllBytes(copy));
+            assertEquals(0.0, ledger.getTotals().get(FinancialLedger.Type.CHARGE), 0.001);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    @Test
+    public void testTotalsBetweenDates() throws IOException, FlightBookingSystemException {
+        ledger.open();
+        ledger.record(FinancialLedger.Type.CHARGE, 1, 10, DAY, 100.0);
+        ledger.record(FinancialLedger.Type.CHARGE, 1, 11, DAY.plusDays(5), 200.0);
+        ledger.record(FinancialLedger.Type.CREDIT, 1, 11, DAY.plusDays(10), 190.0);
+
+        assertEquals(300.0, ledger.getTotalsBetween(DAY, DAY.plusDays(5)).getRevenue(), 0.001);
+        assertEquals(10.0, ledger.getTotalsBetween(DAY.plusDays(1), DAY.plusDays(30)).getRevenue(), 0.001);
+        assertEquals(0.0, ledger.getTotalsBetween(DAY.minusDays(9), DAY.minusDays(1)).getRevenue(), 0.001);
+    }
+}
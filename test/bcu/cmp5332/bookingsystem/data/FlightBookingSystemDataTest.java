@@ -0,0 +1,68 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FlightBookingSystemData.
+ * Exports a system to text files in a scratch directory and imports it back.
+ */
+public class FlightBookingSystemDataTest {
+
+    private Path directory;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("text-export");
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testExportedTextImportsBackUnchanged() throws FlightBookingSystemException, IOException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.setSystemDate(LocalDate.of(2026, 2, 1));
+        Customer customer = new Customer(1, "John", "0700000001");
+        fbs.addCustomer(customer);
+        Flight flight = new Flight(1, "AA1", "KTM", "CTW", LocalDate.of(2026, 3, 1), 10, 100.0);
+        fbs.addFlight(flight);
+        fbs.addFlight(new Flight(2, "AA2", "KTM", "PKR", LocalDate.of(2026, 3, 2), 20, 200.0));
+        customer.addBooking(new Booking(customer, flight, LocalDate.of(2026, 2, 1), 120.0));
+        flight.addPassenger(customer);
+
+        FlightBookingSystemData.exportText(fbs, directory);
+        FlightBookingSystem imported = FlightBookingSystemData.importText(directory);
+
+        assertEquals(LocalDate.of(2026, 2, 1), imported.getSystemDate());
+        assertEquals(2, imported.getFlights().size());
+        assertEquals(20, imported.getFlightByID(2).getCapacity());
+        assertEquals(200.0, imported.getFlightByID(2).getBasePrice(), 0.001);
+        Customer loaded = imported.getCustomerByID(1);
+        assertEquals("0700000001", loaded.getPhone());
+        assertEquals(1, loaded.getBookings().size());
+        assertEquals(120.0, loaded.getBookings().get(0).getBookingPrice(), 0.001);
+        assertTrue(imported.getFlightByID(1).getPassengers().contains(loaded));
+    }
+}
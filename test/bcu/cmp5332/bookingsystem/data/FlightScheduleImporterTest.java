@@ -0,0 +1,161 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FlightScheduleImporter.
+ * Imports small schedules and checks the flights added and the rows rejected.
+ */
+public class FlightScheduleImporterTest {
+
+    private static FlightScheduleImporter.Result importText(FlightBookingSystem fbs, String csv) throws IOException {
+        return new FlightScheduleImporter(fbs).importFrom(new BufferedReader(new StringReader(csv)));
+    }
+
+    @Test
+    public void testImportsRowsWithConsecutiveIds() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addFlight(new Flight(7, "BA100", "London", "Paris", LocalDate.of(2026, 5, 1), 100, 80.0));
+
+        FlightScheduleImporter.Result result = importText(fbs,
+                "flightNumber,origin,destination,departureDate,capacity,basePrice\n"
+                + "BA200,London,Rome,2026-05-02,150,120.50\n"
+                + "\"BA 300\",\"New York, JFK\",Paris,2026-05-03,200,300\n");
+
+        assertEquals(2, result.getImported());
+        assertTrue(result.getRejected().isEmpty());
+        assertEquals("BA200", fbs.getFlightByID(8).getFlightNumber());
+        assertEquals("New York, JFK", fbs.getFlightByID(9).getOrigin());
+        assertEquals(9, fbs.getFlightIds().last());
+    }
+
+    @Test
+    public void testRejectsInvalidAndDuplicateRows() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addFlight(new Flight(1, "BA100", "London", "Paris", LocalDate.of(2026, 5, 1), 100, 80.0));
+
+        FlightScheduleImporter.Result result = importText(fbs,
+                "BA100,London,Paris,2026-05-01,100,80\n"
+                + "BA101,London,Paris,2026-05-01,100,80\n"
+                + "BA101,Leeds,Paris,2026-05-01,90,70\n"
+                + "BA102,,Paris,2026-05-01,100,80\n"
+                + "BA103,London,Paris,01/05/2026,100,80\n"
+                + "BA104,London,Paris,2026-05-01,-1,80\n"
+                + "BA105,London,Paris\n"
+                + "BA106,London,Paris,2026-05-01,100,NaN\n");
+
+        assertEquals(1, result.getImported());
+        List<FlightScheduleImporter.Rejection> rejected = result.getRejected();
+        assertEquals(7, rejected.size());
+        assertEquals(1, rejected.get(0).getLineNumber());
+        assertEquals(3, rejected.get(1).getLineNumber());
+        assertTrue(rejected.get(1).getReason().contains("same number and departure date"));
+        assertEquals("Origin cannot be empty.", rejected.get(2).getReason());
+        assertEquals("Invalid departure date. Please use YYYY-MM-DD.", rejected.get(3).getReason());
+        assertEquals("Capacity cannot be negative.", rejected.get(4).getReason());
+        assertEquals("Expected 6 fields but found 3.", rejected.get(5).getReason());
+        assertEquals("Invalid capacity or base price.", rejected.get(6).getReason());
+        assertEquals("London", fbs.findFlight("BA101", LocalDate.of(2026, 5, 1)).getOrigin());
+    }
+
+    @Test
+    public void testDuplicatesAcrossChunksAreRejected() throws IOException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        StringBuilder csv = new StringBuilder();
+        int rows = FlightScheduleImporter.CHUNK_SIZE + 10;
+        for (int i = 0; i < rows; i++) {
+            csv.append("F").append(i).append(",A,B,2026-06-01,10,50\n");
+        }
+        csv.append("F5,A,B,2026-06-01,10,50\n");
+
+        FlightScheduleImporter.Result result = importText(fbs, csv.toString());
+
+        assertEquals(rows, result.getImported());
+        assertEquals(1, result.getRejected().size());
+        assertEquals(rows + 1, result.getRejected().get(0).getLineNumber());
+        assertEquals(rows, fbs.getFlights().size());
+    }
+
+    @Test
+    public void testReportListsRejectedRows() throws IOException {
+        FlightScheduleImporter.Result result = importText(new FlightBookingSystem(),
+                "BA100,London,Paris,2026-05-01,100,80\n"
+                + "BA101,\"Lon\"\"don\",Paris,2026-05-01,-5,80\n");
+
+        Path report = Files.createTempFile("rejected", ".csv");
+        try {
+            result.writeReport(report);
+            List<String> lines = Files.readAllLines(report);
+            assertEquals(2, lines.size());
+            assertEquals("line,reason,row", lines.get(0));
+            assertEquals("2,\"Capacity cannot be negative.\",\"BA101,\"\"Lon\"\"\"\"don\"\",Paris,2026-05-01,-5,80\"",
+                    lines.get(1));
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    @Test
+    public void testReadFailureAfterFirstChunkImportsNothing() {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < FlightScheduleImporter.CHUNK_SIZE + 10; i++) {
+            csv.append("BA").append(i).append(",London,Paris,2026-05-01,100,80\n");
+        }
+        int failAt = csv.length() - 100;
+        BufferedReader failing = new BufferedReader(new StringReader(csv.toString()) {
+            private int read;
+
+            @Override
+            public int read(char[] buf, int off, int len) throws IOException {
+                if (read >= failAt) {
+                    throw new IOException("disk error");
+                }
+                int n = super.read(buf, off, Math.min(len, failAt - read));
+                read += Math.max(n, 0);
+                return n;
+            }
+        });
+
+        assertThrows(IOException.class, () -> new FlightScheduleImporter(fbs).importFrom(failing));
+
+        assertTrue(fbs.getFlights().isEmpty());
+        assertNull(fbs.findFlight("BA0", LocalDate.of(2026, 5, 1)));
+        assertTrue(fbs.findFlightsByRoute("London", "Paris", null, null).isEmpty());
+    }
+
+    @Test
+    public void testRollingBackEnclosingUnitRemovesImportedFlights() throws IOException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Path csv = Files.createTempFile("schedule", ".csv");
+        try {
+            Files.writeString(csv, "BA200,London,Rome,2026-05-02,150,120.50\n"
+                    + "BA300,London,Paris,2026-05-03,200,300\n");
+            UnitOfWork work = new UnitOfWork();
+
+            FlightScheduleImporter.Result result = new FlightScheduleImporter(fbs).importFile(csv, work);
+            assertEquals(2, result.getImported());
+            assertEquals(2, fbs.getFlights().size());
+
+            work.rollback(new IOException("report could not be written"));
+
+            assertTrue(fbs.getFlights().isEmpty());
+            assertNull(fbs.findFlight("BA200", LocalDate.of(2026, 5, 2)));
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+}
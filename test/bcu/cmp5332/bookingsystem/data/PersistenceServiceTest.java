@@ -0,0 +1,108 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PersistenceService.
+ * Tests coalescing of saves, the flush barrier and failure reporting.
+ */
+public class PersistenceServiceTest {
+
+    private static PersistenceService.Save save(String users, Runnable onFailure) {
+        return new PersistenceService.Save(null, users, -1, onFailure);
+    }
+
+    @Test
+    public void testBurstIsMergedIntoOneWrite() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> written = new ArrayList<>();
+
+        PersistenceService service = new PersistenceService(save -> {
+            synchronized (written) {
+                written.add(save.users);
+            }
+            firstStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                throw new IOException(ex);
+            }
+        });
+
+        service.submit(save("first", () -> { }));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+        // Submitted while the first write is running
+        for (int i = 1; i <= 10; i++) {
+            service.submit(save("burst " + i, () -> { }));
+        }
+        release.countDown();
+        service.flush();
+
+        assertEquals(List.of("first", "burst 10"), written);
+    }
+
+    @Test
+    public void testMergeKeepsUnchangedFilesFromEarlierSave() {
+        BinarySnapshotManager.Capture snapshot = new BinarySnapshotManager().capture(new FlightBookingSystem());
+        PersistenceService.Save older = new PersistenceService.Save(snapshot, "users", 10, () -> { });
+        PersistenceService.Save newer = new PersistenceService.Save(null, "users 2", -1, () -> { });
+
+        PersistenceService.Save merged = older.merge(newer);
+
+        assertSame(snapshot, merged.snapshot);
+        assertEquals("users 2", merged.users);
+        assertEquals(10, merged.journalPosition);
+    }
+
+    @Test
+    public void testFailureGoesToHandler() throws Exception {
+        PersistenceService service = new PersistenceService(save -> {
+            throw new IOException("disk full");
+        });
+        AtomicReference<IOException> reported = new AtomicReference<>();
+        CountDownLatch handled = new CountDownLatch(1);
+        AtomicInteger restored = new AtomicInteger();
+        service.setFailureHandler(ex -> {
+            reported.set(ex);
+            handled.countDown();
+        });
+
+        service.submit(save("users", restored::incrementAndGet));
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertEquals("disk full", reported.get().getMessage());
+        assertEquals(1, restored.get());
+    }
+
+    @Test
+    public void testFlushThrowsFailureInsteadOfHandler() {
+        PersistenceService service = new PersistenceService(save -> {
+            throw new IOException("disk full");
+        });
+        AtomicInteger handled = new AtomicInteger();
+        service.setFailureHandler(ex -> handled.incrementAndGet());
+
+        // Holding the monitor keeps the write from finishing until flush is waiting
+        IOException ex;
+        synchronized (service) {
+            service.submit(save("users", () -> { }));
+            ex = assertThrows(IOException.class, service::flush);
+        }
+
+        assertEquals("disk full", ex.getMessage());
+        assertEquals(0, handled.get());
+    }
+}
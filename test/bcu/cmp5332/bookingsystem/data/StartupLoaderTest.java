@@ -0,0 +1,145 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StartupLoader.
+ * Tests that parallel, chunked loading matches a sequential load.
+ */
+public class StartupLoaderTest {
+
+    private static final int ROWS = 200_000;
+
+    private Path bookings;
+    private StartupLoader loader;
+
+    private final DataManager flights = new DataManager() {
+        @Override
+        public void loadData(FlightBookingSystem fbs) throws FlightBookingSystemException {
+            fbs.addFlight(new Flight(1, "AA1", "KTM", "CTW", LocalDate.of(2026, 3, 1), ROWS, 100.0));
+            fbs.addFlight(new Flight(2, "AA2", "KTM", "PKR", LocalDate.of(2026, 3, 2), ROWS, 200.0));
+        }
+
+        @Override
+        public void storeData(FlightBookingSystem fbs) {
+        }
+    };
+
+    private final DataManager customers = new DataManager() {
+        @Override
+        public void loadData(FlightBookingSystem fbs) throws FlightBookingSystemException {
+            fbs.addCustomer(new Customer(1, "John", "0700000001"));
+            fbs.addCustomer(new Customer(2, "Jane", "0700000002"));
+        }
+
+        @Override
+        public void storeData(FlightBookingSystem fbs) {
+        }
+    };
+
+    private final DataManager systemDate = new DataManager() {
+        @Override
+        public void loadData(FlightBookingSystem fbs) {
+            fbs.setSystemDate(LocalDate.of(2026, 1, 20));
+        }
+
+        @Override
+        public void storeData(FlightBookingSystem fbs) {
+        }
+    };
+
+    @BeforeEach
+    public void setup() throws IOException {
+        bookings = Files.createTempFile("bookings", ".txt");
+        loader = new StartupLoader(4);
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        loader.shutdown();
+        Files.deleteIfExists(bookings);
+    }
+
+    private void writeBookings(int badLine) throws IOException {
+        writeBookings(badLine, "x");
+    }
+
+    private void writeBookings(int badLine, String badFlight) throws IOException {
+        StringBuilder sb = new StringBuilder(ROWS * 48);
+        for (int line = 1; line <= ROWS; line++) {
+            int customer = line % 2 + 1;
+            String flight = line == badLine ? badFlight : String.valueOf(line % 3 == 0 ? 2 : 1);
+            sb.append(customer).append("::").append(flight).append("::2026-01-15::")
+                    .append(line).append(".5::CANCELED::0.0::CANCEL::\n");
+        }
+        Files.write(bookings, sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testChunkedLoadKeepsFileOrder() throws Exception {
+        writeBookings(-1);
+
+        FlightBookingSystem fbs = loader.loadText(flights, customers, bookings.toString(), systemDate, null);
+
+        assertEquals(LocalDate.of(2026, 1, 20), fbs.getSystemDate());
+        List<Booking> john = fbs.getCustomerByID(1).getBookings();
+        List<Booking> jane = fbs.getCustomerByID(2).getBookings();
+        assertEquals(ROWS, john.size() + jane.size());
+
+        // Customer 2 holds the odd lines, customer 1 the even lines, in file order
+        for (int i = 0; i < jane.size(); i++) {
+            assertEquals(2 * i + 1 + 0.5, jane.get(i).getBookingPrice(), 0.0);
+        }
+        for (int i = 0; i < john.size(); i++) {
+            assertEquals(2 * i + 2 + 0.5, john.get(i).getBookingPrice(), 0.0);
+        }
+        assertEquals(0, fbs.getFlightByID(1).getPassengers().size());
+
+        assertTrue(loader.getTimings().containsKey("bookings-parse"));
+        assertTrue(loader.getTimings().containsKey("total"));
+    }
+
+    @Test
+    public void testErrorInLaterChunkReportsFileLine() throws Exception {
+        writeBookings(ROWS - 10);
+
+        FlightBookingSystemException ex = assertThrows(FlightBookingSystemException.class,
+                () -> loader.loadText(flights, customers, bookings.toString(), systemDate, null));
+        assertTrue(ex.getMessage().startsWith("Invalid booking data on line " + (ROWS - 10)), ex.getMessage());
+    }
+
+    @Test
+    public void testUnknownFlightInLaterChunkReportsFileLine() throws Exception {
+        writeBookings(ROWS - 5, "9");
+
+        FlightBookingSystemException ex = assertThrows(FlightBookingSystemException.class,
+                () -> loader.loadText(flights, customers, bookings.toString(), systemDate, null));
+        assertTrue(ex.getMessage().startsWith("Invalid booking data on line " + (ROWS - 5)), ex.getMessage());
+    }
+
+    @Test
+    public void testMissingBookingsFile() throws Exception {
+        Files.delete(bookings);
+
+        FlightBookingSystem fbs = loader.loadText(flights, customers, bookings.toString(), systemDate, null);
+
+        assertEquals(2, fbs.getFlights().size());
+        assertEquals(0, fbs.getCustomerByID(1).getBookings().size());
+    }
+}
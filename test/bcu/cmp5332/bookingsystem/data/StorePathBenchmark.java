@@ -0,0 +1,82 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Benchmark of the store path: the list reads a screen refresh makes, an add, and a
+ * snapshot save, repeated. Prints the time taken and the bytes allocated by the
+ * calling thread, which is where list copies show up as GC churn.
+ *
+ * Not a unit test; run it with the compiled classes on the class path:
+ * <pre>
+ * java -cp bin bcu.cmp5332.bookingsystem.data.StorePathBenchmark [SIZE] [ROUNDS]
+ * </pre>
+ */
+public class StorePathBenchmark {
+
+    public static void main(String[] args) throws IOException, FlightBookingSystemException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        LocalDate day = LocalDate.of(2027, 1, 1);
+        for (int i = 1; i <= size; i++) {
+            Flight flight = new Flight(i, "F" + i, "A" + i % 100, "B" + i % 97, day.plusDays(i % 365), 200, 100.0);
+            Customer customer = new Customer(i, "Customer " + i, String.format("07%09d", i));
+            fbs.addFlight(flight);
+            fbs.addCustomer(customer);
+            customer.addBooking(new Booking(customer, flight, day, 100.0));
+            flight.addPassenger(customer);
+        }
+
+        Path file = Files.createTempFile("snapshot", ".bin");
+        BinarySnapshotManager snapshots = new BinarySnapshotManager(file.toString());
+        try {
+            // Warm up so the measured rounds run compiled code
+            run(fbs, snapshots, rounds, size + 1);
+
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long thread = Thread.currentThread().getId();
+            long allocated = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            int checksum = run(fbs, snapshots, rounds, size + rounds + 1);
+            long elapsed = System.nanoTime() - start;
+            allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+
+            System.out.printf("%d flights and customers, %d rounds: %.1f ms, %.1f MB allocated (%d)%n",
+                    size, rounds, elapsed / 1_000_000.0, allocated / (1024.0 * 1024.0), checksum);
+        } finally {
+            for (String suffix : new String[]{"", ".crc", ".prev", ".prev.crc"}) {
+                Files.deleteIfExists(file.resolveSibling(file.getFileName() + suffix));
+            }
+        }
+    }
+
+    private static int run(FlightBookingSystem fbs, BinarySnapshotManager snapshots, int rounds, int firstId)
+            throws IOException, FlightBookingSystemException {
+        int checksum = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (Flight flight : fbs.getFlights()) {
+                checksum += flight.getCapacity();
+            }
+            for (Customer customer : fbs.getCustomers()) {
+                checksum += customer.getId();
+            }
+            int id = firstId + r;
+            fbs.addCustomer(new Customer(id, "Customer " + id, String.format("08%09d", id)));
+            snapshots.storeData(fbs);
+        }
+        return checksum;
+    }
+}
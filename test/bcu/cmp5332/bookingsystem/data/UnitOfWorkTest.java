@@ -0,0 +1,98 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UnitOfWork.
+ * Runs bodies that succeed or fail and checks which undo actions and records ran.
+ */
+public class UnitOfWorkTest {
+
+    @Test
+    public void testCommitWritesRecordsInOrder() throws FlightBookingSystemException {
+        List<String> log = new ArrayList<>();
+        UnitOfWork.run(work -> {
+            work.addUndo(() -> log.add("undo"));
+            work.addRecord(() -> log.add("journal"));
+            work.addRecord(() -> log.add("ledger"));
+        });
+        assertEquals(List.of("journal", "ledger"), log);
+    }
+
+    @Test
+    public void testFailureUndoesStepsNewestFirst() {
+        List<String> log = new ArrayList<>();
+        FlightBookingSystemException ex = assertThrows(FlightBookingSystemException.class, () ->
+                UnitOfWork.run(work -> {
+                    work.addUndo(() -> log.add("undo 1"));
+                    work.addUndo(() -> log.add("undo 2"));
+                    work.addRecord(() -> log.add("journal"));
+                    throw new FlightBookingSystemException("Step 3 failed.");
+                }));
+        assertEquals("Step 3 failed.", ex.getMessage());
+        assertEquals(List.of("undo 2", "undo 1"), log);
+    }
+
+    @Test
+    public void testFailedFirstRecordRollsBack() {
+        List<String> log = new ArrayList<>();
+        assertThrows(FlightBookingSystemException.class, () ->
+                UnitOfWork.run(work -> {
+                    work.addUndo(() -> log.add("undo"));
+                    work.addRecord(() -> {
+                        throw new FlightBookingSystemException("Unable to write booking journal: disk full");
+                    });
+                    work.addRecord(() -> log.add("ledger"));
+                }));
+        assertEquals(List.of("undo"), log);
+    }
+
+    @Test
+    public void testFailedSecondRecordCancelsFirstAndRollsBack() {
+        List<String> log = new ArrayList<>();
+        UnitOfWork[] unit = new UnitOfWork[1];
+        assertThrows(FlightBookingSystemException.class, () ->
+                UnitOfWork.run(work -> {
+                    unit[0] = work;
+                    work.addUndo(() -> log.add("undo"));
+                    work.addRecord(() -> log.add("ledger"), () -> log.add("reverse ledger"));
+                    work.addRecord(() -> {
+                        throw new FlightBookingSystemException("Unable to write booking journal: disk full");
+                    });
+                    work.addRecord(() -> log.add("never written"));
+                }));
+        assertEquals(List.of("ledger", "reverse ledger", "undo"), log);
+        assertFalse(unit[0].isCommitted());
+    }
+
+    @Test
+    public void testFailedUndoIsSuppressedAndOthersStillRun() {
+        List<String> log = new ArrayList<>();
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () ->
+                UnitOfWork.run(work -> {
+                    work.addUndo(() -> log.add("undo 1"));
+                    work.addUndo(() -> {
+                        throw new FlightBookingSystemException("Cannot undo.");
+                    });
+                    throw new IllegalStateException("Failed.");
+                }));
+        assertEquals(List.of("undo 1"), log);
+        assertEquals(1, ex.getSuppressed().length);
+        assertEquals("Cannot undo.", ex.getSuppressed()[0].getMessage());
+    }
+
+    @Test
+    public void testCommittedUnitRejectsNewSteps() throws FlightBookingSystemException {
+        UnitOfWork.run(work -> {
+            work.commit();
+            assertTrue(work.isCommitted());
+            assertThrows(IllegalStateException.class, () -> work.addUndo(() -> { }));
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package bcu.cmp5332.bookingsystem.logic;
+
+import bcu.cmp5332.bookingsystem.commands.AddBooking;
+import bcu.cmp5332.bookingsystem.commands.Command;
+import bcu.cmp5332.bookingsystem.commands.UpdateBooking;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests booking commands running on many threads at once.
+ */
+public class ConcurrentBookingTest {
+
+    private PrintStream originalOut;
+
+    @BeforeEach
+    public void silenceOutput() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    public void restoreOutput() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    public void testConcurrentBookingsNeverExceedCapacity() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight f = new Flight(1, "LH2560", "BIR", "MUC", fbs.getSystemDate().plusDays(60), 25, 100.0);
+        fbs.addFlight(f);
+        for (int id = 1; id <= 200; id++) {
+            fbs.addCustomer(new Customer(id, "C" + id, String.format("07%09d", id)));
+        }
+
+        List<List<Command>> tasks = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            tasks.add(List.of(new AddBooking(id, 1)));
+        }
+
+        assertEquals(25, runConcurrently(fbs, tasks));
+        assertEquals(25, f.seatsTaken());
+        assertEquals(25, f.getPassengerView().size());
+    }
+
+    @Test
+    public void testOppositeRebookingsDoNotDeadlock() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight a = new Flight(1, "AA100", "BIR", "MUC", fbs.getSystemDate().plusDays(60), 0, 100.0);
+        Flight b = new Flight(2, "AA200", "MUC", "BIR", fbs.getSystemDate().plusDays(60), 0, 100.0);
+        fbs.addFlight(a);
+        fbs.addFlight(b);
+
+        List<List<Command>> tasks = new ArrayList<>();
+        for (int id = 1; id <= 100; id++) {
+            fbs.addCustomer(new Customer(id, "C" + id, String.format("07%09d", id)));
+            boolean startOnA = id % 2 == 0;
+            new AddBooking(id, startOnA ? 1 : 2).execute(fbs);
+
+            // Every customer moves back and forth, half of them in each direction
+            List<Command> moves = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                boolean onA = startOnA == (i % 2 == 0);
+                moves.add(new UpdateBooking(id, onA ? 1 : 2, onA ? 2 : 1));
+            }
+            tasks.add(moves);
+        }
+
+        assertEquals(100 * 10, runConcurrently(fbs, tasks));
+        assertEquals(50, a.seatsTaken());
+        assertEquals(50, b.seatsTaken());
+    }
+
+    @Test
+    public void testSameCustomerBookingTwiceGivesSeatBack() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight f = new Flight(1, "LH2560", "BIR", "MUC", fbs.getSystemDate().plusDays(60), 10, 100.0);
+        fbs.addFlight(f);
+        fbs.addCustomer(new Customer(1, "C1", "07000000001"));
+
+        List<List<Command>> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(List.of(new AddBooking(1, 1)));
+        }
+
+        assertEquals(1, runConcurrently(fbs, tasks));
+        assertEquals(1, f.seatsTaken());
+        assertEquals(9, f.seatsRemaining());
+    }
+
+    /**
+     * Runs each list of commands in order on its own thread and counts the commands that succeeded.
+     */
+    private static int runConcurrently(FlightBookingSystem fbs, List<List<Command>> tasks) throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (List<Command> task : tasks) {
+                results.add(pool.submit(() -> {
+                    for (Command command : task) {
+                        try {
+                            command.execute(fbs);
+                            succeeded.incrementAndGet();
+                        } catch (FlightBookingSystemException ex) {
+                            // Expected when the flight is full
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                // A deadlock shows up as a timeout here
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return succeeded.get();
+    }
+}
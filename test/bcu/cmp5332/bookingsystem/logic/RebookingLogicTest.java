@@ -287,4 +287,23 @@ public class RebookingLogicTest {
         assertTrue(details.contains("CANCELED"));
         assertTrue(details.contains("Fee:"));
     }
+
+    @Test
+    public void testFailedRebookingLeavesBothBookingsUnchanged() throws FlightBookingSystemException {
+        // A booking whose passenger is missing from the flight makes the last rebooking step fail
+        Booking booking = new Booking(customer, flight1, fbs.getSystemDate(), 100.0);
+        customer.addBooking(booking);
+
+        FlightBookingSystemException ex = assertThrows(FlightBookingSystemException.class,
+                () -> new UpdateBooking(1, 1, 2).execute(fbs));
+        assertEquals("Passenger is not booked on this flight.", ex.getMessage());
+
+        assertEquals(BookingStatus.ACTIVE, booking.getStatus());
+        assertNull(booking.getFeeType());
+        assertSame(booking, customer.getActiveBooking(1));
+        assertNull(customer.getActiveBooking(2));
+        assertEquals(1, customer.getBookings().size());
+        assertEquals(0, flight2.seatsTaken());
+        assertTrue(flight2.getPassengers().isEmpty());
+    }
 }
@@ -0,0 +1,63 @@
+package bcu.cmp5332.bookingsystem.main;
+
+import bcu.cmp5332.bookingsystem.auth.Role;
+import bcu.cmp5332.bookingsystem.auth.User;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BatchRunner.
+ * Runs command scripts with inline arguments and checks the reported results.
+ */
+public class BatchRunnerTest {
+
+    private final User admin = new User(1, "Admin", "", "User", "admin@gmail.com", "pass", Role.ADMIN, null);
+
+    @Test
+    public void testScriptRunsEveryLineAndCountsFailures() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.setSystemDate(LocalDate.of(2026, 1, 1));
+        String script = "# schedule\n"
+                + "addflight BA200 \"New York\" London 2026-05-01 150 320.50\n"
+                + "\n"
+                + "addcustomer Jane Smith jane.smith@batch.test secret 0712345678\n"
+                + "addcustomer Jane Again jane.again@batch.test secret 0712345678\n"
+                + "addbooking 1 1\n"
+                + "addflight BA201 London Paris 2026-13-01 10 10\n"
+                + "exit\n"
+                + "addcustomer Never Run never.run@batch.test secret 0799999999\n";
+
+        BatchRunner runner = new BatchRunner(fbs, admin);
+        assertFalse(runner.run(new BufferedReader(new StringReader(script))));
+
+        assertEquals(3, runner.getSucceeded());
+        assertEquals(2, runner.getFailed());
+        Flight flight = fbs.getFlightByID(1);
+        assertEquals("New York", flight.getOrigin());
+        assertEquals(320.50, flight.getBasePrice(), 0.001);
+        assertEquals(1, fbs.getCustomers().size());
+        assertEquals("Jane Smith", fbs.getCustomerByID(1).getName());
+        User jane = FlightBookingSystemData.getUserDataManager().findByEmail("jane.smith@batch.test");
+        assertEquals(Integer.valueOf(1), jane.getCustomerId());
+        assertNull(FlightBookingSystemData.getUserDataManager().findByEmail("jane.again@batch.test"));
+        assertEquals(1, flight.seatsTaken());
+    }
+
+    @Test
+    public void testTokenizeKeepsQuotedArgumentsTogether() throws FlightBookingSystemException {
+        assertArrayEquals(new String[]{"addcustomer", "Jane Smith", "0712345678"},
+                CommandParser.tokenize("addcustomer  \"Jane Smith\"\t0712345678"));
+        assertArrayEquals(new String[]{"searchflights", "", "Paris"},
+                CommandParser.tokenize("searchflights \"\" Paris"));
+        assertThrows(FlightBookingSystemException.class, () -> CommandParser.tokenize("addcustomer \"Jane"));
+    }
+}
@@ -4,6 +4,8 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -92,4 +94,57 @@ public class CustomerTest {
             c.cancelBookingForFlight(f);
         });
     }
+
+    @Test
+    public void testActiveBookingFollowsStatusChanges() throws FlightBookingSystemException {
+        Customer c = new Customer(10, "Test", "07000000008");
+        Flight f = new Flight(5, "IJ202", "KTM", "BIR", LocalDate.of(2026, 3, 1), 10, 200.0);
+
+        Booking first = new Booking(c, f, LocalDate.of(2026, 2, 1), 200.0);
+        c.addBooking(first);
+        assertSame(first, c.getActiveBooking(5));
+
+        first.setStatus(BookingStatus.CANCELED);
+        assertNull(c.getActiveBooking(5));
+
+        // Rebooking a canceled flight is allowed and becomes the active booking
+        Booking second = new Booking(c, f, LocalDate.of(2026, 2, 2), 210.0);
+        c.addBooking(second);
+        assertSame(second, c.getActiveBooking(5));
+        assertEquals(2, c.getBookings().size());
+
+        c.cancelBookingForFlight(f);
+        assertEquals(List.of(first), c.getBookings());
+        assertNull(c.getActiveBooking(5));
+    }
+
+    @Test
+    public void testHistoryKeepsOrderWhileBookingsAreRemoved() throws FlightBookingSystemException {
+        Customer c = new Customer(11, "Test", "07000000009");
+        List<Booking> made = new ArrayList<>();
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Flight f = new Flight(i, "F" + i, "KTM", "BIR", LocalDate.of(2026, 3, 1), 10, 100.0);
+            Booking b = new Booking(c, f, LocalDate.of(2026, 2, 1), 100.0);
+            c.addBooking(b);
+            flights.add(f);
+            made.add(b);
+        }
+        List<Booking> expected = new ArrayList<>(made);
+
+        // Removing every other booking empties enough slots to compact the history
+        for (int i = 0; i < 10; i += 2) {
+            c.cancelBookingForFlight(flights.get(i));
+            expected.remove(made.get(i));
+            assertEquals(expected, c.getBookings());
+            assertEquals(expected.get(expected.size() - 1), c.getBookings().get(c.getBookings().size() - 1));
+        }
+
+        // A flight with only a canceled booking left is still found without its active booking
+        made.get(1).setStatus(BookingStatus.CANCELED);
+        c.cancelBookingForFlight(flights.get(1));
+        expected.remove(made.get(1));
+        assertEquals(expected, c.getBookings());
+        assertThrows(FlightBookingSystemException.class, () -> c.cancelBookingForFlight(flights.get(1)));
+    }
 }
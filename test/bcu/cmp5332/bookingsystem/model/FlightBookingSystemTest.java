@@ -4,6 +4,11 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,4 +52,260 @@ public class FlightBookingSystemTest {
 
         assertThrows(FlightBookingSystemException.class, () -> fbs.getFlightByID(999));
     }
+
+    @Test
+    public void testFindFlightFollowsNumberAndDateChanges() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight f1 = new Flight(1, "LH2560", "BIR", "MUC", LocalDate.of(2026, 2, 10), 10, 100.0);
+        Flight f2 = new Flight(2, "LH2560", "BIR", "MUC", LocalDate.of(2026, 2, 11), 10, 100.0);
+        fbs.addFlight(f1);
+        fbs.addFlight(f2);
+
+        assertSame(f1, fbs.findFlight("LH2560", LocalDate.of(2026, 2, 10)));
+        assertNull(fbs.findFlight("LH2561", LocalDate.of(2026, 2, 10)));
+
+        f1.setFlightNumber("LH2561");
+        assertNull(fbs.findFlight("LH2560", LocalDate.of(2026, 2, 10)));
+        assertSame(f1, fbs.findFlight("LH2561", LocalDate.of(2026, 2, 10)));
+
+        f2.setDepartureDate(LocalDate.of(2026, 2, 10));
+        assertSame(f2, fbs.findFlight("LH2560", LocalDate.of(2026, 2, 10)));
+        assertNull(fbs.findFlight("LH2560", LocalDate.of(2026, 2, 11)));
+    }
+
+    @Test
+    public void testDuplicateNumberAndDateIsRejected() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight f1 = new Flight(1, "LH2560", "BIR", "MUC", LocalDate.of(2026, 2, 10), 10, 100.0);
+        Flight f2 = new Flight(2, "LH2561", "BIR", "MUC", LocalDate.of(2026, 2, 10), 10, 100.0);
+        fbs.addFlight(f1);
+        fbs.addFlight(f2);
+
+        assertThrows(FlightBookingSystemException.class, () -> fbs.addFlight(
+                new Flight(3, "LH2560", "BIR", "MUC", LocalDate.of(2026, 2, 10), 10, 100.0)));
+        assertThrows(IllegalArgumentException.class, () -> f2.setFlightNumber("LH2560"));
+        assertEquals("LH2561", f2.getFlightNumber());
+        assertSame(f2, fbs.findFlight("LH2561", LocalDate.of(2026, 2, 10)));
+    }
+
+    @Test
+    public void testChangesAreTrackedPerDataSet() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight f = new Flight(1, "LH2560", "BIR", "MUC", LocalDate.of(2026, 2, 10), 10, 100.0);
+        Customer c = new Customer(1, "John", "07000000001");
+        fbs.addFlight(f);
+        fbs.addCustomer(c);
+        assertEquals(EnumSet.of(DataSet.FLIGHTS, DataSet.CUSTOMERS), fbs.getChanges().getChanged());
+
+        fbs.getChanges().clear();
+        assertFalse(fbs.getChanges().hasChanges());
+
+        Booking b = new Booking(c, f, LocalDate.of(2026, 1, 1));
+        c.addBooking(b);
+        assertEquals(EnumSet.of(DataSet.BOOKINGS), fbs.getChanges().getChanged());
+
+        fbs.getChanges().clear();
+        b.setStatus(BookingStatus.CANCELED);
+        assertEquals(EnumSet.of(DataSet.BOOKINGS), fbs.getChanges().getChanged());
+
+        fbs.getChanges().clear();
+        f.deactivate();
+        fbs.setSystemDate(LocalDate.of(2026, 1, 2));
+        assertEquals(EnumSet.of(DataSet.FLIGHTS, DataSet.SYSTEM_DATE), fbs.getChanges().getChanged());
+    }
+
+    @Test
+    public void testPhoneIndexIgnoresFormattingAndCountsDuplicates() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Customer c1 = new Customer(1, "John", "07000000001");
+        Customer c2 = new Customer(2, "Jane", "07000 000001");
+        fbs.addCustomer(c1);
+        fbs.addCustomer(c2);
+
+        assertTrue(fbs.phoneExists("0700-000-0001"));
+        assertFalse(fbs.phoneExists(""));
+
+        c1.setPhone("07000000002");
+        assertTrue(fbs.phoneExists("07000000001"));
+        assertTrue(fbs.phoneExists("07000000002"));
+
+        c2.setPhone("07000000003");
+        assertFalse(fbs.phoneExists("07000000001"));
+    }
+
+    @Test
+    public void testFindCustomersByNameFollowsRenames() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Customer c1 = new Customer(1, "John Smith", "07000000001");
+        Customer c2 = new Customer(2, "Anna Johnson", "07000000002");
+        Customer c3 = new Customer(3, "Jo Lee", "07000000003");
+        fbs.addCustomer(c1);
+        fbs.addCustomer(c2);
+        fbs.addCustomer(c3);
+
+        assertEquals(List.of(c1, c2), fbs.findCustomersByName("JOHN"));
+        assertEquals(List.of(c1), fbs.findCustomersByName("mith"));
+        assertEquals(List.of(c1, c2, c3), fbs.findCustomersByName("jo"));
+        assertEquals(List.of(c3), fbs.findCustomersByName("le"));
+
+        c1.setName("Mark Brown");
+        assertEquals(List.of(c2), fbs.findCustomersByName("john"));
+        assertEquals(List.of(c1), fbs.findCustomersByName("brown"));
+        assertTrue(fbs.findCustomersByName("xyz").isEmpty());
+    }
+
+    @Test
+    public void testFindFlightsByRouteWithinDates() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        LocalDate d = LocalDate.of(2026, 3, 1);
+        Flight late = new Flight(1, "BA100", "BHX", "CDG", d.plusDays(10), 100, 100.0);
+        Flight early = new Flight(2, "BA101", "BHX", "CDG", d, 100, 100.0);
+        Flight middle = new Flight(3, "BA102", "bhx", "cdg", d.plusDays(5), 100, 100.0);
+        Flight other = new Flight(4, "BA103", "CDG", "BHX", d.plusDays(5), 100, 100.0);
+        fbs.addFlight(late);
+        fbs.addFlight(early);
+        fbs.addFlight(middle);
+        fbs.addFlight(other);
+
+        assertEquals(List.of(early, middle, late), new ArrayList<>(fbs.findFlightsByRoute("BHX", "CDG", null, null)));
+        assertEquals(List.of(middle, late), new ArrayList<>(fbs.findFlightsByRoute("Bhx", "Cdg", d.plusDays(1), null)));
+        assertEquals(List.of(early, middle), new ArrayList<>(fbs.findFlightsByRoute("BHX", "CDG", d, d.plusDays(5))));
+        assertTrue(fbs.findFlightsByRoute("BHX", "CDG", d.plusDays(11), null).isEmpty());
+        assertTrue(fbs.findFlightsByRoute("BHX", "JFK", null, null).isEmpty());
+    }
+
+    @Test
+    public void testRouteIndexFollowsFlightChanges() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        LocalDate d = LocalDate.of(2026, 3, 1);
+        Flight f = new Flight(1, "BA100", "BHX", "CDG", d, 100, 100.0);
+        fbs.addFlight(f);
+
+        f.setDestination("AMS");
+        assertTrue(fbs.findFlightsByRoute("BHX", "CDG", null, null).isEmpty());
+        assertEquals(List.of(f), new ArrayList<>(fbs.findFlightsByRoute("BHX", "AMS", null, null)));
+
+        f.setOrigin("LHR");
+        f.setDepartureDate(d.plusDays(3));
+        assertTrue(fbs.findFlightsByRoute("BHX", "AMS", null, null).isEmpty());
+        assertTrue(fbs.findFlightsByRoute("LHR", "AMS", d, d.plusDays(2)).isEmpty());
+        assertEquals(List.of(f), new ArrayList<>(fbs.findFlightsByRoute("LHR", "AMS", d.plusDays(3), d.plusDays(3))));
+    }
+
+    @Test
+    public void testFutureFlightsFollowActivityAndDateChanges() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        LocalDate today = LocalDate.of(2026, 3, 1);
+        Flight past = new Flight(1, "BA100", "BHX", "CDG", today.minusDays(1), 100, 100.0);
+        Flight todays = new Flight(2, "BA101", "BHX", "CDG", today, 100, 100.0);
+        Flight later = new Flight(3, "BA102", "BHX", "CDG", today.plusDays(9), 100, 100.0);
+        Flight soon = new Flight(4, "BA103", "BHX", "CDG", today.plusDays(2), 100, 100.0);
+        fbs.addFlight(past);
+        fbs.addFlight(todays);
+        fbs.addFlight(later);
+        fbs.addFlight(soon);
+
+        assertEquals(List.of(soon, later), new ArrayList<>(fbs.getFutureFlights(today)));
+
+        soon.deactivate();
+        assertEquals(List.of(later), new ArrayList<>(fbs.getFutureFlights(today)));
+        soon.reactivate();
+        past.setDepartureDate(today.plusDays(5));
+        assertEquals(List.of(soon, past, later), new ArrayList<>(fbs.getFutureFlights(today)));
+
+        later.deactivate();
+        later.setDepartureDate(today.plusDays(1));
+        assertEquals(List.of(soon, past), new ArrayList<>(fbs.getFutureFlights(today)));
+        later.reactivate();
+        assertEquals(List.of(later, soon, past), new ArrayList<>(fbs.getFutureFlights(today)));
+    }
+
+    @Test
+    public void testFlightAndCustomerViewsAreSharedAndLive() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight f1 = new Flight(1, "BA100", "BHX", "CDG", LocalDate.of(2026, 3, 1), 100, 100.0);
+        fbs.addFlight(f1);
+        fbs.addCustomer(new Customer(1, "John", "07000000001"));
+
+        List<Flight> flights = fbs.getFlights();
+        List<Customer> customers = fbs.getCustomers();
+        assertSame(flights, fbs.getFlights());
+        assertSame(customers, fbs.getCustomers());
+        assertThrows(UnsupportedOperationException.class, () -> flights.add(f1));
+
+        Flight f2 = new Flight(2, "BA101", "BHX", "CDG", LocalDate.of(2026, 3, 1), 100, 100.0);
+        fbs.addFlight(f2);
+        assertEquals(List.of(f1, f2), flights);
+        assertSame(f2, flights.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> flights.get(2));
+        assertEquals(1, customers.size());
+    }
+
+    @Test
+    public void testIndexesStayCompleteWhenCustomersAreAddedInParallel() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        int threads = 4;
+        int perThread = 500;
+
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < threads; t++) {
+            int first = t * perThread + 1;
+            Thread worker = new Thread(() -> {
+                try {
+                    for (int id = first; id < first + perThread; id++) {
+                        fbs.addCustomer(new Customer(id, "Customer " + id, "07" + (100000000 + id)));
+                        // Searches run while the other threads keep adding
+                        fbs.findCustomersByName("Customer");
+                        fbs.phoneExists("07" + (100000000 + id));
+                    }
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertTrue(failures.isEmpty(), failures.toString());
+        assertEquals(threads * perThread, fbs.findCustomersByName("customer").size());
+        for (int id = 1; id <= threads * perThread; id++) {
+            assertTrue(fbs.phoneExists("07" + (100000000 + id)));
+        }
+    }
+
+    @Test
+    public void testFutureFlightsIsReadOnlyView() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        LocalDate today = fbs.getSystemDate();
+        Flight soon = new Flight(1, "BA1", "BHX", "CDG", today.plusDays(1), 10, 100.0);
+        fbs.addFlight(soon);
+
+        Collection<Flight> future = fbs.getFutureFlights(today);
+        assertThrows(UnsupportedOperationException.class, () -> future.remove(soon));
+
+        Flight later = new Flight(2, "BA2", "BHX", "CDG", today.plusDays(5), 10, 100.0);
+        fbs.addFlight(later);
+        assertEquals(List.of(soon, later), new ArrayList<>(future));
+    }
+
+    @Test
+    public void testRouteViewStaysLiveAfterRouteEmpties() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        LocalDate d = LocalDate.of(2026, 3, 1);
+        Flight f = new Flight(1, "BA100", "BHX", "CDG", d, 100, 100.0);
+        fbs.addFlight(f);
+        Collection<Flight> route = fbs.findFlightsByRoute("BHX", "CDG", null, null);
+
+        f.setDestination("AMS");
+        assertTrue(route.isEmpty());
+
+        f.setDestination("CDG");
+        Flight g = new Flight(2, "BA101", "BHX", "CDG", d.plusDays(1), 100, 100.0);
+        fbs.addFlight(g);
+        assertEquals(List.of(f, g), new ArrayList<>(route));
+    }
 }
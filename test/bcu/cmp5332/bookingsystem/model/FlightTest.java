@@ -4,6 +4,10 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -97,4 +101,84 @@ public class FlightTest {
 
         assertThrows(FlightBookingSystemException.class, () -> f.removePassenger(c));
     }
+
+    @Test
+    public void testSeatAccountingFollowsPassengers() throws FlightBookingSystemException {
+        Flight f = new Flight(1, "LH2560", "BIR", "MUC", LocalDate.of(2026, 2, 10), 4, 100.0);
+        Customer c1 = new Customer(1, "John", "07000000001");
+        Customer c2 = new Customer(2, "Jane", "07000000002");
+
+        f.addPassenger(c1);
+        f.addPassenger(c2);
+        assertEquals(2, f.seatsTaken());
+        assertEquals(2, f.seatsRemaining());
+        assertEquals(0.5, f.occupancyRate(), 0.0001);
+        assertFalse(f.isFull());
+        assertTrue(f.getPassengerView().contains(c2));
+
+        f.removePassenger(c2);
+        assertEquals(1, f.seatsTaken());
+        assertFalse(f.getPassengerView().contains(c2));
+        assertThrows(UnsupportedOperationException.class, () -> f.getPassengerView().add(c2));
+    }
+
+    @Test
+    public void testZeroCapacityHasNoSeatLimit() throws FlightBookingSystemException {
+        Flight f = new Flight(1, "LH2560", "BIR", "MUC", LocalDate.of(2026, 2, 10), 0, 100.0);
+        f.addPassenger(new Customer(1, "John", "07000000001"));
+
+        assertFalse(f.isFull());
+        assertEquals(Integer.MAX_VALUE, f.seatsRemaining());
+        assertEquals(0.0, f.occupancyRate(), 0.0001);
+    }
+
+    @Test
+    public void testRaceForLastSeatsNeverOversells() throws Exception {
+        Flight f = new Flight(1, "LH2560", "BIR", "MUC", LocalDate.of(2026, 2, 10), 100, 100.0);
+        for (int id = 1; id <= 90; id++) {
+            assertTrue(f.tryReserveSeat());
+            f.addReservedPassenger(new Customer(id, "C" + id, "07000000001"));
+        }
+
+        int threads = 400;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger seated = new AtomicInteger();
+        List<Thread> racers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Customer c = new Customer(1000 + i, "R" + i, "07000000002");
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                    if (f.tryReserveSeat()) {
+                        f.addReservedPassenger(c);
+                        seated.incrementAndGet();
+                    }
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+            t.start();
+            racers.add(t);
+        }
+        start.countDown();
+        for (Thread t : racers) {
+            t.join(30_000);
+        }
+
+        assertEquals(10, seated.get());
+        assertEquals(100, f.seatsTaken());
+        assertEquals(100, f.getPassengerView().size());
+        assertFalse(f.tryReserveSeat());
+    }
+
+    @Test
+    public void testDuplicatePassengerReleasesReservedSeat() throws FlightBookingSystemException {
+        Flight f = new Flight(1, "LH2560", "BIR", "MUC", LocalDate.of(2026, 2, 10), 2, 100.0);
+        Customer c = new Customer(1, "John", "07000000001");
+        f.addPassenger(c);
+
+        assertTrue(f.tryReserveSeat());
+        assertThrows(FlightBookingSystemException.class, () -> f.addReservedPassenger(c));
+        assertEquals(1, f.seatsTaken());
+    }
 }
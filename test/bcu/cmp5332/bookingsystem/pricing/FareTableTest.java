@@ -0,0 +1,64 @@
+package bcu.cmp5332.bookingsystem.pricing;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FareTable.
+ * Tests that batch prices match single quotes, including the parallel path.
+ */
+public class FareTableTest {
+
+    @Test
+    public void testFutureFlightQuotesMatchSingleQuotes() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        LocalDate today = fbs.getSystemDate();
+        Flight past = new Flight(1, "AA100", "BIR", "MUC", today.minusDays(1), 2, 100.0);
+        Flight soon = new Flight(2, "AA200", "BIR", "MUC", today.plusDays(3), 2, 100.0);
+        Flight later = new Flight(3, "AA300", "BIR", "MUC", today.plusDays(90), 2, 80.0);
+        fbs.addFlight(past);
+        fbs.addFlight(soon);
+        fbs.addFlight(later);
+        later.addPassenger(new Customer(1, "John", "07000000001"));
+
+        FareTable fares = fbs.quoteFutureFlights();
+
+        assertEquals(2, fares.size());
+        assertSame(soon, fares.getFlight(0));
+        assertEquals(fbs.quote(soon), fares.getPrice(0), 0.0001);
+        assertEquals(130.0, fares.getPrice(0), 0.0001);
+        assertEquals(fbs.quote(later), fares.getPrice(1), 0.0001);
+        assertEquals(88.0, fares.getPrice(1), 0.0001);
+    }
+
+    @Test
+    public void testLargeTableIsPricedInParallelWithSameResults() {
+        LocalDate today = LocalDate.of(2026, 1, 1);
+        List<Flight> flights = new ArrayList<>();
+        int n = FareTable.PARALLEL_THRESHOLD * 3 + 17;
+        for (int i = 0; i < n; i++) {
+            flights.add(new Flight(i, "F" + i, "BIR", "MUC", today.plusDays(i % 60), 10, 50.0 + i % 7));
+        }
+
+        PricingEngine rules = RuleTablePricing.standard();
+        FareTable fares = FareTable.quote(flights, today, rules);
+        // The same engine behind another interface takes the per-flight path
+        FareTable generic = FareTable.quote(flights, today, rules::price);
+
+        assertEquals(n, fares.size());
+        for (int i = 0; i < n; i++) {
+            double expected = rules.price(flights.get(i), today);
+            assertEquals(expected, fares.getPrice(i), 0.0001);
+            assertEquals(expected, generic.getPrice(i), 0.0001);
+        }
+    }
+}
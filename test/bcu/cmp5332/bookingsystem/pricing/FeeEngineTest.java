@@ -0,0 +1,38 @@
+package bcu.cmp5332.bookingsystem.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FeeEngine.
+ * Tests percentage fees, minimum fees and refunds that never go below zero.
+ */
+public class FeeEngineTest {
+
+    private final FeeEngine fees = FeeEngine.standard();
+
+    @Test
+    public void testCancellationFee() {
+        assertEquals(11.5, fees.cancellationFee(115.0), 0.001);
+        assertEquals(5.0, fees.cancellationFee(20.0), 0.001);
+        assertEquals(103.5, fees.refundAfter(115.0, 11.5), 0.001);
+    }
+
+    @Test
+    public void testRebookingFee() {
+        assertEquals(10.0, fees.rebookingFee(200.0), 0.001);
+        assertEquals(2.0, fees.rebookingFee(10.0), 0.001);
+        assertEquals(5.0, fees.getRebookPercent(), 0.001);
+    }
+
+    @Test
+    public void testRefundIsNeverNegative() {
+        assertEquals(0.0, fees.refundAfter(3.0, fees.cancellationFee(3.0)), 0.001);
+    }
+
+    @Test
+    public void testNegativeFeesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new FeeEngine(-0.1, 5.0, 0.05, 2.0));
+    }
+}
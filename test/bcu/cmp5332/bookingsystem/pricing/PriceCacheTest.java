@@ -0,0 +1,61 @@
+package bcu.cmp5332.bookingsystem.pricing;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PriceCache.
+ * Tests that cached prices are reused and recomputed when flight figures or the date change.
+ */
+public class PriceCacheTest {
+
+    private final AtomicInteger computed = new AtomicInteger();
+    private final PriceCache cache = new PriceCache((flight, date) -> {
+        computed.incrementAndGet();
+        return RuleTablePricing.standard().price(flight, date);
+    });
+
+    @Test
+    public void testUnchangedFlightIsPricedOnce() {
+        LocalDate today = LocalDate.of(2026, 1, 1);
+        Flight f = new Flight(1, "LH2560", "BIR", "MUC", today.plusDays(60), 2, 100.0);
+
+        assertEquals(100.0, cache.price(f, today), 0.001);
+        assertEquals(100.0, cache.price(f, today), 0.001);
+        assertEquals(1, computed.get());
+    }
+
+    @Test
+    public void testSeatAndDateChangesRecomputePrice() throws FlightBookingSystemException {
+        LocalDate today = LocalDate.of(2026, 1, 1);
+        Flight f = new Flight(1, "LH2560", "BIR", "MUC", today.plusDays(60), 2, 100.0);
+        cache.price(f, today);
+
+        f.addPassenger(new Customer(1, "John", "07000000001"));
+        assertEquals(110.0, cache.price(f, today), 0.001);
+
+        assertEquals(110.0 * 1.15, cache.price(f, today.plusDays(40)), 0.001);
+
+        f.setBasePrice(200.0);
+        assertEquals(220.0 * 1.15, cache.price(f, today.plusDays(40)), 0.001);
+        assertEquals(4, computed.get());
+    }
+
+    @Test
+    public void testInvalidateAllDropsPrices() {
+        LocalDate today = LocalDate.of(2026, 1, 1);
+        Flight f = new Flight(1, "LH2560", "BIR", "MUC", today.plusDays(60), 2, 100.0);
+        cache.price(f, today);
+
+        cache.invalidateAll();
+        cache.price(f, today);
+        assertEquals(2, computed.get());
+    }
+}
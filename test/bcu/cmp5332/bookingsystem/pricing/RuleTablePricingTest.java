@@ -0,0 +1,44 @@
+package bcu.cmp5332.bookingsystem.pricing;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RuleTablePricing.
+ * Tests the standard occupancy and days-to-departure tiers.
+ */
+public class RuleTablePricingTest {
+
+    private final RuleTablePricing pricing = RuleTablePricing.standard();
+
+    @Test
+    public void testStandardTiers() {
+        assertEquals(100.0, pricing.price(100.0, 0.0, 31), 0.001);
+        assertEquals(110.0, pricing.price(100.0, 0.5, 31), 0.001);
+        assertEquals(120.0, pricing.price(100.0, 0.8, 31), 0.001);
+        assertEquals(115.0, pricing.price(100.0, 0.0, 30), 0.001);
+        assertEquals(130.0, pricing.price(100.0, 0.0, 7), 0.001);
+        assertEquals(156.0, pricing.price(100.0, 0.9, 1), 0.001);
+    }
+
+    @Test
+    public void testPriceUsesFlightOccupancyAndDate() throws FlightBookingSystemException {
+        LocalDate today = LocalDate.of(2026, 1, 1);
+        Flight f = new Flight(1, "LH2560", "BIR", "MUC", today.plusDays(20), 2, 100.0);
+        f.addPassenger(new Customer(1, "John", "07000000001"));
+
+        assertEquals(100.0 * 1.10 * 1.15, pricing.price(f, today), 0.001);
+    }
+
+    @Test
+    public void testTiersNeedFactors() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new RuleTablePricing(new double[]{0.5}, new double[0], new long[0], new double[0]));
+    }
+}
@@ -0,0 +1,129 @@
+package bcu.cmp5332.bookingsystem.search;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ItinerarySearch.
+ * Tests ranking of direct and connecting journeys, layovers and unbookable flights.
+ */
+public class ItinerarySearchTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 1, 1);
+    private static final LocalDate DAY = TODAY.plusDays(60);
+
+    private FlightBookingSystem fbs;
+    private ItinerarySearch search;
+    private int nextId = 1;
+
+    @BeforeEach
+    public void setup() {
+        fbs = new FlightBookingSystem();
+        fbs.setSystemDate(TODAY);
+        search = new ItinerarySearch(fbs);
+    }
+
+    private Flight flight(String origin, String destination, LocalDate date, double price)
+            throws FlightBookingSystemException {
+        int id = nextId++;
+        Flight f = new Flight(id, "XX" + id, origin, destination, date, 10, price);
+        fbs.addFlight(f);
+        return f;
+    }
+
+    @Test
+    public void testCheapestPutsConnectionBeforeExpensiveDirect() throws FlightBookingSystemException {
+        Flight direct = flight("BHX", "JFK", DAY, 500.0);
+        Flight toHub = flight("BHX", "DUB", DAY, 100.0);
+        Flight fromHub = flight("DUB", "JFK", DAY.plusDays(1), 150.0);
+
+        List<Itinerary> found = search.search("bhx", "jfk", DAY, DAY, 5, ItinerarySearch.Order.CHEAPEST);
+
+        assertEquals(2, found.size());
+        assertEquals(List.of(toHub, fromHub), found.get(0).getLegs());
+        assertEquals(250.0, found.get(0).getTotalPrice(), 0.001);
+        assertEquals(1, found.get(0).getDurationDays());
+        assertEquals(List.of(direct), found.get(1).getLegs());
+    }
+
+    @Test
+    public void testShortestPutsDirectFirstAndLimitApplies() throws FlightBookingSystemException {
+        Flight direct = flight("BHX", "JFK", DAY, 500.0);
+        flight("BHX", "DUB", DAY, 100.0);
+        flight("DUB", "JFK", DAY.plusDays(1), 150.0);
+
+        List<Itinerary> found = search.search("BHX", "JFK", DAY, DAY, 1, ItinerarySearch.Order.SHORTEST);
+
+        assertEquals(1, found.size());
+        assertEquals(List.of(direct), found.get(0).getLegs());
+    }
+
+    @Test
+    public void testLayoverAndLegLimitsAreHonoured() throws FlightBookingSystemException {
+        flight("BHX", "DUB", DAY, 100.0);
+        flight("DUB", "JFK", DAY, 100.0);
+        Flight later = flight("DUB", "JFK", DAY.plusDays(2), 120.0);
+
+        search.setLayoverDays(1, 3);
+        List<Itinerary> found = search.search("BHX", "JFK", DAY, DAY, 5, ItinerarySearch.Order.CHEAPEST);
+        assertEquals(1, found.size());
+        assertEquals(later, found.get(0).getLegs().get(1));
+
+        search.setMaxLegs(1);
+        assertTrue(search.search("BHX", "JFK", DAY, DAY, 5, ItinerarySearch.Order.CHEAPEST).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> search.setLayoverDays(2, 1));
+    }
+
+    @Test
+    public void testFullInactiveAndDepartedFlightsAreSkipped() throws FlightBookingSystemException {
+        Flight full = flight("BHX", "DUB", DAY, 50.0);
+        full.setCapacity(1);
+        full.addPassenger(new Customer(1, "John", "07000000001"));
+        Flight inactive = flight("BHX", "DUB", DAY, 60.0);
+        inactive.deactivate();
+        Flight departed = flight("BHX", "DUB", TODAY, 10.0);
+        Flight open = flight("BHX", "DUB", DAY, 70.0);
+
+        List<Itinerary> found = search.search("BHX", "DUB", TODAY, DAY, 5, ItinerarySearch.Order.CHEAPEST);
+
+        assertEquals(1, found.size());
+        assertEquals(List.of(open), found.get(0).getLegs());
+        assertFalse(found.get(0).getLegs().contains(departed));
+    }
+
+    @Test
+    public void testConnectionsNeverRevisitAnAirport() throws FlightBookingSystemException {
+        flight("BHX", "DUB", DAY, 10.0);
+        flight("DUB", "BHX", DAY, 10.0);
+        flight("DUB", "JFK", DAY, 10.0);
+
+        search.setMaxLegs(4);
+        List<Itinerary> found = search.search("BHX", "JFK", DAY, DAY, 5, ItinerarySearch.Order.CHEAPEST);
+
+        assertEquals(1, found.size());
+        assertEquals(2, found.get(0).getLegs().size());
+    }
+
+    @Test
+    public void testCheaperArrivalWithMoreLegsDoesNotHideShorterOne() throws FlightBookingSystemException {
+        flight("BHX", "DUB", DAY, 50.0);
+        flight("DUB", "CDG", DAY, 50.0);
+        Flight direct = flight("BHX", "CDG", DAY, 400.0);
+        Flight toAms = flight("CDG", "AMS", DAY, 100.0);
+        Flight toJfk = flight("AMS", "JFK", DAY, 100.0);
+
+        List<Itinerary> found = search.search("BHX", "JFK", DAY, DAY, 1, ItinerarySearch.Order.CHEAPEST);
+
+        assertEquals(1, found.size());
+        assertEquals(List.of(direct, toAms, toJfk), found.get(0).getLegs());
+    }
+}